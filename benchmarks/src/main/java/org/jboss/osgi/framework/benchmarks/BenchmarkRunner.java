@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once for every configured thread count and writes the results as JSON.
+ *
+ * The thread counts are given by the comma separated <code>jmh.threads</code> property. The results are
+ * written to the <code>jmh.results</code> directory, with the <code>jmh.label</code> property as file name prefix.
+ * The comma separated <code>jmh.prof</code> property adds profilers, i.e. <code>gc</code> for the allocation per operation.
+ * An optional argument is the regular expression of the benchmarks to run.
+ *
+ * @since 19-Oct-2026
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+        String label = System.getProperty("jmh.label", "results");
+        File resultsDir = new File(System.getProperty("jmh.results", "target/jmh-results"));
+        resultsDir.mkdirs();
+
+        for (String threads : System.getProperty("jmh.threads", "1,4,16,32").split(",")) {
+            int threadCount = Integer.parseInt(threads.trim());
+            File resultFile = new File(resultsDir, label + "-t" + threadCount + ".json");
+            ChainedOptionsBuilder builder = new OptionsBuilder().include(include).threads(threadCount)
+                    .resultFormat(ResultFormatType.JSON).result(resultFile.getPath());
+            String profilers = System.getProperty("jmh.prof");
+            if (profilers != null) {
+                for (String profiler : profilers.split(",")) {
+                    builder.addProfiler(profiler.trim());
+                }
+            }
+            new Runner(builder.build()).run();
+        }
+    }
+}
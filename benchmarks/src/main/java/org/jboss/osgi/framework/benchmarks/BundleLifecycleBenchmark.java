@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Benchmarks the phases of the framework and bundle lifecycle with a set of synthetic bundles.
+ *
+ * Every benchmark measures a single {@link LifecyclePhase}. The preceding phases run in the iteration setup
+ * on a new storage area. Run with <code>-Djmh.prof=gc</code> to report the allocation per phase.
+ * Every thread drives its own framework.
+ *
+ * @since 19-Oct-2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BundleLifecycleBenchmark {
+
+    // The seed of the generated topology
+    static final long SEED = 20261019L;
+
+    @Param({ "FLAT", "CHAIN", "FAN", "MESH" })
+    public String topology;
+
+    @Param({ "100", "1000" })
+    public int bundles;
+
+    private LifecycleDriver driver;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        driver = new LifecycleDriver(BundleTopology.valueOf(topology), bundles, SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        driver.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void prepare(BenchmarkParams params) throws Exception {
+        driver.prepare(getPhase(params));
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanup() throws Exception {
+        driver.cleanup();
+    }
+
+    @Benchmark
+    public void coldStart() throws Exception {
+        LifecyclePhase.COLD_START.run(driver);
+    }
+
+    @Benchmark
+    public void install() throws Exception {
+        LifecyclePhase.INSTALL.run(driver);
+    }
+
+    @Benchmark
+    public void resolve() throws Exception {
+        LifecyclePhase.RESOLVE.run(driver);
+    }
+
+    @Benchmark
+    public void start() throws Exception {
+        LifecyclePhase.START.run(driver);
+    }
+
+    @Benchmark
+    public void startLevel() throws Exception {
+        LifecyclePhase.START_LEVEL.run(driver);
+    }
+
+    @Benchmark
+    public void update() throws Exception {
+        LifecyclePhase.UPDATE.run(driver);
+    }
+
+    @Benchmark
+    public void refreshPackages() throws Exception {
+        LifecyclePhase.REFRESH_PACKAGES.run(driver);
+    }
+
+    @Benchmark
+    public void stop() throws Exception {
+        LifecyclePhase.STOP.run(driver);
+    }
+
+    @Benchmark
+    public void warmRestart() throws Exception {
+        LifecyclePhase.WARM_RESTART.run(driver);
+    }
+
+    // Maps the benchmark method name to the phase, i.e. coldStart to COLD_START
+    private static LifecyclePhase getPhase(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        String methodName = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        return LifecyclePhase.valueOf(methodName.replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.util.Random;
+
+/**
+ * The wiring of the bundles built by the {@link SyntheticBundleGenerator}.
+ *
+ * Every bundle exports one package and imports the packages of bundles with a lower index,
+ * so that each topology is resolvable.
+ *
+ * @since 19-Oct-2026
+ */
+enum BundleTopology {
+
+    /** Unrelated bundles without package wires */
+    FLAT(0, false, 0, 0, 0),
+    /** Every bundle imports the package of its predecessor */
+    CHAIN(1, false, 0, 0, 0),
+    /** Every bundle imports the packages of its four predecessors, with some fragments and required bundles */
+    FAN(4, false, 10, 20, 0),
+    /** Every bundle imports six random packages, with fragments, required bundles and dynamic imports */
+    MESH(6, true, 10, 20, 25);
+
+    // The number of packages imported by a bundle
+    final int imports;
+    // Whether the imported packages are picked at random
+    final boolean random;
+    // Every n-th bundle gets a fragment, zero for none
+    final int fragmentEvery;
+    // Every n-th bundle requires its predecessor, zero for none
+    final int requireBundleEvery;
+    // Every n-th bundle has a dynamic import, zero for none
+    final int dynamicImportEvery;
+
+    BundleTopology(int imports, boolean random, int fragmentEvery, int requireBundleEvery, int dynamicImportEvery) {
+        this.imports = imports;
+        this.random = random;
+        this.fragmentEvery = fragmentEvery;
+        this.requireBundleEvery = requireBundleEvery;
+        this.dynamicImportEvery = dynamicImportEvery;
+    }
+
+    /**
+     * Get the indexes of the bundles whose packages are imported by the bundle at the given index.
+     */
+    int[] selectImports(int index, Random rnd) {
+        int count = Math.min(imports, index);
+        int[] result = new int[count];
+        if (random) {
+            int found = 0;
+            while (found < count) {
+                int candidate = rnd.nextInt(index);
+                boolean duplicate = false;
+                for (int i = 0; i < found && !duplicate; i++) {
+                    duplicate = result[i] == candidate;
+                }
+                if (!duplicate) {
+                    result[found++] = candidate;
+                }
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                result[i] = index - i - 1;
+            }
+        }
+        return result;
+    }
+
+    boolean hasFragment(int index) {
+        return fragmentEvery > 0 && index % fragmentEvery == 0;
+    }
+
+    boolean requiresPredecessor(int index) {
+        return requireBundleEvery > 0 && index > 0 && index % requireBundleEvery == 0;
+    }
+
+    boolean hasDynamicImport(int index) {
+        return dynamicImportEvery > 0 && index % dynamicImportEvery == 0;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.launch.Framework;
+
+/**
+ * Benchmarks the definition of bundle classes by the module class loaders.
+ *
+ * Every iteration installs the bundles into a new framework and measures the time to load all their classes.
+ * With multiple threads every thread loads all classes, starting at a different bundle, so that threads
+ * compete for the same class loaders.
+ *
+ * @since 19-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ClassDefineBenchmark {
+
+    @Param({ "20" })
+    public int bundles;
+
+    @Param({ "500", "2000" })
+    public int classes;
+
+    private File bundleDir;
+    private List<File> bundleFiles;
+    private Framework framework;
+    private Bundle[] installed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        bundleDir = FrameworkSupport.createStorageDir("bundles-define");
+        SyntheticBundleGenerator generator = new SyntheticBundleGenerator(bundleDir, BundleTopology.FLAT, bundles, classes, BundleLifecycleBenchmark.SEED);
+        bundleFiles = generator.generateBundles();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        FrameworkSupport.deleteRecursively(bundleDir);
+    }
+
+    @Setup(Level.Iteration)
+    public void startFramework() throws Exception {
+        framework = FrameworkSupport.startFramework("class-define");
+        List<Bundle> result = FrameworkSupport.installAndResolve(framework.getBundleContext(), bundleFiles);
+        installed = result.toArray(new Bundle[result.size()]);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopFramework() throws Exception {
+        FrameworkSupport.stopFramework(framework);
+    }
+
+    @Benchmark
+    public void defineClasses(ThreadParams threadParams, Blackhole blackhole) throws Exception {
+        int offset = threadParams.getThreadIndex();
+        for (int i = 0; i < installed.length; i++) {
+            int index = (i + offset) % installed.length;
+            for (int k = 0; k < classes; k++) {
+                blackhole.consume(installed[index].loadClass(SyntheticBundleGenerator.getClassName(index, k)));
+            }
+        }
+    }
+}
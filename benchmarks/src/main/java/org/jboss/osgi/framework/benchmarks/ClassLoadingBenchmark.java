@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.launch.Framework;
+
+/**
+ * Benchmarks class and resource lookups in resolved bundles.
+ *
+ * The bundles are wired as a {@link BundleTopology#MESH} and all their classes are loaded during setup,
+ * so that the class loads measure the delegation to already defined classes. The runner executes every
+ * benchmark for several thread counts, which shows the lock contention in the class loaders.
+ *
+ * @since 19-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassLoadingBenchmark {
+
+    // A class that is loaded through boot delegation
+    static final String BOOT_DELEGATION_CLASS = "com.sun.management.OperatingSystemMXBean";
+    // A package that matches the dynamic import, but is not exported
+    static final String MISSING_PACKAGE = "synthetic.missing";
+
+    @Param({ "50" })
+    public int bundles;
+
+    @Param({ "200", "2000" })
+    public int classes;
+
+    private File bundleDir;
+    private Framework framework;
+    private Bundle[] hosts;
+    private Bundle dynamicImporter;
+    private Bundle[] importers;
+    private String[] importedClasses;
+    private URL[] entryURLs;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final Random random = new Random();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        bundleDir = FrameworkSupport.createStorageDir("bundles-classloading");
+        SyntheticBundleGenerator generator = new SyntheticBundleGenerator(bundleDir, BundleTopology.MESH, bundles, classes, BundleLifecycleBenchmark.SEED);
+        framework = FrameworkSupport.startFramework("class-loading");
+        FrameworkSupport.installAndResolve(framework.getBundleContext(), generator.generateBundles());
+
+        hosts = new Bundle[bundles];
+        for (Bundle bundle : framework.getBundleContext().getBundles()) {
+            String symbolicName = bundle.getSymbolicName();
+            if (symbolicName.startsWith(SyntheticBundleGenerator.SYMBOLIC_NAME_PREFIX)) {
+                int index = Integer.parseInt(symbolicName.substring(SyntheticBundleGenerator.SYMBOLIC_NAME_PREFIX.length()));
+                hosts[index] = bundle;
+            }
+        }
+
+        // Define all classes and collect the entry URLs
+        entryURLs = new URL[bundles];
+        for (int i = 0; i < bundles; i++) {
+            for (int k = 0; k < classes; k++) {
+                hosts[i].loadClass(SyntheticBundleGenerator.getClassName(i, k));
+            }
+            entryURLs[i] = hosts[i].getEntry(getClassPath(i, 0));
+        }
+
+        // Collect the bundles that import a package and the classes they can load from it
+        List<Bundle> importerList = new ArrayList<Bundle>();
+        List<String> classList = new ArrayList<String>();
+        for (int i = 0; i < bundles; i++) {
+            for (int importIndex : generator.getImports(i)) {
+                importerList.add(hosts[i]);
+                classList.add(SyntheticBundleGenerator.getClassName(importIndex, i % classes));
+            }
+        }
+        importers = importerList.toArray(new Bundle[importerList.size()]);
+        importedClasses = classList.toArray(new String[classList.size()]);
+
+        // The first bundle of a mesh has a dynamic import
+        dynamicImporter = hosts[0];
+        if (dynamicImporter.getHeaders().get(Constants.DYNAMICIMPORT_PACKAGE) == null)
+            throw new IllegalStateException("No dynamic import in: " + dynamicImporter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FrameworkSupport.stopFramework(framework);
+        FrameworkSupport.deleteRecursively(bundleDir);
+    }
+
+    @Benchmark
+    public Class<?> importedClass(ThreadState state) throws Exception {
+        int index = state.random.nextInt(importers.length);
+        return importers[index].loadClass(importedClasses[index]);
+    }
+
+    @Benchmark
+    public Class<?> dynamicImportHit(ThreadState state) throws Exception {
+        int index = 1 + state.random.nextInt(bundles - 1);
+        return dynamicImporter.loadClass(SyntheticBundleGenerator.getClassName(index, state.random.nextInt(classes)));
+    }
+
+    @Benchmark
+    public Class<?> dynamicImportMiss(ThreadState state) {
+        try {
+            return dynamicImporter.loadClass(MISSING_PACKAGE + "." + SyntheticBundleGenerator.CLASS_PREFIX + state.random.nextInt(classes));
+        } catch (ClassNotFoundException ex) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Class<?> bootDelegation(ThreadState state) throws Exception {
+        return hosts[state.random.nextInt(bundles)].loadClass(BOOT_DELEGATION_CLASS);
+    }
+
+    @Benchmark
+    public URL getEntry(ThreadState state) {
+        int index = state.random.nextInt(bundles);
+        return hosts[index].getEntry(getClassPath(index, state.random.nextInt(classes)));
+    }
+
+    @Benchmark
+    public URL getResource(ThreadState state) {
+        int index = state.random.nextInt(bundles);
+        return hosts[index].getResource(getClassPath(index, state.random.nextInt(classes)));
+    }
+
+    @Benchmark
+    public int findEntries(ThreadState state) {
+        int index = state.random.nextInt(bundles);
+        String packagePath = (SyntheticBundleGenerator.PACKAGE_PREFIX + index).replace('.', '/');
+        Enumeration<?> entries = hosts[index].findEntries(packagePath, "*.class", false);
+        int count = 0;
+        while (entries != null && entries.hasMoreElements()) {
+            entries.nextElement();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int openBundleURL(ThreadState state) throws IOException {
+        InputStream input = entryURLs[state.random.nextInt(bundles)].openStream();
+        try {
+            int count = 0;
+            while (input.read() != -1) {
+                count++;
+            }
+            return count;
+        } finally {
+            input.close();
+        }
+    }
+
+    private static String getClassPath(int index, int classIndex) {
+        return SyntheticBundleGenerator.getClassName(index, classIndex).replace('.', '/') + ".class";
+    }
+}
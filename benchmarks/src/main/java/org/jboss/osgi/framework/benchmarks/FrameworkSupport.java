@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.osgi.framework.internal.FrameworkBuilder;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.launch.Framework;
+import org.osgi.service.packageadmin.PackageAdmin;
+
+/**
+ * Boots and shuts down an in-process framework for the benchmarks.
+ *
+ * @since 19-Oct-2026
+ */
+final class FrameworkSupport {
+
+    // The time in milliseconds to wait for the framework to stop
+    private static final long STOP_TIMEOUT = 10000;
+    // The time in milliseconds to wait for an asynchronous framework event
+    private static final long EVENT_TIMEOUT = 60000;
+
+    private static final AtomicInteger storageCount = new AtomicInteger();
+
+    private FrameworkSupport() {
+    }
+
+    /**
+     * Create and start a framework with a clean storage area.
+     */
+    static Framework startFramework(String name) throws BundleException {
+        return startFramework(name, new HashMap<String, Object>());
+    }
+
+    /**
+     * Create and start a framework with a clean storage area and the given additional properties.
+     */
+    static Framework startFramework(String name, Map<String, Object> props) throws BundleException {
+        return startFramework(createStorageDir(name), true, props);
+    }
+
+    /**
+     * Create and start a framework on the given storage area. Unless the storage is cleaned,
+     * the persistent bundles of a previous framework on the same storage area are installed again.
+     */
+    static Framework startFramework(File storageDir, boolean clean, Map<String, Object> props) throws BundleException {
+        props.put(Constants.FRAMEWORK_STORAGE, storageDir.getAbsolutePath());
+        if (clean) {
+            props.put(Constants.FRAMEWORK_STORAGE_CLEAN, Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT);
+        } else {
+            props.remove(Constants.FRAMEWORK_STORAGE_CLEAN);
+        }
+        FrameworkBuilder builder = new FrameworkBuilder(props, Mode.ON_DEMAND);
+        Framework framework = builder.createFramework();
+        framework.start();
+        return framework;
+    }
+
+    /**
+     * Get a storage area that is unique to this VM.
+     */
+    static File createStorageDir(String name) {
+        String dirName = name + "-" + System.nanoTime() + "-" + storageCount.incrementAndGet();
+        return new File(System.getProperty("java.io.tmpdir"), "jbosgi-benchmarks" + File.separator + dirName);
+    }
+
+    static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Install the given bundle files and resolve all installed bundles.
+     */
+    static List<Bundle> installAndResolve(BundleContext context, List<File> bundleFiles) throws BundleException {
+        List<Bundle> result = new ArrayList<Bundle>();
+        for (File file : bundleFiles) {
+            result.add(context.installBundle(file.toURI().toString()));
+        }
+        ServiceReference sref = context.getServiceReference(PackageAdmin.class.getName());
+        PackageAdmin packageAdmin = (PackageAdmin) context.getService(sref);
+        if (!packageAdmin.resolveBundles(null))
+            throw new IllegalStateException("Cannot resolve all bundles");
+        return result;
+    }
+
+    static void stopFramework(Framework framework) throws Exception {
+        if (framework != null) {
+            framework.stop();
+            framework.waitForStop(STOP_TIMEOUT);
+        }
+    }
+
+    /**
+     * Waits for a framework event of the given type.
+     *
+     * The latch must be created before the action that fires the event.
+     */
+    static final class FrameworkEventLatch implements FrameworkListener {
+
+        private final BundleContext context;
+        private final int eventType;
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        FrameworkEventLatch(BundleContext context, int eventType) {
+            this.context = context;
+            this.eventType = eventType;
+            context.addFrameworkListener(this);
+        }
+
+        @Override
+        public void frameworkEvent(FrameworkEvent event) {
+            if (event.getType() == eventType) {
+                latch.countDown();
+            }
+        }
+
+        void await() throws InterruptedException, TimeoutException {
+            try {
+                if (!latch.await(EVENT_TIMEOUT, TimeUnit.MILLISECONDS))
+                    throw new TimeoutException("Timeout waiting for framework event: " + eventType);
+            } finally {
+                context.removeFrameworkListener(this);
+            }
+        }
+    }
+}
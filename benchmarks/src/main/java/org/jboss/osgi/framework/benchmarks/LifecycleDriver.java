@@ -0,0 +1,201 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.launch.Framework;
+import org.osgi.service.packageadmin.PackageAdmin;
+import org.osgi.service.startlevel.StartLevel;
+
+/**
+ * Drives a framework with a set of synthetic bundles through the {@link LifecyclePhase}s.
+ *
+ * The bundles are generated once and can be driven through any number of lifecycles.
+ * Every lifecycle starts on a new storage area.
+ *
+ * @since 19-Oct-2026
+ */
+final class LifecycleDriver {
+
+    // The start level of the synthetic bundles
+    static final int BUNDLE_START_LEVEL = 2;
+
+    private final File bundleDir;
+    private final List<File> bundleFiles;
+    private final List<File> updateFiles;
+    private File storageDir;
+    private Framework framework;
+    private BundleContext context;
+    private final List<Bundle> hostBundles = new ArrayList<Bundle>();
+    private final List<Bundle> updatedBundles = new ArrayList<Bundle>();
+
+    /**
+     * Generate the bundles for the given topology. Every tenth bundle is updated in the {@link LifecyclePhase#UPDATE} phase.
+     */
+    LifecycleDriver(BundleTopology topology, int bundleCount, long seed) throws IOException {
+        bundleDir = FrameworkSupport.createStorageDir("bundles-" + topology.name().toLowerCase());
+        SyntheticBundleGenerator generator = new SyntheticBundleGenerator(bundleDir, topology, bundleCount, seed);
+        bundleFiles = generator.generateBundles();
+        updateFiles = new ArrayList<File>();
+        for (int i = 0; i < bundleCount; i += 10) {
+            updateFiles.add(generator.generateUpdate(i));
+        }
+    }
+
+    int getBundleFileCount() {
+        return bundleFiles.size();
+    }
+
+    BundleContext getBundleContext() {
+        return context;
+    }
+
+    /**
+     * Run all phases that precede the given phase on a new storage area.
+     */
+    void prepare(LifecyclePhase phase) throws Exception {
+        for (LifecyclePhase aux : LifecyclePhase.values()) {
+            if (aux.ordinal() >= phase.ordinal())
+                break;
+            aux.run(this);
+        }
+    }
+
+    void startFramework(boolean clean) throws Exception {
+        if (clean) {
+            storageDir = FrameworkSupport.createStorageDir("lifecycle");
+            hostBundles.clear();
+            updatedBundles.clear();
+        }
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(Constants.FRAMEWORK_BEGINNING_STARTLEVEL, String.valueOf(BUNDLE_START_LEVEL));
+        framework = FrameworkSupport.startFramework(storageDir, clean, props);
+        context = framework.getBundleContext();
+        getStartLevel().setInitialBundleStartLevel(BUNDLE_START_LEVEL);
+        if (!clean) {
+            hostBundles.clear();
+            for (Bundle bundle : context.getBundles()) {
+                if (bundle.getBundleId() != 0 && bundle.getHeaders().get(Constants.FRAGMENT_HOST) == null) {
+                    hostBundles.add(bundle);
+                }
+            }
+        }
+    }
+
+    void installBundles() throws Exception {
+        for (File file : bundleFiles) {
+            Bundle bundle = context.installBundle(file.toURI().toString());
+            if (bundle.getHeaders().get(Constants.FRAGMENT_HOST) == null) {
+                hostBundles.add(bundle);
+            }
+        }
+    }
+
+    void resolveBundles() throws Exception {
+        if (!getPackageAdmin().resolveBundles(null))
+            throw new IllegalStateException("Cannot resolve all synthetic bundles");
+    }
+
+    void startBundles() throws Exception {
+        for (Bundle bundle : hostBundles) {
+            bundle.start();
+        }
+    }
+
+    void cycleStartLevel() throws Exception {
+        StartLevel startLevel = getStartLevel();
+        FrameworkSupport.FrameworkEventLatch latch = new FrameworkSupport.FrameworkEventLatch(context, FrameworkEvent.STARTLEVEL_CHANGED);
+        startLevel.setStartLevel(BUNDLE_START_LEVEL - 1);
+        latch.await();
+        latch = new FrameworkSupport.FrameworkEventLatch(context, FrameworkEvent.STARTLEVEL_CHANGED);
+        startLevel.setStartLevel(BUNDLE_START_LEVEL);
+        latch.await();
+    }
+
+    void updateBundles() throws Exception {
+        updatedBundles.clear();
+        for (int i = 0; i < updateFiles.size(); i++) {
+            Bundle bundle = hostBundles.get(i * 10);
+            InputStream input = new FileInputStream(updateFiles.get(i));
+            try {
+                bundle.update(input);
+            } finally {
+                input.close();
+            }
+            updatedBundles.add(bundle);
+        }
+    }
+
+    void refreshPackages() throws Exception {
+        Bundle[] bundles = updatedBundles.toArray(new Bundle[updatedBundles.size()]);
+        FrameworkSupport.FrameworkEventLatch latch = new FrameworkSupport.FrameworkEventLatch(context, FrameworkEvent.PACKAGES_REFRESHED);
+        getPackageAdmin().refreshPackages(bundles);
+        latch.await();
+    }
+
+    void stopFramework() throws Exception {
+        FrameworkSupport.stopFramework(framework);
+        framework = null;
+        context = null;
+    }
+
+    /**
+     * Stop a running framework and delete its storage area.
+     */
+    void cleanup() throws Exception {
+        if (framework != null) {
+            stopFramework();
+        }
+        if (storageDir != null) {
+            FrameworkSupport.deleteRecursively(storageDir);
+            storageDir = null;
+        }
+    }
+
+    /**
+     * Cleanup and delete the generated bundles.
+     */
+    void close() throws Exception {
+        cleanup();
+        FrameworkSupport.deleteRecursively(bundleDir);
+    }
+
+    private PackageAdmin getPackageAdmin() {
+        return (PackageAdmin) context.getService(context.getServiceReference(PackageAdmin.class.getName()));
+    }
+
+    private StartLevel getStartLevel() {
+        return (StartLevel) context.getService(context.getServiceReference(StartLevel.class.getName()));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+/**
+ * The phases of the framework and bundle lifecycle in the order they are driven by the {@link LifecycleDriver}.
+ *
+ * A phase can only run after all preceding phases.
+ *
+ * @since 19-Oct-2026
+ */
+enum LifecyclePhase {
+
+    /** Start a framework on a clean storage area */
+    COLD_START {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.startFramework(true);
+        }
+    },
+    /** Install all generated bundles */
+    INSTALL {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.installBundles();
+        }
+    },
+    /** Resolve all installed bundles through the PackageAdmin */
+    RESOLVE {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.resolveBundles();
+        }
+    },
+    /** Start all host bundles */
+    START {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.startBundles();
+        }
+    },
+    /** Move the framework start level down and up again, which stops and starts all bundles */
+    START_LEVEL {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.cycleStartLevel();
+        }
+    },
+    /** Update a subset of the exporting bundles */
+    UPDATE {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.updateBundles();
+        }
+    },
+    /** Refresh the updated bundles and their dependents */
+    REFRESH_PACKAGES {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.refreshPackages();
+        }
+    },
+    /** Stop the framework */
+    STOP {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.stopFramework();
+        }
+    },
+    /** Start a framework on the previous storage area, which installs and starts the persistent bundles */
+    WARM_RESTART {
+        @Override
+        void run(LifecycleDriver driver) throws Exception {
+            driver.startFramework(false);
+        }
+    };
+
+    abstract void run(LifecycleDriver driver) throws Exception;
+}
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Drives complete lifecycles and reports the time and the allocation of every {@link LifecyclePhase}.
+ *
+ * The arguments are the topology (default MESH), the number of bundles (default 1000) and the number of
+ * measured lifecycles (default 5). One additional lifecycle runs as warmup. The allocation is the sum of the bytes
+ * allocated by all live threads, it is not available on every VM.
+ *
+ * @since 19-Oct-2026
+ */
+public final class LifecyclePhaseReport {
+
+    private LifecyclePhaseReport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BundleTopology topology = BundleTopology.valueOf(args.length > 0 ? args[0] : "MESH");
+        int bundleCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        LifecyclePhase[] phases = LifecyclePhase.values();
+        long[] nanos = new long[phases.length];
+        long[] bytes = new long[phases.length];
+        LifecycleDriver driver = new LifecycleDriver(topology, bundleCount, BundleLifecycleBenchmark.SEED);
+        try {
+            for (int i = 0; i <= iterations; i++) {
+                for (LifecyclePhase phase : phases) {
+                    long allocatedBefore = getAllocatedBytes();
+                    long start = System.nanoTime();
+                    phase.run(driver);
+                    long time = System.nanoTime() - start;
+                    long allocated = getAllocatedBytes() - allocatedBefore;
+                    // The first lifecycle is warmup
+                    if (i > 0) {
+                        nanos[phase.ordinal()] += time;
+                        bytes[phase.ordinal()] += allocated;
+                    }
+                }
+                driver.cleanup();
+            }
+        } finally {
+            driver.close();
+        }
+
+        System.out.printf("Topology %s with %d bundle files, average of %d lifecycles%n", topology, driver.getBundleFileCount(), iterations);
+        System.out.printf("%-18s %12s %14s%n", "Phase", "Time [ms]", "Alloc [MB]");
+        for (LifecyclePhase phase : phases) {
+            double millis = nanos[phase.ordinal()] / 1000000.0 / iterations;
+            double megabytes = bytes[phase.ordinal()] / (1024.0 * 1024.0) / iterations;
+            System.out.printf("%-18s %12.2f %14.2f%n", phase, millis, megabytes);
+        }
+    }
+
+    // Get the bytes allocated by all live threads, or zero if not supported
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean))
+            return 0;
+
+        com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!sunBean.isThreadAllocatedMemorySupported() || !sunBean.isThreadAllocatedMemoryEnabled())
+            return 0;
+
+        long result = 0;
+        for (long allocated : sunBean.getThreadAllocatedBytes(sunBean.getAllThreadIds())) {
+            if (allocated > 0) {
+                result += allocated;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.launch.Framework;
+
+/**
+ * Benchmarks the delivery of service events to a growing number of service listeners.
+ *
+ * @since 19-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceEventBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int listeners;
+
+    // True if the listeners are registered with an objectClass filter
+    @Param({ "false", "true" })
+    public boolean filtered;
+
+    private Framework framework;
+    private BundleContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        framework = FrameworkSupport.startFramework("service-events");
+        context = framework.getBundleContext();
+        String filter = "(" + Constants.OBJECTCLASS + "=" + ServiceRegistryBenchmark.SERVICE_NAME + ")";
+        for (int i = 0; i < listeners; i++) {
+            if (filtered) {
+                context.addServiceListener(new CountingListener(), filter);
+            } else {
+                context.addServiceListener(new CountingListener());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FrameworkSupport.stopFramework(framework);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        ServiceRegistration registration;
+        int modifications;
+
+        @Setup(Level.Trial)
+        public void setUp(ServiceEventBenchmark benchmark) {
+            registration = benchmark.context.registerService(ServiceRegistryBenchmark.SERVICE_NAME, new BenchmarkServiceImpl(0),
+                    ServiceRegistryBenchmark.getServiceProperties(0));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            registration.unregister();
+        }
+    }
+
+    @Benchmark
+    public void registerUnregister() {
+        ServiceRegistration registration = context.registerService(ServiceRegistryBenchmark.SERVICE_NAME, new BenchmarkServiceImpl(-1),
+                ServiceRegistryBenchmark.getServiceProperties(-1));
+        registration.unregister();
+    }
+
+    @Benchmark
+    public void modifyProperties(ThreadState state) {
+        state.registration.setProperties(ServiceRegistryBenchmark.getServiceProperties(++state.modifications));
+    }
+
+    static final class CountingListener implements ServiceListener {
+
+        private int events;
+
+        @Override
+        public void serviceChanged(ServiceEvent event) {
+            events++;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.launch.Framework;
+
+/**
+ * Benchmarks service registration, lookup and usage against a populated service registry.
+ *
+ * @since 19-Oct-2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceRegistryBenchmark {
+
+    static final String SERVICE_NAME = BenchmarkService.class.getName();
+
+    // The number of distinct values of the group property
+    static final int GROUPS = 100;
+
+    @Param({ "1000", "10000", "50000" })
+    public int services;
+
+    private Framework framework;
+    private BundleContext context;
+    private ServiceReference[] references;
+    private String[] groupFilters;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        framework = FrameworkSupport.startFramework("service-registry");
+        context = framework.getBundleContext();
+        for (int i = 0; i < services; i++) {
+            context.registerService(SERVICE_NAME, new BenchmarkServiceImpl(i), getServiceProperties(i));
+        }
+        references = context.getServiceReferences(SERVICE_NAME, null);
+        groupFilters = new String[GROUPS];
+        for (int i = 0; i < GROUPS; i++) {
+            groupFilters[i] = "(group=" + i + ")";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FrameworkSupport.stopFramework(framework);
+    }
+
+    static Dictionary<String, Object> getServiceProperties(int index) {
+        Dictionary<String, Object> props = new Hashtable<String, Object>();
+        props.put("index", index);
+        props.put("group", index % GROUPS);
+        return props;
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        private final Random random = new Random();
+
+        int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+    }
+
+    @Benchmark
+    public void registerUnregister() {
+        ServiceRegistration registration = context.registerService(SERVICE_NAME, new BenchmarkServiceImpl(-1), getServiceProperties(-1));
+        registration.unregister();
+    }
+
+    @Benchmark
+    public ServiceReference getServiceReference() {
+        return context.getServiceReference(SERVICE_NAME);
+    }
+
+    @Benchmark
+    public ServiceReference[] getServiceReferences() throws InvalidSyntaxException {
+        return context.getServiceReferences(SERVICE_NAME, null);
+    }
+
+    @Benchmark
+    public ServiceReference[] getServiceReferencesFiltered(ThreadState state) throws InvalidSyntaxException {
+        return context.getServiceReferences(SERVICE_NAME, groupFilters[state.nextInt(GROUPS)]);
+    }
+
+    @Benchmark
+    public int getUngetService(ThreadState state) {
+        ServiceReference reference = references[state.nextInt(references.length)];
+        BenchmarkService service = (BenchmarkService) context.getService(reference);
+        try {
+            return service.getIndex();
+        } finally {
+            context.ungetService(reference);
+        }
+    }
+}
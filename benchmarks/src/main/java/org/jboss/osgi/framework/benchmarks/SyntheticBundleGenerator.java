@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.jboss.osgi.framework.benchmarks.bundle.SyntheticActivator;
+import org.osgi.framework.Constants;
+
+/**
+ * Builds a set of bundle jars that are wired according to a {@link BundleTopology}.
+ *
+ * Bundle <code>i</code> has the symbolic name <code>synthetic.bundle&lt;i&gt;</code>, exports the package
+ * <code>synthetic.p&lt;i&gt;</code> and carries its own copy of the {@link SyntheticActivator}.
+ * The exported package contains the given number of empty classes <code>C&lt;k&gt;</code>.
+ * The generated topology only depends on the bundle count and the seed.
+ *
+ * @since 19-Oct-2026
+ */
+final class SyntheticBundleGenerator {
+
+    static final String SYMBOLIC_NAME_PREFIX = "synthetic.bundle";
+    static final String FRAGMENT_NAME_PREFIX = "synthetic.fragment";
+    static final String PACKAGE_PREFIX = "synthetic.p";
+    static final String CLASS_PREFIX = "C";
+    static final String DYNAMIC_IMPORT_PATTERN = "synthetic.*";
+
+    static final String INITIAL_VERSION = "1.0.0";
+    static final String UPDATE_VERSION = "1.0.1";
+
+    private final File targetDir;
+    private final BundleTopology topology;
+    private final int[][] imports;
+    private final int classCount;
+    private final byte[] activatorBytes;
+
+    SyntheticBundleGenerator(File targetDir, BundleTopology topology, int bundleCount, long seed) throws IOException {
+        this(targetDir, topology, bundleCount, 0, seed);
+    }
+
+    SyntheticBundleGenerator(File targetDir, BundleTopology topology, int bundleCount, int classCount, long seed) throws IOException {
+        this.targetDir = targetDir;
+        this.topology = topology;
+        this.classCount = classCount;
+        this.imports = new int[bundleCount][];
+        Random rnd = new Random(seed);
+        for (int i = 0; i < bundleCount; i++) {
+            imports[i] = topology.selectImports(i, rnd);
+        }
+        activatorBytes = readActivatorClass();
+    }
+
+    int getBundleCount() {
+        return imports.length;
+    }
+
+    int getClassCount() {
+        return classCount;
+    }
+
+    BundleTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Get the indexes of the bundles whose packages are imported by the bundle at the given index.
+     */
+    int[] getImports(int index) {
+        return imports[index].clone();
+    }
+
+    /**
+     * Get the name of a class in the package exported by the bundle at the given index.
+     */
+    static String getClassName(int index, int classIndex) {
+        return PACKAGE_PREFIX + index + "." + CLASS_PREFIX + classIndex;
+    }
+
+    /**
+     * Write all bundles and return the files in install order. A fragment follows its host.
+     */
+    List<File> generateBundles() throws IOException {
+        targetDir.mkdirs();
+        List<File> result = new ArrayList<File>();
+        for (int i = 0; i < imports.length; i++) {
+            result.add(writeBundle(i, INITIAL_VERSION));
+            if (topology.hasFragment(i)) {
+                result.add(writeFragment(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write the next version of the host bundle at the given index.
+     */
+    File generateUpdate(int index) throws IOException {
+        targetDir.mkdirs();
+        return writeBundle(index, UPDATE_VERSION);
+    }
+
+    private File writeBundle(int index, String version) throws IOException {
+        Manifest manifest = createManifest(SYMBOLIC_NAME_PREFIX + index, version);
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.putValue(Constants.BUNDLE_ACTIVATOR, SyntheticActivator.class.getName());
+        attributes.putValue(Constants.EXPORT_PACKAGE, PACKAGE_PREFIX + index + ";version=1.0");
+
+        StringBuilder importPackage = new StringBuilder("org.osgi.framework");
+        for (int importIndex : imports[index]) {
+            importPackage.append(",").append(PACKAGE_PREFIX).append(importIndex);
+        }
+        attributes.putValue(Constants.IMPORT_PACKAGE, importPackage.toString());
+        if (topology.requiresPredecessor(index)) {
+            attributes.putValue(Constants.REQUIRE_BUNDLE, SYMBOLIC_NAME_PREFIX + (index - 1));
+        }
+        if (topology.hasDynamicImport(index)) {
+            attributes.putValue(Constants.DYNAMICIMPORT_PACKAGE, DYNAMIC_IMPORT_PATTERN);
+        }
+
+        String activatorPath = SyntheticActivator.class.getName().replace('.', '/') + ".class";
+        File file = new File(targetDir, SYMBOLIC_NAME_PREFIX + index + "-" + version + ".jar");
+        JarOutputStream jar = new JarOutputStream(new FileOutputStream(file), manifest);
+        try {
+            addEntry(jar, activatorPath, activatorBytes);
+            addEntry(jar, getPackagePath(PACKAGE_PREFIX + index) + "/marker.txt", version.getBytes("UTF-8"));
+            for (int k = 0; k < classCount; k++) {
+                String internalName = getPackagePath(getClassName(index, k));
+                addEntry(jar, internalName + ".class", createClassBytes(internalName));
+            }
+        } finally {
+            jar.close();
+        }
+        return file;
+    }
+
+    private File writeFragment(int index) throws IOException {
+        Manifest manifest = createManifest(FRAGMENT_NAME_PREFIX + index, INITIAL_VERSION);
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.putValue(Constants.FRAGMENT_HOST, SYMBOLIC_NAME_PREFIX + index);
+        attributes.putValue(Constants.EXPORT_PACKAGE, PACKAGE_PREFIX + index + ".fragment;version=1.0");
+
+        File file = new File(targetDir, FRAGMENT_NAME_PREFIX + index + "-" + INITIAL_VERSION + ".jar");
+        JarOutputStream jar = new JarOutputStream(new FileOutputStream(file), manifest);
+        try {
+            addEntry(jar, getPackagePath(PACKAGE_PREFIX + index + ".fragment") + "/marker.txt", INITIAL_VERSION.getBytes("UTF-8"));
+        } finally {
+            jar.close();
+        }
+        return file;
+    }
+
+    private Manifest createManifest(String symbolicName, String version) {
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+        attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, symbolicName);
+        attributes.putValue(Constants.BUNDLE_VERSION, version);
+        return manifest;
+    }
+
+    private static String getPackagePath(String packageName) {
+        return packageName.replace('.', '/');
+    }
+
+    // Create the bytes of a public class without members that extends Object
+    static byte[] createClassBytes(String internalName) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0xCAFEBABE);
+        output.writeShort(0); // minor version
+        output.writeShort(50); // major version
+        output.writeShort(5); // constant pool count
+        output.writeByte(7); // #1 Class #2
+        output.writeShort(2);
+        output.writeByte(1); // #2 Utf8
+        output.writeUTF(internalName);
+        output.writeByte(7); // #3 Class #4
+        output.writeShort(4);
+        output.writeByte(1); // #4 Utf8
+        output.writeUTF("java/lang/Object");
+        output.writeShort(0x0021); // ACC_PUBLIC | ACC_SUPER
+        output.writeShort(1); // this class
+        output.writeShort(3); // super class
+        output.writeShort(0); // interfaces
+        output.writeShort(0); // fields
+        output.writeShort(0); // methods
+        output.writeShort(0); // attributes
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void addEntry(JarOutputStream jar, String path, byte[] bytes) throws IOException {
+        jar.putNextEntry(new JarEntry(path));
+        jar.write(bytes);
+        jar.closeEntry();
+    }
+
+    private static byte[] readActivatorClass() throws IOException {
+        String resource = SyntheticActivator.class.getSimpleName() + ".class";
+        InputStream input = SyntheticActivator.class.getResourceAsStream(resource);
+        if (input == null)
+            throw new IOException("Cannot find: " + resource);
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            copy(input, output);
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    private static void copy(InputStream input, OutputStream output) throws IOException {
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.benchmarks.bundle;
+
+import java.util.Hashtable;
+
+import org.osgi.framework.BundleActivator;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+
+/**
+ * The activator of the synthetic benchmark bundles.
+ *
+ * Every generated bundle carries its own copy of this class as private content.
+ *
+ * @since 19-Oct-2026
+ */
+public final class SyntheticActivator implements BundleActivator {
+
+    @Override
+    public void start(BundleContext context) throws Exception {
+        Hashtable<String, Object> props = new Hashtable<String, Object>();
+        props.put(Constants.BUNDLE_SYMBOLICNAME, context.getBundle().getSymbolicName());
+        context.registerService(SyntheticActivator.class.getName(), this, props);
+    }
+
+    @Override
+    public void stop(BundleContext context) throws Exception {
+        // The service is unregistered by the framework
+    }
+}
@@ -24,10 +24,9 @@ package org.jboss.osgi.framework;
 import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.jboss.msc.service.AbstractService;
@@ -38,6 +37,7 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
+import org.jboss.msc.value.InjectedValue;
 import org.jboss.osgi.deployment.deployer.Deployment;
 import org.jboss.osgi.framework.util.ServiceTracker;
 import org.jboss.osgi.metadata.OSGiMetaData;
@@ -52,6 +52,7 @@ import org.osgi.framework.BundleException;
  */
 abstract class AbstractInstallComplete extends AbstractService<Void> {
 
+    private final InjectedValue<BundleManager> injectedBundleManager = new InjectedValue<BundleManager>();
     private Set<Bundle> installedBundles = new HashSet<Bundle>();
     private ServiceTracker<Bundle> tracker;
 
@@ -86,6 +87,7 @@ abstract class AbstractInstallComplete extends AbstractService<Void> {
                 builder.install();
             }
         };
+        builder.addDependency(Services.BUNDLE_MANAGER, BundleManager.class, injectedBundleManager);
         configureDependencies(builder);
         return builder;
     }
@@ -94,32 +96,35 @@ abstract class AbstractInstallComplete extends AbstractService<Void> {
         tracker.checkAndComplete();
     }
 
+    /**
+     * Start the installed bundles that are marked for auto start.
+     *
+     * The bundles go through one bulk start, so that they are resolved in one pass. A bundle whose start level
+     * is not reached yet is only marked as persistently started. Its activator runs when the framework enters
+     * its start level, together with the other bundles of that level.
+     */
     public void start(final StartContext context) throws StartException {
         ServiceController<?> controller = context.getController();
         LOGGER.tracef("Starting: %s", controller.getName());
-        List<Bundle> bundles = new ArrayList<Bundle>(installedBundles);
-        Collections.sort(bundles, new BundleComparator());
-        for (Bundle bundle : bundles) {
+        List<Bundle> bundles = new ArrayList<Bundle>();
+        for (Bundle bundle : installedBundles) {
             TypeAdaptor adaptor = (TypeAdaptor) bundle;
             Deployment dep = adaptor.adapt(Deployment.class);
             OSGiMetaData metadata = adaptor.adapt(OSGiMetaData.class);
             if (dep.isAutoStart() && metadata.getFragmentHost() == null) {
-                try {
-                    bundle.start(Bundle.START_ACTIVATION_POLICY);
-                } catch (BundleException ex) {
-                    LOGGER.errorCannotStartBundle(ex, bundle);
-                }
+                bundles.add(bundle);
             }
         }
-        LOGGER.debugf("Started: %s", controller.getName());
         installedBundles = null;
         tracker = null;
-    }
 
-    static class BundleComparator implements Comparator<Bundle> {
-        @Override
-        public int compare(Bundle b1, Bundle b2) {
-            return (int) (b1.getBundleId() - b2.getBundleId());
+        if (bundles.isEmpty() == false) {
+            BundleManager bundleManager = injectedBundleManager.getValue();
+            Map<Bundle, BundleException> failures = bundleManager.startBundles(bundles, Bundle.START_ACTIVATION_POLICY);
+            for (Map.Entry<Bundle, BundleException> entry : failures.entrySet()) {
+                LOGGER.errorCannotStartBundle(entry.getValue(), entry.getKey());
+            }
         }
+        LOGGER.debugf("Started: %s", controller.getName());
     }
 }
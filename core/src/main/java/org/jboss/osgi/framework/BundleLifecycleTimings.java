@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework;
+
+import java.util.Map;
+
+import org.osgi.framework.Bundle;
+
+/**
+ * A framework service that provides the timing of bundle lifecycle phases.
+ *
+ * A {@link org.osgi.framework.FrameworkEvent#INFO} is fired for every bundle start that takes longer
+ * than the threshold given by {@link Constants#PROPERTY_BUNDLE_START_THRESHOLD}.
+ *
+ * @since 19-Oct-2026
+ */
+public interface BundleLifecycleTimings {
+
+    /**
+     * Get the lifecycle timing of the given bundle
+     * @return The timing or null if the bundle is not a host bundle
+     */
+    Timing getTiming(Bundle bundle);
+
+    /**
+     * Get the lifecycle timings of all host bundles
+     */
+    Map<Bundle, Timing> getTimings();
+
+    /**
+     * Get the threshold in milliseconds above which a bundle start is reported
+     * @return The threshold or zero if slow starts are not reported
+     */
+    long getStartThreshold();
+
+    /**
+     * The timing of the most recent lifecycle phases of a bundle. All times are in nanoseconds.
+     */
+    interface Timing {
+
+        /** The time it took to resolve the bundle on start */
+        long getResolveTime();
+
+        /** The time it took to create the module class loader */
+        long getClassLoaderCreationTime();
+
+        /** The time it took to load and instantiate the bundle activator */
+        long getActivatorLoadTime();
+
+        /** The time spent in BundleActivator.start */
+        long getActivatorStartTime();
+
+        /** The time spent in BundleActivator.stop */
+        long getActivatorStopTime();
+
+        /** The overall time of the bundle start */
+        long getStartTime();
+
+        /** The number of services that were registered when the bundle became ACTIVE */
+        int getServiceRegistrationCount();
+    }
+}
@@ -21,8 +21,11 @@
  */
 package org.jboss.osgi.framework;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
@@ -98,6 +101,65 @@ public interface BundleManager extends Service<BundleManager> {
      */
     ServiceName installBundle(Deployment deployment, ServiceListener<Bundle> listener) throws BundleException;
 
+    /**
+     * Install a bundle from the given deployment without waiting for the INSTALL service to come up.
+     *
+     * The returned future is completed by a listener on the INSTALL service.
+     * It fails with an {@link java.util.concurrent.ExecutionException} if the service fails to start.
+     *
+     * @param deployment The bundle deployment
+     * @return A future for the installed bundle
+     */
+    Future<Bundle> installBundleAsync(Deployment deployment) throws BundleException;
+
+    /**
+     * Install the bundles from the given deployments.
+     *
+     * The INSTALL services for all deployments are submitted to the service container before
+     * any of them is waited upon, so that the container can install them concurrently.
+     * A deployment that cannot be submitted results in a failed future and does not affect the others.
+     *
+     * @param deployments The bundle deployments
+     * @return The futures for the installed bundles in the iteration order of the given deployments
+     */
+    List<Future<Bundle>> installBundles(Collection<Deployment> deployments);
+
+    /**
+     * Start the given bundles.
+     *
+     * The bundles are resolved in one pass. Bundles that are not wired to each other are then
+     * started concurrently on a bounded thread pool. A bundle is started after the bundles from
+     * the given collection that it is wired to.
+     *
+     * @param bundles The bundles to start
+     * @param options The options passed to {@link Bundle#start(int)}
+     * @return The bundles that could not be started mapped to the cause, or an empty map
+     */
+    Map<Bundle, BundleException> startBundles(Collection<Bundle> bundles, int options);
+
+    /**
+     * Resolve the given bundles in one resolver pass.
+     *
+     * Every bundle is an optional resource of that pass, a bundle that cannot be resolved
+     * does not prevent the others from being resolved. Bundles that are already resolved
+     * are not resolved again.
+     *
+     * @param bundles The bundles to resolve or null for every INSTALLED bundle
+     * @return The bundles that could not be resolved, or an empty set
+     */
+    Set<Bundle> resolveBundles(Collection<Bundle> bundles);
+
+    /**
+     * Get the name of the MSC service that provides the OSGi services registered under the given class name.
+     *
+     * With {@link Constants#PROPERTY_SERVICE_REGISTRY_LIGHTWEIGHT} the MSC service is only
+     * installed for class names that were passed to this method.
+     *
+     * @param className The service class name
+     * @return The name of the MSC service
+     */
+    ServiceName exposeService(String className);
+
     /**
      * Uninstall the given deployment
      */
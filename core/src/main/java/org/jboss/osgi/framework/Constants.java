@@ -39,12 +39,63 @@ public interface Constants extends org.osgi.framework.Constants {
     /** The timeout in milliseconds for the framework to start */
     String PROPERTY_FRAMEWORK_START_TIMEOUT = "org.jboss.osgi.framework.start.timeout";
 
+    /**
+     * The {@link ServiceWaitStrategy} that is used to wait for framework services. The value is either a strategy
+     * instance or the name of a strategy class with a public no-arg constructor. The default is a {@link DefaultServiceWaitStrategy}
+     */
+    String PROPERTY_SERVICE_WAIT_STRATEGY = "org.jboss.osgi.framework.service.wait.strategy";
+
+    /** The timeout in milliseconds for the default {@link ServiceWaitStrategy}, used for example when a bundle is installed */
+    String PROPERTY_SERVICE_WAIT_TIMEOUT = "org.jboss.osgi.framework.service.wait.timeout";
+
     /** A list of URLs to bundles that get installed on framework startup */
     String PROPERTY_AUTO_INSTALL_URLS = "org.jboss.osgi.auto.install";
 
     /** A list of URLs to bundles that get installed and started on framework startup */
     String PROPERTY_AUTO_START_URLS = "org.jboss.osgi.auto.start";
 
+    /** The maximum number of threads that start bundles concurrently */
+    String PROPERTY_BUNDLE_START_THREADS = "org.jboss.osgi.framework.bundle.start.threads";
+
+    /**
+     * The maximum number of threads that build the modules and class loaders of newly resolved bundles concurrently.
+     * A value of one applies the resolver results on the calling thread. The default is the number of available processors
+     */
+    String PROPERTY_RESOLVER_THREADS = "org.jboss.osgi.framework.resolver.threads";
+
+    /** Resolves all installed bundles in one pass before the framework increases its start level. The default is false */
+    String PROPERTY_RESOLVE_ON_START = "org.jboss.osgi.framework.resolve.on.start";
+
+    /** The time in milliseconds above which a bundle start is reported. Zero disables reporting */
+    String PROPERTY_BUNDLE_START_THRESHOLD = "org.jboss.osgi.framework.bundle.start.threshold";
+
+    /** Enables the collection of framework metrics. The default is false */
+    String PROPERTY_METRICS_ENABLED = "org.jboss.osgi.framework.metrics.enabled";
+
+    /** Registers the framework metrics with the platform MBean server. The default is false */
+    String PROPERTY_METRICS_JMX = "org.jboss.osgi.framework.metrics.jmx";
+
+    /**
+     * Keeps OSGi services only in the framework's service registry. MSC services for a service name are installed
+     * on demand through {@link BundleManager#exposeService(String)}. The default is false
+     */
+    String PROPERTY_SERVICE_REGISTRY_LIGHTWEIGHT = "org.jboss.osgi.framework.service.registry.lightweight";
+
+    /** The maximum number of resource and entry URLs that are cached for each bundle revision. Zero disables caching */
+    String PROPERTY_RESOURCE_CACHE_SIZE = "org.jboss.osgi.framework.resource.cache.size";
+
+    /**
+     * The time in milliseconds after which bundle revisions that were replaced by an update and are no longer wired
+     * are reclaimed in the background. A negative value disables reclaiming. The default is 1000
+     */
+    String PROPERTY_REVISION_RECLAIM_DELAY = "org.jboss.osgi.framework.revision.reclaim.delay";
+
+    /**
+     * The file that persists the JDK package paths between framework launches. It may point to an index that
+     * was generated when the product was built. The default is a file in the framework storage area
+     */
+    String PROPERTY_JDK_PATHS_INDEX = "org.jboss.osgi.framework.jdkpaths.index";
+
     /** The default timeout for the framework to initialize is 5sec */
     int DEFAULT_FRAMEWORK_INIT_TIMEOUT = 5000;
 
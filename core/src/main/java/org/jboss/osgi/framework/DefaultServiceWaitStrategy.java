@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2009, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework;
+
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
+import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceController.State;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * The default {@link ServiceWaitStrategy}.
+ *
+ * It blocks on the latch and reports a timeout with the chain of unavailable dependencies of the service.
+ * Only the services on that chain are visited, the container and the threads are not dumped.
+ *
+ * @since 19-Oct-2026
+ */
+public class DefaultServiceWaitStrategy implements ServiceWaitStrategy {
+
+    /** The default timeout in milliseconds */
+    public static final long DEFAULT_TIMEOUT = 5000;
+
+    /** The maximum depth of the reported dependency chain */
+    static final int MAX_DEPTH = 8;
+
+    /** The maximum number of services in the reported dependency chain */
+    static final int MAX_SERVICES = 32;
+
+    // Reported when the service has no unavailable dependency of its own
+    static final String NO_UNAVAILABLE_DEPENDENCIES = "no unavailable dependencies";
+
+    private final long defaultTimeout;
+
+    public DefaultServiceWaitStrategy() {
+        this(DEFAULT_TIMEOUT);
+    }
+
+    public DefaultServiceWaitStrategy(long defaultTimeout) {
+        if (defaultTimeout < 0)
+            throw MESSAGES.illegalArgumentNegativeTimeout(defaultTimeout);
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    @Override
+    public long getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    @Override
+    public boolean await(CountDownLatch latch, long timeout, TimeUnit unit) throws InterruptedException {
+        return latch.await(timeout, unit);
+    }
+
+    @Override
+    public TimeoutException timeout(ServiceController<?> controller, State expectedState, long timeout, TimeUnit unit) {
+        String serviceName = controller.getName().getCanonicalName();
+        String chain = getUnavailableDependencies(controller);
+        LOGGER.debugf("Cannot get service value for: %s after %d %s, unavailable dependencies: %s", serviceName, timeout, unit, chain);
+        return MESSAGES.timeoutGettingServiceDependencies(serviceName, chain);
+    }
+
+    /**
+     * Describe the unavailable dependencies of the given service and, recursively, of the services they wait for.
+     *
+     * If the service has no unavailable dependency of its own, it waits for a dependency further down that cannot start.
+     * The container does not expose that path and is not scanned for it.
+     */
+    String getUnavailableDependencies(ServiceController<?> controller) {
+        if (controller.getImmediateUnavailableDependencies().isEmpty())
+            return NO_UNAVAILABLE_DEPENDENCIES;
+
+        StringBuilder builder = new StringBuilder();
+        Set<ServiceName> visited = new HashSet<ServiceName>();
+        visited.add(controller.getName());
+        appendUnavailableDependencies(builder, controller, visited, 0);
+        return builder.toString();
+    }
+
+    private void appendUnavailableDependencies(StringBuilder builder, ServiceController<?> controller, Set<ServiceName> visited, int depth) {
+        Set<ServiceName> unavailable = controller.getImmediateUnavailableDependencies();
+        ServiceContainer serviceContainer = controller.getServiceContainer();
+        builder.append("[");
+        boolean first = true;
+        for (ServiceName name : unavailable) {
+            if (first == false)
+                builder.append(", ");
+            first = false;
+            builder.append(name.getCanonicalName());
+            if (visited.add(name) == false)
+                continue;
+
+            ServiceController<?> dependency = serviceContainer.getService(name);
+            if (dependency == null) {
+                builder.append(" missing");
+            } else {
+                builder.append(" ").append(dependency.getState());
+                if (depth + 1 < MAX_DEPTH && visited.size() < MAX_SERVICES && dependency.getImmediateUnavailableDependencies().isEmpty() == false) {
+                    builder.append(" -> ");
+                    appendUnavailableDependencies(builder, dependency, visited, depth + 1);
+                }
+            }
+        }
+        builder.append("]");
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework;
+
+import java.util.Map;
+
+/**
+ * A framework service that provides counters and latency statistics for the hot paths
+ * of the service registry, the event dispatcher, the resolver, class loading and bundle storage.
+ *
+ * Metrics are collected when {@link Constants#PROPERTY_METRICS_ENABLED} is set to true. Otherwise
+ * all values remain zero. With {@link Constants#PROPERTY_METRICS_JMX} the service is also registered
+ * as an MXBean under {@link #OBJECT_NAME}.
+ *
+ * @since 19-Oct-2026
+ */
+public interface FrameworkMetrics {
+
+    /** The JMX object name of the metrics MXBean */
+    String OBJECT_NAME = "jboss.osgi:service=FrameworkMetrics";
+
+    /** The number of service registrations */
+    String SERVICE_REGISTRATIONS = "service.registrations";
+    /** The latency of service registry lookups */
+    String SERVICE_LOOKUPS = "service.lookups";
+    /** The number of service events fired */
+    String SERVICE_EVENTS = "service.events";
+    /** The number of service listener invocations caused by service events */
+    String SERVICE_EVENT_DELIVERIES = "service.event.deliveries";
+    /** The number of bundle events fired */
+    String BUNDLE_EVENTS = "bundle.events";
+    /** The latency of bundle and service listener invocations */
+    String LISTENER_EXECUTIONS = "listener.executions";
+    /** The latency of resolver invocations */
+    String RESOLVER_RESOLVES = "resolver.resolves";
+    /** The latency of module loads */
+    String MODULE_LOADS = "module.loads";
+    /** The number of classes and resources that were loaded through dynamic imports */
+    String DYNAMIC_LOADS = "classloader.dynamic.loads";
+    /** The latency of bundle storage state creation */
+    String STORAGE_CREATES = "storage.creates";
+    /** The number of bytes written to bundle storage */
+    String STORAGE_BYTES_WRITTEN = "storage.bytes.written";
+
+    /**
+     * True if metrics are collected
+     */
+    boolean isEnabled();
+
+    /**
+     * Get the current values of all counters
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Get a snapshot of all latency statistics
+     */
+    Map<String, LatencyStatistics> getLatencies();
+
+    /**
+     * Reset all counters and latency statistics
+     */
+    void reset();
+
+    /**
+     * A snapshot of recorded latencies. All times are in nanoseconds.
+     */
+    interface LatencyStatistics {
+
+        /** The number of recorded values */
+        long getCount();
+
+        /** The smallest recorded value */
+        long getMin();
+
+        /** The largest recorded value */
+        long getMax();
+
+        /** The mean of the recorded values */
+        long getMean();
+
+        /** The median of the recorded values */
+        long getMedian();
+
+        /** The 90th percentile of the recorded values */
+        long get90thPercentile();
+
+        /** The 99th percentile of the recorded values */
+        long get99thPercentile();
+    }
+}
@@ -24,49 +24,54 @@ package org.jboss.osgi.framework;
 import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
 import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
-import java.lang.management.ManagementFactory;
-import java.lang.management.ThreadInfo;
-import java.lang.management.ThreadMXBean;
-import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceController.State;
-import org.jboss.msc.service.ServiceListener;
-import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartException;
 
 /**
  * A Future that waits for the given service to come up and returns it's value.
  *
  * Use cautiously and only if there is no way to use direct service dependencies instead.
+ * The blocking methods wait according to a {@link ServiceWaitStrategy}.
+ * A {@link Callback} can be used instead to get notified without blocking a thread.
  *
  * @author thomas.diesler@jboss.com
  * @since 29-Mar-2011
  */
 public final class FutureServiceValue<T> implements Future<T> {
 
+    private static final ServiceWaitStrategy DEFAULT_STRATEGY = new DefaultServiceWaitStrategy();
+
     private final ServiceController<T> controller;
     private final State expectedState;
+    private final ServiceWaitStrategy strategy;
 
     public FutureServiceValue(ServiceController<T> controller) {
         this(controller, State.UP);
     }
 
     public FutureServiceValue(ServiceController<T> controller, State state) {
+        this(controller, state, DEFAULT_STRATEGY);
+    }
+
+    public FutureServiceValue(ServiceController<T> controller, State state, ServiceWaitStrategy strategy) {
         if (controller == null)
             throw MESSAGES.illegalArgumentNull("controller");
         if (state == null)
             throw MESSAGES.illegalArgumentNull("state");
-       this.controller = controller;
-       this.expectedState = state;
+        if (strategy == null)
+            throw MESSAGES.illegalArgumentNull("strategy");
+        this.controller = controller;
+        this.expectedState = state;
+        this.strategy = strategy;
     }
 
     @Override
@@ -84,10 +89,13 @@ public final class FutureServiceValue<T> implements Future<T> {
         return controller.getState() == expectedState;
     }
 
+    /**
+     * Get the service value, waiting at most for the default timeout of the {@link ServiceWaitStrategy}.
+     */
     @Override
     public T get() throws ExecutionException {
         try {
-            return get(5, TimeUnit.SECONDS);
+            return get(strategy.getDefaultTimeout(), TimeUnit.MILLISECONDS);
         } catch (TimeoutException ex) {
             throw new ExecutionException(ex);
         }
@@ -98,69 +106,63 @@ public final class FutureServiceValue<T> implements Future<T> {
         return getValue(timeout, unit);
     }
 
+    /**
+     * Call back when the service reaches the expected state or fails to start.
+     *
+     * No thread is blocked while waiting. The callback is called by the thread that completes the
+     * service transition, or by the calling thread if the service is already done.
+     */
+    public void addCallback(final Callback<? super T> callback) {
+        if (callback == null)
+            throw MESSAGES.illegalArgumentNull("callback");
+
+        controller.addListener(new StateListener() {
+            @Override
+            void done() {
+                T value;
+                try {
+                    value = getResult();
+                } catch (Exception ex) {
+                    callback.failed(ex);
+                    return;
+                }
+                callback.completed(value);
+            }
+        });
+    }
+
     private T getValue(long timeout, TimeUnit unit) throws ExecutionException, TimeoutException {
 
         if (controller.getState() == expectedState)
             return controller.getValue();
 
         final CountDownLatch latch = new CountDownLatch(1);
-        final FutureServiceValue<T> futureServiceValue = this;
-        final String serviceName = controller.getName().getCanonicalName();
-        ServiceListener<T> listener = new AbstractServiceListener<T>() {
-
+        StateListener listener = new StateListener() {
             @Override
-            public void listenerAdded(ServiceController<? extends T> controller) {
-                State state = controller.getState();
-                if (state == expectedState || state == State.START_FAILED)
-                    listenerDone(controller);
-            }
-
-            public void transition(final ServiceController<? extends T> controller, final ServiceController.Transition transition) {
-                LOGGER.tracef("transition %s %s => %s", futureServiceValue, serviceName, transition);
-                if (expectedState == State.UP) {
-                    switch (transition) {
-                        case STARTING_to_UP:
-                        case STARTING_to_START_FAILED:
-                            listenerDone(controller);
-                            break;
-                    }
-                } else if (expectedState == State.DOWN) {
-                    switch (transition) {
-                        case STOPPING_to_DOWN:
-                        case REMOVING_to_DOWN:
-                        case WAITING_to_DOWN:
-                            listenerDone(controller);
-                            break;
-                    }
-                } else if (expectedState == State.REMOVED) {
-                    switch (transition) {
-                        case REMOVING_to_REMOVED:
-                            listenerDone(controller);
-                            break;
-                    }
-                }
-            }
-
-            private void listenerDone(ServiceController<? extends T> controller) {
-                controller.removeListener(this);
+            void done() {
                 latch.countDown();
             }
         };
         controller.addListener(listener);
 
         try {
-            if (latch.await(timeout, unit) == false) {
-                TimeoutException ex = MESSAGES.timeoutGettingService(serviceName);
-                processTimeoutException(ex);
-                throw ex;
+            if (strategy.await(latch, timeout, unit) == false) {
+                controller.removeListener(listener);
+                throw strategy.timeout(controller, expectedState, timeout, unit);
             }
-        } catch (InterruptedException e) {
-            // ignore;
+        } catch (InterruptedException ex) {
+            controller.removeListener(listener);
+            Thread.currentThread().interrupt();
         }
 
+        return getResult();
+    }
+
+    private T getResult() throws ExecutionException {
         if (controller.getState() == expectedState)
             return controller.getValue();
 
+        String serviceName = controller.getName().getCanonicalName();
         StartException startException = controller.getStartException();
         Throwable cause = startException != null ? startException.getCause() : startException;
         if (cause instanceof RuntimeException) {
@@ -169,22 +171,66 @@ public final class FutureServiceValue<T> implements Future<T> {
         throw MESSAGES.executionCannotGetServiceValue(cause, serviceName);
     }
 
-    private void processTimeoutException(TimeoutException exception) {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintStream out = new PrintStream(baos);
-        Set<ServiceName> unavailableDependencies = controller.getImmediateUnavailableDependencies();
-        out.println("Unavailable dependencies: " + unavailableDependencies);
-        controller.getServiceContainer().dumpServices(out);
-        String serviceName = controller.getName().getCanonicalName();
-        LOGGER.debugf("Cannot get service value for: %s\n%s", serviceName, new String(baos.toByteArray()));
-        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
-        ThreadInfo[] infos = bean.dumpAllThreads(true, true);
-        for (ThreadInfo info : infos) {
-            if (info.getThreadName().contains("MSC")) {
-                StringBuffer buffer = new StringBuffer();
-                buffer.append("ThreadInfo: " + info);
-                LOGGER.errorf("%s", buffer);
+    /**
+     * A callback that is notified when the service reaches the expected state or fails to start.
+     */
+    public interface Callback<T> {
+
+        /** The service reached the expected state */
+        void completed(T value);
+
+        /** The service failed to start or did not reach the expected state */
+        void failed(Throwable cause);
+    }
+
+    /**
+     * Listens until the service reaches the expected state or fails to start.
+     */
+    private abstract class StateListener extends AbstractServiceListener<T> {
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        @Override
+        public void listenerAdded(ServiceController<? extends T> controller) {
+            State state = controller.getState();
+            if (state == expectedState || state == State.START_FAILED)
+                listenerDone(controller);
+        }
+
+        @Override
+        public void transition(final ServiceController<? extends T> controller, final ServiceController.Transition transition) {
+            LOGGER.tracef("transition %s %s => %s", FutureServiceValue.this, controller.getName(), transition);
+            if (expectedState == State.UP) {
+                switch (transition) {
+                    case STARTING_to_UP:
+                    case STARTING_to_START_FAILED:
+                        listenerDone(controller);
+                        break;
+                }
+            } else if (expectedState == State.DOWN) {
+                switch (transition) {
+                    case STOPPING_to_DOWN:
+                    case REMOVING_to_DOWN:
+                    case WAITING_to_DOWN:
+                        listenerDone(controller);
+                        break;
+                }
+            } else if (expectedState == State.REMOVED) {
+                switch (transition) {
+                    case REMOVING_to_REMOVED:
+                        listenerDone(controller);
+                        break;
+                }
             }
         }
+
+        private void listenerDone(ServiceController<? extends T> controller) {
+            controller.removeListener(this);
+            if (done.compareAndSet(false, true)) {
+                done();
+            }
+        }
+
+        abstract void done();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2009, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceController.State;
+
+/**
+ * A strategy that is used by a {@link FutureServiceValue} to wait for a service to reach its expected state.
+ *
+ * A strategy is configured with the framework property {@link Constants#PROPERTY_SERVICE_WAIT_STRATEGY}.
+ *
+ * @since 19-Oct-2026
+ */
+public interface ServiceWaitStrategy {
+
+    /**
+     * The timeout in milliseconds that is used when the caller does not give one.
+     */
+    long getDefaultTimeout();
+
+    /**
+     * Wait until the latch is released or the timeout elapses.
+     *
+     * @return false if the timeout elapsed before the latch was released
+     */
+    boolean await(CountDownLatch latch, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Create the exception that is thrown when the service did not reach the expected state in time.
+     * Implementations should keep the diagnostics cheap, because timeouts tend to happen under load.
+     */
+    TimeoutException timeout(ServiceController<?> controller, State expectedState, long timeout, TimeUnit unit);
+}
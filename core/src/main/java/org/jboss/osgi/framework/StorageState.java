@@ -38,6 +38,7 @@ import org.jboss.osgi.vfs.VirtualFile;
  */
 public class StorageState {
 
+    public static final String PROPERTY_BUNDLE_DIGEST = "BundleDigest";
     public static final String PROPERTY_BUNDLE_FILE = "BundleFile";
     public static final String PROPERTY_BUNDLE_ID = "BundleId";
     public static final String PROPERTY_BUNDLE_LOCATION = "Location";
@@ -107,6 +108,10 @@ public class StorageState {
         return revision;
     }
 
+    public String getDigest() {
+        return props.getProperty(PROPERTY_BUNDLE_DIGEST);
+    }
+
     public long getLastModified() {
         String value = props.getProperty(PROPERTY_LAST_MODIFIED);
         return new Long(value);
@@ -21,6 +21,7 @@
  */
 package org.jboss.osgi.framework.internal;
 
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
 import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
 
 import java.io.File;
@@ -34,10 +35,15 @@ import java.util.concurrent.TimeUnit;
 
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceController.State;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.osgi.deployment.deployer.Deployment;
 import org.jboss.osgi.framework.BundleInstallHandler;
 import org.jboss.osgi.framework.FutureServiceValue;
+import org.jboss.osgi.framework.ServiceWaitStrategy;
+import org.jboss.osgi.framework.StorageState;
+import org.jboss.osgi.framework.internal.BundleStoragePlugin.InternalStorageState;
+import org.jboss.osgi.framework.internal.BundleStoragePlugin.StoredContent;
 import org.jboss.osgi.vfs.AbstractVFS;
 import org.jboss.osgi.vfs.VFSUtils;
 import org.jboss.osgi.vfs.VirtualFile;
@@ -136,25 +142,40 @@ abstract class AbstractBundleContext implements BundleContext {
     private Bundle installBundleInternal(String location, InputStream input) throws BundleException {
         checkValidBundleContext();
 
+        // If a bundle containing the same location identifier is already installed,
+        // the Bundle object for that bundle is returned without reading the content.
+        if (location != null) {
+            Bundle bundle = getBundleManager().getBundleByLocation(location);
+            if (bundle != null) {
+                VFSUtils.safeClose(input);
+                return bundle;
+            }
+        }
+
         Deployment dep;
         VirtualFile rootFile = null;
+        StoredContent storedContent = null;
         FrameworkState frameworkState = getFrameworkState();
+        BundleStoragePlugin storagePlugin = frameworkState.getBundleStoragePlugin();
         try {
-            if (input != null) {
+            // Try location as URL
+            if (input == null) {
                 try {
-                    rootFile = AbstractVFS.toVirtualFile(input);
+                    URL url = new URL(location);
+                    input = url.openStream();
                 } catch (IOException ex) {
-                    throw MESSAGES.bundleCannotObtainVirtualFile(ex);
+                    // Ignore, not a valid URL
                 }
             }
 
-            // Try location as URL
-            if (rootFile == null) {
+            // Stream the content once, directly into its final storage location
+            if (input != null) {
                 try {
-                    URL url = new URL(location);
-                    rootFile = AbstractVFS.toVirtualFile(url.openStream());
+                    long bundleId = getBundleManager().createBundleId(null);
+                    storedContent = storagePlugin.storeBundleContent(bundleId, input);
+                    rootFile = AbstractVFS.toVirtualFile(storedContent.getFile().toURI());
                 } catch (IOException ex) {
-                    // Ignore, not a valid URL
+                    throw MESSAGES.bundleCannotObtainVirtualFile(ex);
                 }
             }
 
@@ -174,18 +195,48 @@ abstract class AbstractBundleContext implements BundleContext {
 
             DeploymentFactoryPlugin deploymentPlugin = frameworkState.getDeploymentFactoryPlugin();
             dep = deploymentPlugin.createDeployment(location, rootFile);
+            if (storedContent != null) {
+                dep.addAttachment(StoredContent.class, storedContent);
+            }
 
-            return installBundle(dep);
+            UserBundleState userBundle = UserBundleState.assertBundleState(installBundle(dep));
+
+            // A concurrent install of the same location may have won, or the install handler
+            // may not have used the attachment. In both cases the stored content is orphaned.
+            if (storedContent != null && isStoredContentUsed(userBundle, rootFile, storedContent) == false) {
+                LOGGER.debugf("Delete unused bundle content: %s", storedContent);
+                VFSUtils.safeClose(rootFile);
+                deleteStoredContent(storagePlugin, storedContent);
+            }
+            return userBundle;
 
         } catch (RuntimeException rte) {
             VFSUtils.safeClose(rootFile);
+            deleteStoredContent(storagePlugin, storedContent);
             throw rte;
         } catch (BundleException ex) {
             VFSUtils.safeClose(rootFile);
+            deleteStoredContent(storagePlugin, storedContent);
             throw ex;
         }
     }
 
+    private boolean isStoredContentUsed(UserBundleState userBundle, VirtualFile rootFile, StoredContent storedContent) {
+        InternalStorageState storageState = userBundle.getStorageState();
+        if (rootFile.equals(storageState.getRootFile()))
+            return true;
+
+        File file = storedContent.getFile();
+        String fileName = storageState.getProperties().getProperty(StorageState.PROPERTY_BUNDLE_FILE);
+        return file.getName().equals(fileName) && file.getParentFile().equals(storageState.getStorageDir());
+    }
+
+    private void deleteStoredContent(BundleStoragePlugin storagePlugin, StoredContent storedContent) {
+        if (storedContent != null) {
+            storagePlugin.deleteStoredContent(storedContent);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     Bundle installBundle(Deployment deployment) throws BundleException {
         checkValidBundleContext();
@@ -203,9 +254,10 @@ abstract class AbstractBundleContext implements BundleContext {
 
         ServiceContainer serviceContainer = bundleManager.getServiceContainer();
         ServiceController<UserBundleState> controller = (ServiceController<UserBundleState>) serviceContainer.getService(serviceName);
-        FutureServiceValue<UserBundleState> future = new FutureServiceValue<UserBundleState>(controller);
+        ServiceWaitStrategy waitStrategy = bundleManager.getFrameworkBuilder().getServiceWaitStrategy();
+        FutureServiceValue<UserBundleState> future = new FutureServiceValue<UserBundleState>(controller, State.UP, waitStrategy);
         try {
-            UserBundleState userBundle = future.get(5, TimeUnit.SECONDS);
+            UserBundleState userBundle = future.get(waitStrategy.getDefaultTimeout(), TimeUnit.MILLISECONDS);
             return userBundle;
         } catch (Exception ex) {
             Throwable cause = ex.getCause();
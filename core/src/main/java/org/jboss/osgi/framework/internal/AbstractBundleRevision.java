@@ -67,6 +67,9 @@ abstract class AbstractBundleRevision extends AbstractResource implements Bundle
     private final OSGiMetaData metadata;
     private Map<String, List<BundleCapability>> bundleCapabilities;
     private Map<String, List<BundleRequirement>> bundleRequirements;
+    // Set once the revision is known to be resolved
+    private volatile boolean resolved;
+    private final LocalizedHeadersCache headersCache = new LocalizedHeadersCache();
 
     AbstractBundleRevision(AbstractBundleState bundleState, OSGiMetaData metadata, int revision) throws BundleException {
         assert bundleState != null : "Null bundleState";
@@ -204,7 +207,14 @@ abstract class AbstractBundleRevision extends AbstractResource implements Bundle
     abstract URL getLocalizationEntry(String path);
 
     boolean isResolved() {
-        return getWiring() != null;
+        if (resolved == false && getWiring() != null) {
+            resolved = true;
+        }
+        return resolved;
+    }
+
+    LocalizedHeadersCache getLocalizedHeadersCache() {
+        return headersCache;
     }
 
     ModuleIdentifier getModuleIdentifier() {
@@ -226,6 +236,8 @@ abstract class AbstractBundleRevision extends AbstractResource implements Bundle
 
     void refreshRevisionInternal() {
         removeAttachment(Wiring.class);
+        headersCache.clear();
+        resolved = false;
     }
 
     @Override
@@ -39,8 +39,6 @@ import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -79,7 +77,7 @@ abstract class AbstractBundleState implements Bundle {
     private final FrameworkState frameworkState;
     private final AtomicInteger bundleState = new AtomicInteger(UNINSTALLED);
     private final List<ServiceState> registeredServices = new CopyOnWriteArrayList<ServiceState>();
-    private final ConcurrentHashMap<ServiceState, AtomicInteger> usedServices = new ConcurrentHashMap<ServiceState, AtomicInteger>();
+    private final UseCountMap<ServiceState> usedServices = new UseCountMap<ServiceState>();
     private AbstractBundleContext bundleContext;
 
     AbstractBundleState(FrameworkState frameworkState, long bundleId, String symbolicName) {
@@ -229,7 +227,7 @@ abstract class AbstractBundleState implements Bundle {
     @Override
     public ServiceReference[] getServicesInUse() {
         assertNotUninstalled();
-        Set<ServiceState> servicesInUse = getServicesInUseInternal();
+        List<ServiceState> servicesInUse = getServicesInUseInternal();
         if (servicesInUse.isEmpty())
             return null;
 
@@ -240,28 +238,18 @@ abstract class AbstractBundleState implements Bundle {
         return srefs.toArray(new ServiceReference[srefs.size()]);
     }
 
-    Set<ServiceState> getServicesInUseInternal() {
-        return Collections.unmodifiableSet(usedServices.keySet());
+    List<ServiceState> getServicesInUseInternal() {
+        return Collections.unmodifiableList(usedServices.keys());
     }
 
     void addServiceInUse(ServiceState serviceState) {
         LOGGER.tracef("Add service in use %s to: %s", serviceState, this);
-        usedServices.putIfAbsent(serviceState, new AtomicInteger());
-        AtomicInteger count = usedServices.get(serviceState);
-        count.incrementAndGet();
+        usedServices.increment(serviceState);
     }
 
     int removeServiceInUse(ServiceState serviceState) {
         LOGGER.tracef("Remove service in use %s from: %s", serviceState, this);
-        AtomicInteger count = usedServices.get(serviceState);
-        if (count == null)
-            return -1;
-
-        int countVal = count.decrementAndGet();
-        if (countVal == 0)
-            usedServices.remove(serviceState);
-
-        return countVal;
+        return usedServices.decrement(serviceState);
     }
 
     @Override
@@ -294,18 +282,27 @@ abstract class AbstractBundleState implements Bundle {
     @SuppressWarnings("unchecked")
     public Dictionary<String, String> getHeaders(String locale) {
         // Get the raw (unlocalized) manifest headers
-        Dictionary<String, String> rawHeaders = getOSGiMetaData().getHeaders();
+        AbstractBundleRevision brev = getCurrentBundleRevision();
+        Dictionary<String, String> rawHeaders = brev.getOSGiMetaData().getHeaders();
 
         // If the specified locale is the empty string, this method will return the
         // raw (unlocalized) manifest headers including any leading "%"
         if ("".equals(locale))
             return rawHeaders;
 
-        // If the specified locale is null then the locale
-        // returned by java.util.Locale.getDefault is used
-        if (locale == null)
-            locale = Locale.getDefault().toString();
+        // Get the headers that were already localized by this revision. The cached headers are never
+        // handed out, every caller gets its own dictionary that it may modify
+        Locale defaultLocale = Locale.getDefault();
+        LocalizedHeadersCache headersCache = brev.getLocalizedHeadersCache();
+        Dictionary<String, String> locHeaders = headersCache.get(locale, defaultLocale);
+        if (locHeaders == null) {
+            locHeaders = getLocalizedHeaders(rawHeaders, locale != null ? locale : defaultLocale.toString(), defaultLocale);
+            headersCache.put(locale, defaultLocale, locHeaders);
+        }
+        return new CaseInsensitiveDictionary(locHeaders);
+    }
 
+    private Dictionary<String, String> getLocalizedHeaders(Dictionary<String, String> rawHeaders, String locale, Locale defaultLocale) {
         // Get the localization base name
         String baseName = rawHeaders.get(Constants.BUNDLE_LOCALIZATION);
         if (baseName == null)
@@ -316,8 +313,7 @@ abstract class AbstractBundleState implements Bundle {
 
         // If the specified locale entry could not be found fall back to the default locale entry
         if (entryURL == null) {
-            String defaultLocale = Locale.getDefault().toString();
-            entryURL = getLocalizationEntry(baseName, defaultLocale);
+            entryURL = getLocalizationEntry(baseName, defaultLocale.toString());
         }
 
         // Read the resource bundle
@@ -349,7 +345,7 @@ abstract class AbstractBundleState implements Bundle {
             locHeaders.put(key, value);
         }
 
-        return new CaseInsensitiveDictionary(locHeaders);
+        return locHeaders;
     }
 
     OSGiMetaData getOSGiMetaData() {
@@ -539,6 +535,10 @@ abstract class AbstractBundleState implements Bundle {
         if (isUninstalled())
             throw MESSAGES.illegalStateBundleAlreadyUninstalled(this);
 
+        // A resolved bundle does not need to synchronize
+        if (isResolved())
+            return null;
+
         // If this bundle's state is INSTALLED, this method must attempt to resolve this bundle
         // If this bundle cannot be resolved, a Framework event of type FrameworkEvent.ERROR is fired
         // containing a BundleException with details of the reason this bundle could not be resolved.
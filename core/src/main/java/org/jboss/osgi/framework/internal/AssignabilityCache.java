@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.osgi.resolver.XPackageCapability;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.framework.wiring.BundleWiring;
+import org.osgi.resource.Capability;
+import org.osgi.resource.Resource;
+import org.osgi.resource.Wire;
+
+/**
+ * Caches the result of {@link ServiceState#isAssignableTo(org.osgi.framework.Bundle, String)}.
+ *
+ * Results are keyed by the requesting revision, the registrant revision and the class name.
+ * Lenient results for a class that one of the bundles cannot load are only cached when neither
+ * revision has a dynamic import, because the class cannot become loadable without a new wiring.
+ * An entry is only valid for the wirings that were current when it was recorded. Entries
+ * of revisions that get refreshed, removed or a new dynamic provider are dropped through
+ * {@link #invalidate(AbstractBundleRevision)}.
+ *
+ * @since 19-Oct-2026
+ */
+final class AssignabilityCache {
+
+    private final ConcurrentMap<AbstractBundleRevision, RevisionEntry> entries = new ConcurrentHashMap<AbstractBundleRevision, RevisionEntry>();
+
+    /**
+     * Get the cached result or null if there is no valid entry
+     */
+    Boolean get(AbstractBundleRevision requester, AbstractBundleRevision registrant, String className) {
+        RevisionEntry entry = entries.get(requester);
+        if (entry == null || entry.wiring != requester.getWiring())
+            return null;
+
+        return entry.results.get(new ResultKey(registrant, registrant.getWiring(), className));
+    }
+
+    /**
+     * Record the result for the current wirings. Unresolved revisions are not cached.
+     */
+    void put(AbstractBundleRevision requester, AbstractBundleRevision registrant, String className, boolean assignable) {
+        BundleWiring requesterWiring = requester.getWiring();
+        BundleWiring registrantWiring = registrant.getWiring();
+        if (requesterWiring == null || registrantWiring == null)
+            return;
+
+        RevisionEntry entry = entries.get(requester);
+        if (entry == null || entry.wiring != requesterWiring) {
+            entry = new RevisionEntry(requesterWiring);
+            entries.put(requester, entry);
+        }
+        entry.results.put(new ResultKey(registrant, registrantWiring, className), Boolean.valueOf(assignable));
+    }
+
+    /**
+     * Drop all entries that involve the given revision
+     */
+    void invalidate(AbstractBundleRevision brev) {
+        entries.remove(brev);
+        for (RevisionEntry entry : entries.values()) {
+            Iterator<ResultKey> iterator = entry.results.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().registrant == brev) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the revision that provides the given package to the given revision according to its wiring.
+     * @return The provider or null if the package source cannot be determined from the wiring
+     */
+    static Resource getPackageSource(AbstractBundleRevision brev, String packageName) {
+        BundleWiring wiring = brev.getWiring();
+        if (wiring == null)
+            return null;
+
+        // An imported package is provided by the exporter
+        List<Wire> wires = wiring.getRequiredResourceWires(PackageNamespace.PACKAGE_NAMESPACE);
+        if (wires != null) {
+            for (Wire wire : wires) {
+                Capability cap = wire.getCapability();
+                if (cap instanceof XPackageCapability && packageName.equals(((XPackageCapability) cap).getPackageName())) {
+                    return wire.getProvider();
+                }
+            }
+        }
+
+        // An exported package that is not also imported is provided by the revision itself
+        for (Capability cap : brev.getCapabilities(PackageNamespace.PACKAGE_NAMESPACE)) {
+            if (cap instanceof XPackageCapability && packageName.equals(((XPackageCapability) cap).getPackageName())) {
+                return brev;
+            }
+        }
+        return null;
+    }
+
+    private static final class RevisionEntry {
+
+        private final BundleWiring wiring;
+        private final ConcurrentMap<ResultKey, Boolean> results = new ConcurrentHashMap<ResultKey, Boolean>();
+
+        RevisionEntry(BundleWiring wiring) {
+            this.wiring = wiring;
+        }
+    }
+
+    private static final class ResultKey {
+
+        private final AbstractBundleRevision registrant;
+        private final BundleWiring wiring;
+        private final String className;
+
+        ResultKey(AbstractBundleRevision registrant, BundleWiring wiring, String className) {
+            this.registrant = registrant;
+            this.wiring = wiring;
+            this.className = className;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(registrant) + className.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof ResultKey == false)
+                return false;
+            ResultKey other = (ResultKey) obj;
+            return registrant == other.registrant && wiring == other.wiring && className.equals(other.className);
+        }
+    }
+}
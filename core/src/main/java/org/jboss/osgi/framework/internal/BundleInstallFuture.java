@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2009, Red Hat Middleware LLC, and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
+import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceController.State;
+import org.jboss.msc.service.ServiceController.Transition;
+import org.jboss.msc.service.StartException;
+import org.osgi.framework.Bundle;
+
+/**
+ * A Future that is completed by a listener on the bundle's INSTALLED service.
+ *
+ * Unlike {@link org.jboss.osgi.framework.FutureServiceValue}, no thread is blocked until the client calls get().
+ *
+ * @since 19-Oct-2026
+ */
+final class BundleInstallFuture extends AbstractServiceListener<Bundle> implements Future<Bundle> {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final String serviceName;
+    private volatile Bundle bundle;
+    private volatile ExecutionException failure;
+
+    /**
+     * Track the given INSTALLED service controller.
+     */
+    @SuppressWarnings("unchecked")
+    static BundleInstallFuture track(ServiceController<?> controller) {
+        BundleInstallFuture future = new BundleInstallFuture(controller.getName().getCanonicalName());
+        ((ServiceController<Bundle>) controller).addListener(future);
+        return future;
+    }
+
+    /**
+     * Create a future that has already failed, because the INSTALLED service could not be created.
+     */
+    static BundleInstallFuture failed(String serviceName, Throwable cause) {
+        BundleInstallFuture future = new BundleInstallFuture(serviceName);
+        future.completeFailed(cause);
+        return future;
+    }
+
+    private BundleInstallFuture(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    @Override
+    public void listenerAdded(ServiceController<? extends Bundle> controller) {
+        State state = controller.getState();
+        if (state == State.UP) {
+            completeUp(controller);
+        } else if (state == State.START_FAILED) {
+            completeStartFailed(controller);
+        } else if (state == State.REMOVED) {
+            completeRemoved(controller);
+        }
+    }
+
+    @Override
+    public void transition(ServiceController<? extends Bundle> controller, Transition transition) {
+        LOGGER.tracef("transition %s %s => %s", this, serviceName, transition);
+        switch (transition) {
+            case STARTING_to_UP:
+                completeUp(controller);
+                break;
+            case STARTING_to_START_FAILED:
+                completeStartFailed(controller);
+                break;
+            case REMOVING_to_REMOVED:
+                completeRemoved(controller);
+                break;
+        }
+    }
+
+    private void completeUp(ServiceController<? extends Bundle> controller) {
+        controller.removeListener(this);
+        synchronized (latch) {
+            if (latch.getCount() > 0) {
+                bundle = controller.getValue();
+                latch.countDown();
+            }
+        }
+    }
+
+    private void completeStartFailed(ServiceController<? extends Bundle> controller) {
+        controller.removeListener(this);
+        StartException startException = controller.getStartException();
+        completeFailed(startException != null ? startException.getCause() : null);
+    }
+
+    private void completeRemoved(ServiceController<? extends Bundle> controller) {
+        controller.removeListener(this);
+        completeFailed(null);
+    }
+
+    private void completeFailed(Throwable cause) {
+        synchronized (latch) {
+            if (latch.getCount() > 0) {
+                failure = MESSAGES.executionCannotGetServiceValue(cause, serviceName);
+                latch.countDown();
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return latch.getCount() == 0;
+    }
+
+    @Override
+    public Bundle get() throws InterruptedException, ExecutionException {
+        latch.await();
+        return getResult();
+    }
+
+    @Override
+    public Bundle get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (latch.await(timeout, unit) == false)
+            throw MESSAGES.timeoutGettingService(serviceName);
+        return getResult();
+    }
+
+    private Bundle getResult() throws ExecutionException {
+        if (failure != null)
+            throw failure;
+        return bundle;
+    }
+
+    @Override
+    public String toString() {
+        return "BundleInstallFuture[" + serviceName + "]";
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.osgi.framework.BundleLifecycleTimings.Timing;
+
+/**
+ * The mutable lifecycle timing of a host bundle.
+ *
+ * @since 19-Oct-2026
+ */
+final class BundleLifecycleTiming implements Timing {
+
+    private volatile long resolveTime;
+    private volatile long classLoaderCreationTime;
+    private volatile long activatorLoadTime;
+    private volatile long activatorStartTime;
+    private volatile long activatorStopTime;
+    private volatile long startTime;
+    private volatile int serviceRegistrationCount;
+
+    @Override
+    public long getResolveTime() {
+        return resolveTime;
+    }
+
+    void setResolveTime(long nanos) {
+        this.resolveTime = nanos;
+    }
+
+    @Override
+    public long getClassLoaderCreationTime() {
+        return classLoaderCreationTime;
+    }
+
+    void setClassLoaderCreationTime(long nanos) {
+        this.classLoaderCreationTime = nanos;
+    }
+
+    @Override
+    public long getActivatorLoadTime() {
+        return activatorLoadTime;
+    }
+
+    void setActivatorLoadTime(long nanos) {
+        this.activatorLoadTime = nanos;
+    }
+
+    @Override
+    public long getActivatorStartTime() {
+        return activatorStartTime;
+    }
+
+    void setActivatorStartTime(long nanos) {
+        this.activatorStartTime = nanos;
+    }
+
+    @Override
+    public long getActivatorStopTime() {
+        return activatorStopTime;
+    }
+
+    void setActivatorStopTime(long nanos) {
+        this.activatorStopTime = nanos;
+    }
+
+    @Override
+    public long getStartTime() {
+        return startTime;
+    }
+
+    void setStartTime(long nanos) {
+        this.startTime = nanos;
+    }
+
+    @Override
+    public int getServiceRegistrationCount() {
+        return serviceRegistrationCount;
+    }
+
+    void setServiceRegistrationCount(int count) {
+        this.serviceRegistrationCount = count;
+    }
+
+    // Reset the values of a previous start
+    void resetStartPhases() {
+        resolveTime = 0;
+        activatorLoadTime = 0;
+        activatorStartTime = 0;
+        startTime = 0;
+        serviceRegistrationCount = 0;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "Timing[start=" + toMillis(startTime) + "ms,resolve=" + toMillis(resolveTime) + "ms,classloader=" + toMillis(classLoaderCreationTime)
+                + "ms,activatorLoad=" + toMillis(activatorLoadTime) + "ms,activatorStart=" + toMillis(activatorStartTime) + "ms,activatorStop="
+                + toMillis(activatorStopTime) + "ms,services=" + serviceRegistrationCount + "]";
+    }
+}
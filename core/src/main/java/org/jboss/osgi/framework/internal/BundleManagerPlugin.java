@@ -31,11 +31,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -55,6 +57,7 @@ import org.jboss.osgi.deployment.deployer.Deployment;
 import org.jboss.osgi.framework.BundleManager;
 import org.jboss.osgi.framework.Services;
 import org.jboss.osgi.framework.StorageState;
+import org.jboss.osgi.framework.internal.BundleStoragePlugin.StoredContent;
 import org.jboss.osgi.framework.util.Java;
 import org.jboss.osgi.metadata.OSGiMetaData;
 import org.jboss.osgi.metadata.VersionRange;
@@ -69,6 +72,7 @@ import org.osgi.framework.FrameworkEvent;
 import org.osgi.framework.Version;
 import org.osgi.framework.namespace.IdentityNamespace;
 import org.osgi.resource.Resource;
+import org.osgi.service.resolver.ResolutionException;
 
 /**
  * The BundleManager is the central managing entity for OSGi bundles.
@@ -222,6 +226,34 @@ final class BundleManagerPlugin extends AbstractPluginService<BundleManager> imp
         return value;
     }
 
+    /**
+     * Get a framework property as integer
+     * @return The properties value or the given default if the property is not set or not a number
+     */
+    int getIntegerProperty(String key, int defaultValue) {
+        Object value = getProperty(key);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException ex) {
+                LOGGER.debugf("Invalid integer value for %s: %s", key, value);
+            }
+        }
+        return defaultValue;
+    }
+
+    boolean getBooleanProperty(String key, boolean defaultValue) {
+        Object value = getProperty(key);
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue();
+        } else if (value instanceof String) {
+            return Boolean.parseBoolean(((String) value).trim());
+        }
+        return defaultValue;
+    }
+
     @Override
     public Map<String, Object> getProperties() {
         Map<String, Object> m = new HashMap<String, Object>();
@@ -345,8 +377,10 @@ final class BundleManagerPlugin extends AbstractPluginService<BundleManager> imp
                 if (storageState != null) {
                     deployment.setAutoStart(storageState.isPersistentlyStarted());
                 }
-                BundleId bundleId = new BundleId(createBundleId(storageState));
-                deployment.addAttachment(BundleId.class, bundleId);
+                // The bundle id has already been assigned when the content was streamed to storage
+                StoredContent storedContent = deployment.getAttachment(StoredContent.class);
+                long id = storedContent != null ? storedContent.getBundleId() : createBundleId(storageState);
+                deployment.addAttachment(BundleId.class, new BundleId(id));
 
                 // Check that we have valid metadata
                 OSGiMetaData metadata = deployment.getAttachment(OSGiMetaData.class);
@@ -376,6 +410,39 @@ final class BundleManagerPlugin extends AbstractPluginService<BundleManager> imp
         return serviceName;
     }
 
+    @Override
+    public Future<Bundle> installBundleAsync(Deployment deployment) throws BundleException {
+        ServiceName serviceName = installBundle(deployment, null);
+        return trackInstallService(serviceName);
+    }
+
+    @Override
+    public List<Future<Bundle>> installBundles(Collection<Deployment> deployments) {
+        if (deployments == null)
+            throw MESSAGES.illegalArgumentNull("deployments");
+
+        List<Future<Bundle>> result = new ArrayList<Future<Bundle>>();
+        for (Deployment dep : deployments) {
+            String location = dep != null ? dep.getLocation() : null;
+            try {
+                ServiceName serviceName = installBundle(dep, null);
+                result.add(trackInstallService(serviceName));
+            } catch (BundleException ex) {
+                result.add(BundleInstallFuture.failed(location, ex));
+            } catch (RuntimeException rte) {
+                result.add(BundleInstallFuture.failed(location, rte));
+            }
+        }
+        return result;
+    }
+
+    private BundleInstallFuture trackInstallService(ServiceName serviceName) {
+        ServiceController<?> controller = serviceContainer.getService(serviceName);
+        if (controller == null)
+            return BundleInstallFuture.failed(serviceName.getCanonicalName(), null);
+        return BundleInstallFuture.track(controller);
+    }
+
     long createBundleId(StorageState storageState) {
         synchronized (identityGenerator) {
             long result;
@@ -392,6 +459,61 @@ final class BundleManagerPlugin extends AbstractPluginService<BundleManager> imp
         }
     }
 
+    @Override
+    public Map<Bundle, BundleException> startBundles(Collection<Bundle> bundles, int options) {
+        if (bundles == null)
+            throw MESSAGES.illegalArgumentNull("bundles");
+        BundleStartPlugin startPlugin = getFrameworkState().getCoreServices().getBundleStartPlugin();
+        return startPlugin.startBundles(bundles, options);
+    }
+
+    @Override
+    public Set<Bundle> resolveBundles(Collection<Bundle> bundles) {
+        if (bundles == null)
+            bundles = getBundles(Bundle.INSTALLED);
+
+        Set<Bundle> result = new LinkedHashSet<Bundle>();
+        Set<Resource> unresolved = new LinkedHashSet<Resource>();
+        for (Bundle bundle : bundles) {
+            AbstractBundleState bundleState = AbstractBundleState.assertBundleState(bundle);
+            if (bundleState.getState() == Bundle.INSTALLED) {
+                unresolved.add(bundleState.getCurrentBundleRevision());
+            } else if (bundleState.isResolved() == false) {
+                result.add(bundleState);
+            }
+        }
+        if (unresolved.isEmpty())
+            return result;
+
+        try {
+            ResolverPlugin resolverPlugin = getFrameworkState().getResolverPlugin();
+            resolverPlugin.resolveAndApply(Collections.<Resource>emptySet(), unresolved);
+        } catch (ResolutionException ex) {
+            LOGGER.debugf(ex, "Cannot resolve: %s", unresolved);
+        }
+
+        // Activate the services that represent bundle state RESOLVED
+        for (Resource res : unresolved) {
+            AbstractBundleRevision brev = (AbstractBundleRevision) res;
+            AbstractBundleState bundleState = brev.getBundleState();
+            if (brev.isResolved()) {
+                setServiceMode(bundleState.getServiceName(Bundle.RESOLVED), Mode.ACTIVE);
+            } else {
+                result.add(bundleState);
+            }
+        }
+        LOGGER.debugf("Resolved %d of %d bundles", unresolved.size() - result.size(), unresolved.size());
+        return result;
+    }
+
+    @Override
+    public ServiceName exposeService(String className) {
+        if (className == null)
+            throw MESSAGES.illegalArgumentNull("className");
+        ServiceManagerPlugin serviceManager = getFrameworkState().getServiceManagerPlugin();
+        return serviceManager.exposeService(className);
+    }
+
     @Override
     public void uninstallBundle(Deployment dep) {
         Bundle bundle = dep.getAttachment(Bundle.class);
@@ -452,6 +574,12 @@ final class BundleManagerPlugin extends AbstractPluginService<BundleManager> imp
     }
 
     void removeBundle(UserBundleState userBundle, int options) {
+        // Uninstall, refresh and the revision manager may remove the same bundle concurrently
+        if (userBundle.markRemoved() == false) {
+            LOGGER.tracef("Bundle already removed: %s", userBundle);
+            return;
+        }
+
         LOGGER.tracef("Start removing bundle: %s", userBundle);
 
         if ((options & Bundle.STOP_TRANSIENT) == 0) {
@@ -468,8 +596,10 @@ final class BundleManagerPlugin extends AbstractPluginService<BundleManager> imp
         eventsPlugin.fireBundleEvent(userBundle, BundleEvent.UNRESOLVED);
 
         ModuleManagerPlugin moduleManager = getFrameworkState().getModuleManagerPlugin();
+        ServiceManagerPlugin serviceManager = getFrameworkState().getServiceManagerPlugin();
         for (AbstractBundleRevision rev : userBundle.getAllBundleRevisions()) {
             UserBundleRevision userRev = (UserBundleRevision) rev;
+            serviceManager.getAssignabilityCache().invalidate(rev);
             if (userBundle.isFragment() == false) {
                 ModuleIdentifier identifier = moduleManager.getModuleIdentifier(rev);
                 moduleManager.removeModule(identifier);
@@ -0,0 +1,257 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
+import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.osgi.framework.Constants;
+import org.jboss.osgi.framework.Services;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleException;
+
+/**
+ * A plugin that starts a set of bundles concurrently.
+ *
+ * The bundles are resolved in one pass. A bundle is started as soon as all bundles from
+ * the same set that it is wired to have been started. Bundles that do not depend on each
+ * other are started in parallel on a bounded thread pool.
+ *
+ * @since 19-Oct-2026
+ */
+final class BundleStartPlugin extends AbstractExecutorService<BundleStartPlugin> {
+
+    // Set while a start task runs, nested bulk starts run on the calling thread
+    private static final ThreadLocal<Boolean> startThread = new ThreadLocal<Boolean>();
+
+    private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
+
+    static void addService(ServiceTarget serviceTarget) {
+        BundleStartPlugin service = new BundleStartPlugin();
+        ServiceBuilder<BundleStartPlugin> builder = serviceTarget.addService(InternalServices.BUNDLE_START_PLUGIN, service);
+        builder.addDependency(Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
+        builder.addDependency(Services.FRAMEWORK_CREATE);
+        builder.setInitialMode(Mode.ON_DEMAND);
+        builder.install();
+    }
+
+    private BundleStartPlugin() {
+    }
+
+    @Override
+    public BundleStartPlugin getValue() {
+        return this;
+    }
+
+    @Override
+    ExecutorService createExecutorService() {
+        BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+        int defaultThreads = Runtime.getRuntime().availableProcessors();
+        int poolSize = bundleManager.getIntegerProperty(Constants.PROPERTY_BUNDLE_START_THREADS, defaultThreads);
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable run) {
+                Thread thread = new Thread(run);
+                thread.setName("OSGi Bundle Start Thread-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        poolSize = Math.max(1, poolSize);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Start the given bundles with the given options.
+     *
+     * @return The bundles that could not be started mapped to the cause, or an empty map
+     */
+    Map<Bundle, BundleException> startBundles(Collection<? extends Bundle> bundles, int options) {
+        List<AbstractBundleState> startList = new ArrayList<AbstractBundleState>();
+        for (Bundle bundle : bundles) {
+            startList.add(AbstractBundleState.assertBundleState(bundle));
+        }
+        Collections.sort(startList, new Comparator<AbstractBundleState>() {
+            @Override
+            public int compare(AbstractBundleState b1, AbstractBundleState b2) {
+                long diff = b1.getBundleId() - b2.getBundleId();
+                return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+            }
+        });
+
+        // Resolve the bundles in one pass so that their wiring can be analyzed
+        resolveBundles(startList);
+
+        Map<Bundle, BundleException> failures = new LinkedHashMap<Bundle, BundleException>();
+        if (Boolean.TRUE.equals(startThread.get())) {
+            for (AbstractBundleState bundleState : startList) {
+                BundleException ex = new StartTask(bundleState, options).call();
+                if (ex != null) {
+                    failures.put(bundleState, ex);
+                }
+            }
+        } else {
+            startConcurrently(startList, options, failures);
+        }
+        return failures;
+    }
+
+    private void startConcurrently(List<AbstractBundleState> startList, int options, Map<Bundle, BundleException> failures) {
+
+        // The bundles from the start list that a bundle is wired to and vice versa
+        Map<AbstractBundleState, Set<AbstractBundleState>> dependencies = new HashMap<AbstractBundleState, Set<AbstractBundleState>>();
+        Map<AbstractBundleState, Set<AbstractBundleState>> dependents = new HashMap<AbstractBundleState, Set<AbstractBundleState>>();
+        for (AbstractBundleState bundleState : startList) {
+            dependencies.put(bundleState, new HashSet<AbstractBundleState>());
+            dependents.put(bundleState, new HashSet<AbstractBundleState>());
+        }
+        for (AbstractBundleState bundleState : startList) {
+            if (bundleState instanceof HostBundleState) {
+                for (UserBundleState provider : ((HostBundleState) bundleState).getDependentBundles()) {
+                    if (provider != bundleState && dependencies.containsKey(provider)) {
+                        dependencies.get(bundleState).add(provider);
+                        dependents.get(provider).add(bundleState);
+                    }
+                }
+            }
+        }
+
+        CompletionService<BundleException> completionService = new ExecutorCompletionService<BundleException>(getExecutorService());
+        Map<Future<BundleException>, AbstractBundleState> running = new HashMap<Future<BundleException>, AbstractBundleState>();
+        List<AbstractBundleState> pending = new ArrayList<AbstractBundleState>(startList);
+        boolean interrupted = false;
+        while (pending.isEmpty() == false || running.isEmpty() == false) {
+
+            // Submit every bundle that has no pending dependencies
+            Iterator<AbstractBundleState> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                AbstractBundleState bundleState = iterator.next();
+                if (dependencies.get(bundleState).isEmpty()) {
+                    iterator.remove();
+                    running.put(completionService.submit(new StartTask(bundleState, options)), bundleState);
+                }
+            }
+
+            // Break a dependency cycle by starting the bundle with the lowest id
+            if (running.isEmpty()) {
+                AbstractBundleState bundleState = pending.remove(0);
+                LOGGER.debugf("Breaking start dependency cycle at: %s", bundleState);
+                running.put(completionService.submit(new StartTask(bundleState, options)), bundleState);
+            }
+
+            Future<BundleException> future;
+            try {
+                future = completionService.take();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                continue;
+            }
+
+            AbstractBundleState bundleState = running.remove(future);
+            BundleException failure;
+            try {
+                failure = future.get();
+            } catch (InterruptedException ex) {
+                // The future is done, this does not happen
+                interrupted = true;
+                failure = null;
+            } catch (ExecutionException ex) {
+                failure = MESSAGES.bundleCannotStartBundle(ex.getCause(), bundleState);
+            }
+            if (failure != null) {
+                failures.put(bundleState, failure);
+            }
+            for (AbstractBundleState dependent : dependents.get(bundleState)) {
+                dependencies.get(dependent).remove(bundleState);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void resolveBundles(List<AbstractBundleState> startList) {
+        // Every bundle is resolved optionally, a bundle that cannot be resolved fails when it gets started
+        BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+        Set<Bundle> unresolved = bundleManager.resolveBundles(new ArrayList<Bundle>(startList));
+        if (unresolved.isEmpty() == false) {
+            LOGGER.debugf("Cannot resolve: %s", unresolved);
+        }
+    }
+
+    private static class StartTask implements Callable<BundleException> {
+
+        private final AbstractBundleState bundleState;
+        private final int options;
+
+        StartTask(AbstractBundleState bundleState, int options) {
+            this.bundleState = bundleState;
+            this.options = options;
+        }
+
+        @Override
+        public BundleException call() {
+            Boolean previous = startThread.get();
+            startThread.set(Boolean.TRUE);
+            try {
+                bundleState.start(options);
+                return null;
+            } catch (BundleException ex) {
+                return ex;
+            } catch (Throwable th) {
+                return MESSAGES.bundleCannotStartBundle(th, bundleState);
+            } finally {
+                startThread.set(previous);
+            }
+        }
+    }
+}
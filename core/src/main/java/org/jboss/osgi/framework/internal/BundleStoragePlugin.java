@@ -30,6 +30,10 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -58,7 +62,11 @@ import org.osgi.framework.Constants;
  */
 final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugin> {
 
+    // The directory in the storage area that holds native libraries by bundle content digest
+    static final String NATIVE_LIBRARY_CACHE = "native-libraries";
+
     private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
+    private final InjectedValue<FrameworkMetricsPlugin> injectedMetrics = new InjectedValue<FrameworkMetricsPlugin>();
     private final Map<String, InternalStorageState> storageStates = new HashMap<String, InternalStorageState>();
     private File storageArea;
     private boolean firstInit;
@@ -67,6 +75,7 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
         BundleStoragePlugin service = new BundleStoragePlugin(firstInit);
         ServiceBuilder<BundleStoragePlugin> builder = serviceTarget.addService(InternalServices.BUNDLE_STORAGE_PLUGIN, service);
         builder.addDependency(Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
+        builder.addDependency(InternalServices.FRAMEWORK_METRICS_PLUGIN, FrameworkMetricsPlugin.class, service.injectedMetrics);
         builder.setInitialMode(Mode.ON_DEMAND);
         builder.install();
     }
@@ -86,19 +95,31 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
             if (firstInit == true && Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT.equals(storageClean)) {
                 File storage = getStorageArea();
                 LOGGER.debugf("Deleting storage: %s", storage.getAbsolutePath());
-                deleteRecursive(storage);
+                File[] children = storage.listFiles();
+                if (children != null) {
+                    for (File child : children) {
+                        // The JDK paths index validates itself against the jars, so it survives the clean
+                        if (child.getName().equals(DefaultSystemPathsProvider.JDK_PATHS_INDEX) == false)
+                            deleteRecursive(child);
+                    }
+                }
             }
 
             // Initialize storage states
             File[] storageDirs = getStorageArea().listFiles();
             if (storageDirs != null) {
                 for (File storageDir : storageDirs) {
+                    if (storageDir.isDirectory() == false || storageDir.getName().equals(NATIVE_LIBRARY_CACHE))
+                        continue;
                     InternalStorageState storageState = InternalStorageState.createStorageState(storageDir);
                     if (storageState.getBundleId() != 0) {
                         storageStates.put(storageState.getLocation(), storageState);
                     }
                 }
             }
+
+            // Remove the native libraries of bundle content that is no longer installed
+            pruneNativeLibraryCache();
         } catch (IOException ex) {
             throw new StartException(ex);
         }
@@ -110,13 +131,25 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
     }
 
     InternalStorageState createStorageState(long bundleId, String location, int startlevel, VirtualFile rootFile) throws IOException {
+        return createStorageState(bundleId, location, startlevel, rootFile, null);
+    }
+
+    /**
+     * Create the storage state for the next bundle revision.
+     *
+     * If the revision content has already been written through {@link #storeBundleContent(long, InputStream)}
+     * it is not copied again.
+     */
+    InternalStorageState createStorageState(long bundleId, String location, int startlevel, VirtualFile rootFile, StoredContent storedContent) throws IOException {
         assert location != null : "Null location";
 
+        FrameworkMetricsPlugin metrics = injectedMetrics.getValue();
+        long createStart = metrics.getStorageCreates().start();
+
         // Make the bundle's storage dir
         File bundleDir = getStorageDir(bundleId);
         Properties props = InternalStorageState.loadProperties(bundleDir);
-        String previousRev = props.getProperty(StorageState.PROPERTY_BUNDLE_REV);
-        int revision = (bundleId != 0 && previousRev != null ? Integer.parseInt(previousRev) + 1 : 0);
+        int revision = getNextRevision(bundleId, props);
 
         // Write the bundle properties
         props.put(StorageState.PROPERTY_BUNDLE_LOCATION, location);
@@ -125,15 +158,74 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
         props.put(StorageState.PROPERTY_START_LEVEL, new Integer(startlevel).toString());
         props.put(StorageState.PROPERTY_LAST_MODIFIED, new Long(System.currentTimeMillis()).toString());
 
-        InternalStorageState storageState = InternalStorageState.createStorageState(bundleDir, rootFile, props);
+        InternalStorageState storageState = InternalStorageState.createStorageState(bundleDir, rootFile, props, storedContent);
         synchronized (storageStates) {
             if (storageState.getBundleId() != 0) {
                 storageStates.put(storageState.getLocation(), storageState);
             }
         }
+        if (storedContent == null && rootFile != null && metrics.isEnabled()) {
+            File revFile = InternalStorageState.getRevisionFile(bundleDir, bundleId, revision);
+            metrics.getStorageBytesWritten().add(revFile.length());
+        }
+        metrics.getStorageCreates().stop(createStart);
         return storageState;
     }
 
+    /**
+     * Write the given stream directly to the storage location of the next bundle revision.
+     *
+     * The content is written exactly once and its digest is computed along the way.
+     * The input stream is closed when this method returns.
+     */
+    StoredContent storeBundleContent(long bundleId, InputStream input) throws IOException {
+        File bundleDir = getStorageDir(bundleId);
+        Properties props = InternalStorageState.loadProperties(bundleDir);
+        int revision = getNextRevision(bundleId, props);
+        File revFile = InternalStorageState.getRevisionFile(bundleDir, bundleId, revision);
+        String digest = InternalStorageState.writeContent(input, revFile);
+        injectedMetrics.getValue().getStorageBytesWritten().add(revFile.length());
+        LOGGER.debugf("Stored bundle content: %s", revFile);
+        return new StoredContent(bundleId, revFile, digest);
+    }
+
+    /**
+     * Delete content that was stored through {@link #storeBundleContent(long, InputStream)}
+     * but never became part of a storage state.
+     */
+    void deleteStoredContent(StoredContent storedContent) {
+        File revFile = storedContent.getFile();
+        revFile.delete();
+        File bundleDir = revFile.getParentFile();
+        String[] children = bundleDir.list();
+        if (children != null && children.length == 0) {
+            bundleDir.delete();
+        }
+    }
+
+    /**
+     * Delete the content file of a bundle revision that is no longer in use.
+     *
+     * The storage directory and the persistent properties are shared by all revisions of a bundle and are kept.
+     * The content file is also kept if it still belongs to the revision that is recorded in the persistent properties.
+     */
+    void deleteRevisionContent(StorageState storageState) throws IOException {
+        VFSUtils.safeClose(storageState.getRootFile());
+        String fileName = storageState.getProperties().getProperty(StorageState.PROPERTY_BUNDLE_FILE);
+        if (fileName == null)
+            return;
+
+        File bundleDir = storageState.getStorageDir();
+        Properties props = InternalStorageState.loadProperties(bundleDir);
+        if (fileName.equals(props.getProperty(StorageState.PROPERTY_BUNDLE_FILE)))
+            return;
+
+        File revFile = new File(bundleDir, fileName);
+        if (revFile.delete()) {
+            LOGGER.debugf("Deleted revision content: %s", revFile);
+        }
+    }
+
     void deleteStorageState(InternalStorageState storageState) {
         VFSUtils.safeClose(storageState.getRootFile());
         deleteRecursive(storageState.getStorageDir());
@@ -168,19 +260,26 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
         if (storageArea == null) {
             BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
             String dirName = (String) bundleManager.getProperty(Constants.FRAMEWORK_STORAGE);
-            if (dirName == null) {
-                try {
-                    File storageDir = new File("./osgi-store");
-                    dirName = storageDir.getCanonicalPath();
-                } catch (IOException ex) {
-                    throw MESSAGES.illegalStateCannotCreateStorageArea(ex);
-                }
-            }
-            storageArea = new File(dirName).getAbsoluteFile();
+            storageArea = getStorageArea(dirName);
         }
         return storageArea;
     }
 
+    /**
+     * Get the storage area for the given directory name or the default storage area
+     */
+    static File getStorageArea(String dirName) {
+        if (dirName == null) {
+            try {
+                File storageDir = new File("./osgi-store");
+                dirName = storageDir.getCanonicalPath();
+            } catch (IOException ex) {
+                throw MESSAGES.illegalStateCannotCreateStorageArea(ex);
+            }
+        }
+        return new File(dirName).getAbsoluteFile();
+    }
+
     File getDataFile(long bundleId, String filename) {
         File bundleDir = getStorageDir(bundleId);
         File dataFile = new File(bundleDir.getAbsolutePath() + File.separator + filename);
@@ -195,6 +294,42 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
         return new File(filePath);
     }
 
+    /**
+     * Get the shared location of a native library that is extracted from the bundle content with the given digest.
+     *
+     * The location is reused across framework restarts and by every bundle revision with the same content.
+     */
+    File getNativeLibraryFile(String digest, String libpath) {
+        assert digest != null : "Null digest";
+        assert libpath != null : "Null libpath";
+
+        File cacheDir = new File(getStorageArea() + File.separator + NATIVE_LIBRARY_CACHE + File.separator + digest);
+        File libraryFile = new File(cacheDir, libpath);
+        libraryFile.getParentFile().mkdirs();
+        return libraryFile;
+    }
+
+    private void pruneNativeLibraryCache() {
+        File[] cacheDirs = new File(getStorageArea(), NATIVE_LIBRARY_CACHE).listFiles();
+        if (cacheDirs != null) {
+            Set<String> digests = new HashSet<String>();
+            for (InternalStorageState storageState : storageStates.values()) {
+                digests.add(storageState.getDigest());
+            }
+            for (File cacheDir : cacheDirs) {
+                if (digests.contains(cacheDir.getName()) == false) {
+                    LOGGER.debugf("Deleting native libraries: %s", cacheDir);
+                    deleteRecursive(cacheDir);
+                }
+            }
+        }
+    }
+
+    private int getNextRevision(long bundleId, Properties props) {
+        String previousRev = props.getProperty(StorageState.PROPERTY_BUNDLE_REV);
+        return (bundleId != 0 && previousRev != null ? Integer.parseInt(previousRev) + 1 : 0);
+    }
+
     private void deleteRecursive(File file) {
         if (file.isDirectory()) {
             for (File aux : file.listFiles())
@@ -205,6 +340,8 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
 
     static class InternalStorageState extends StorageState {
 
+        private static final String DIGEST_ALGORITHM = "SHA-1";
+
         private static InternalStorageState createStorageState(File storageDir) throws IOException {
             VirtualFile rootFile = null;
             Properties props = loadProperties(storageDir);
@@ -218,25 +355,52 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
             return storageState;
         }
 
-        private static InternalStorageState createStorageState(File storageDir, VirtualFile rootFile, Properties props) throws IOException {
+        private static InternalStorageState createStorageState(File storageDir, VirtualFile rootFile, Properties props, StoredContent storedContent) throws IOException {
             InternalStorageState storageState = new InternalStorageState(storageDir, rootFile, props);
-            if (rootFile != null) {
-                String bundleId = props.getProperty(StorageState.PROPERTY_BUNDLE_ID);
-                String revision = props.getProperty(StorageState.PROPERTY_BUNDLE_REV);
-                File revFile = new File(storageDir + "/bundle-" + bundleId + "-rev-" + revision + ".jar");
-                FileOutputStream output = new FileOutputStream(revFile);
+            if (storedContent != null) {
+                props.put(StorageState.PROPERTY_BUNDLE_FILE, storedContent.getFile().getName());
+                props.put(StorageState.PROPERTY_BUNDLE_DIGEST, storedContent.getDigest());
+            } else if (rootFile != null) {
+                long bundleId = Long.parseLong(props.getProperty(StorageState.PROPERTY_BUNDLE_ID));
+                int revision = Integer.parseInt(props.getProperty(StorageState.PROPERTY_BUNDLE_REV));
+                File revFile = getRevisionFile(storageDir, bundleId, revision);
                 storageDir.mkdirs();
-                InputStream input = rootFile.openStream();
+                String digest = writeContent(rootFile.openStream(), revFile);
+                props.put(StorageState.PROPERTY_BUNDLE_FILE, revFile.getName());
+                props.put(StorageState.PROPERTY_BUNDLE_DIGEST, digest);
+            }
+            storageState.writeProperties();
+            return storageState;
+        }
+
+        private static File getRevisionFile(File storageDir, long bundleId, int revision) {
+            return new File(storageDir + "/bundle-" + bundleId + "-rev-" + revision + ".jar");
+        }
+
+        // Copy the input to the given file and return the hex encoded digest of the content
+        private static String writeContent(InputStream input, File revFile) throws IOException {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+            } catch (NoSuchAlgorithmException ex) {
+                throw MESSAGES.illegalStateCannotObtainMessageDigest(ex, DIGEST_ALGORITHM);
+            }
+            try {
+                OutputStream output = new DigestOutputStream(new FileOutputStream(revFile), digest);
                 try {
                     VFSUtils.copyStream(input, output);
                 } finally {
-                    input.close();
                     output.close();
                 }
-                props.put(StorageState.PROPERTY_BUNDLE_FILE, revFile.getName());
+            } finally {
+                input.close();
             }
-            storageState.writeProperties();
-            return storageState;
+            StringBuilder builder = new StringBuilder();
+            for (byte b : digest.digest()) {
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+                builder.append(Character.forDigit(b & 0xF, 16));
+            }
+            return builder.toString();
         }
 
         private static Properties loadProperties(File storageDir) throws FileNotFoundException, IOException {
@@ -291,4 +455,37 @@ final class BundleStoragePlugin extends AbstractPluginService<BundleStoragePlugi
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Bundle content that has been written to its final storage location.
+     */
+    static class StoredContent {
+
+        private final long bundleId;
+        private final File file;
+        private final String digest;
+
+        private StoredContent(long bundleId, File file, String digest) {
+            this.bundleId = bundleId;
+            this.file = file;
+            this.digest = digest;
+        }
+
+        long getBundleId() {
+            return bundleId;
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        String getDigest() {
+            return digest;
+        }
+
+        @Override
+        public String toString() {
+            return "StoredContent[id=" + bundleId + ",file=" + file + ",digest=" + digest + "]";
+        }
+    }
+}
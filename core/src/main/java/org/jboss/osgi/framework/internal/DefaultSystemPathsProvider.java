@@ -28,9 +28,11 @@ import static org.osgi.framework.Constants.FRAMEWORK_BOOTDELEGATION;
 import static org.osgi.framework.Constants.FRAMEWORK_BUNDLE_PARENT;
 import static org.osgi.framework.Constants.FRAMEWORK_BUNDLE_PARENT_BOOT;
 import static org.osgi.framework.Constants.FRAMEWORK_BUNDLE_PARENT_EXT;
+import static org.osgi.framework.Constants.FRAMEWORK_STORAGE;
 import static org.osgi.framework.Constants.FRAMEWORK_SYSTEMPACKAGES;
 import static org.osgi.framework.Constants.FRAMEWORK_SYSTEMPACKAGES_EXTRA;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -47,6 +49,7 @@ import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
+import org.jboss.osgi.framework.Constants;
 import org.jboss.osgi.framework.SystemPathsProvider;
 
 /**
@@ -57,6 +60,9 @@ import org.jboss.osgi.framework.SystemPathsProvider;
  */
 public final class DefaultSystemPathsProvider extends AbstractPluginService<SystemPathsProvider> implements SystemPathsProvider {
 
+    // The name of the JDK paths index in the storage area
+    static final String JDK_PATHS_INDEX = "jdk-paths.index";
+
     private final FrameworkBuilder frameworkBuilder;
     // The derived combination of all system packages
     private Set<String> systemPackages = new LinkedHashSet<String>();
@@ -169,7 +175,7 @@ public final class DefaultSystemPathsProvider extends AbstractPluginService<Syst
             }
             if (hasBootDelegationWildcards == true) {
                 PathFilter bootDelegationFilter = getBootDelegationFilter();
-                for (String path : JDKPaths.JDK) {
+                for (String path : JDKPaths.getJDKPaths(getJDKPathsIndex())) {
                     if (bootDelegationFilter.accept(path)) {
                         result.add(path);
                     }
@@ -185,6 +191,21 @@ public final class DefaultSystemPathsProvider extends AbstractPluginService<Syst
         return cachedBootDelegationPaths;
     }
 
+    // The index file is configured explicitly or lives in the storage area
+    private File getJDKPathsIndex() {
+        String indexName = getFrameworkProperty(Constants.PROPERTY_JDK_PATHS_INDEX);
+        if (indexName != null)
+            return new File(indexName);
+
+        File storageArea = BundleStoragePlugin.getStorageArea(getFrameworkProperty(FRAMEWORK_STORAGE));
+        return new File(storageArea, JDK_PATHS_INDEX);
+    }
+
+    private String getFrameworkProperty(String key) {
+        String value = (String) frameworkBuilder.getProperty(key);
+        return value != null ? value : SecurityActions.getSystemProperty(key, null);
+    }
+
     @Override
     public Set<String> getSystemPackages() {
         assertInitialized();
@@ -61,6 +61,7 @@ final class FallbackLoader implements LocalLoader {
     private final Set<String> importedPaths;
     private final BundleManagerPlugin bundleManager;
     private final ModuleManagerPlugin moduleManager;
+    private final MetricsCounter dynamicLoads;
 
     FallbackLoader(HostBundleRevision hostRev, ModuleIdentifier identifier, Set<String> importedPaths) {
         assert hostRev != null : "Null hostRev";
@@ -72,6 +73,7 @@ final class FallbackLoader implements LocalLoader {
         this.hostBundle = hostRev.getBundleState();
         this.bundleManager = hostBundle.getBundleManager();
         this.moduleManager = hostBundle.getFrameworkState().getModuleManagerPlugin();
+        this.dynamicLoads = moduleManager.getMetricsPlugin().getDynamicLoads();
     }
 
     @Override
@@ -88,7 +90,10 @@ final class FallbackLoader implements LocalLoader {
 
         ModuleClassLoader moduleClassLoader = module.getClassLoader();
         try {
-            return moduleClassLoader.loadClass(className);
+            Class<?> loadedClass = moduleClassLoader.loadClass(className);
+            addDynamicProvider(module);
+            dynamicLoads.increment();
+            return loadedClass;
         } catch (ClassNotFoundException ex) {
             LOGGER.tracef("Cannot load class [%s] from module: %s", className, module);
             return null;
@@ -120,9 +125,19 @@ final class FallbackLoader implements LocalLoader {
             return Collections.emptyList();
         }
 
+        addDynamicProvider(module);
+        dynamicLoads.increment();
         return Collections.singletonList((Resource) new URLResource(resURL));
     }
 
+    // The provider must not be reclaimed while this revision uses it
+    private void addDynamicProvider(Module module) {
+        BundleRevision brev = moduleManager.getBundleRevision(module.getIdentifier());
+        if (brev instanceof AbstractBundleRevision) {
+            hostRev.addDynamicProvider((AbstractBundleRevision) brev);
+        }
+    }
+
     private Module findModuleDynamically(String resName, List<XPackageRequirement> matchingPatterns) {
         int idx = resName.lastIndexOf('/');
         if (idx < 0)
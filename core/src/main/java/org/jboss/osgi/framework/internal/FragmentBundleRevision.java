@@ -98,6 +98,9 @@ final class FragmentBundleRevision extends UserBundleRevision {
 
         hostRev.attachFragment(this);
         attachedHosts.add(hostRev);
+
+        // The localization entries are now searched through the host
+        getLocalizedHeadersCache().clear();
     }
 
     @Override
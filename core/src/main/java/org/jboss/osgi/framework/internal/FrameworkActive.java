@@ -126,12 +126,17 @@ public final class FrameworkActive extends AbstractFrameworkService {
             // This Framework's state is set to ACTIVE
             getSystemBundle().changeState(Bundle.ACTIVE);
 
+            // Resolve the installed bundles in one pass, so that bundle start does not resolve them one by one
+            BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+            if (bundleManager.getBooleanProperty(org.jboss.osgi.framework.Constants.PROPERTY_RESOLVE_ON_START, false)) {
+                bundleManager.resolveBundles(null);
+            }
+
             // Increase to initial start level
             StartLevelPlugin startLevelPlugin = getValue().getCoreServices().getStartLevel();
             startLevelPlugin.increaseStartLevel(getBeginningStartLevel());
 
             // Mark Framework as active in the bundle manager
-            BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
             bundleManager.injectedFrameworkActive.inject(Boolean.TRUE);
 
             // A framework event of type STARTED is fired
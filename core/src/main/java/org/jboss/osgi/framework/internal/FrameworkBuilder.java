@@ -34,6 +34,9 @@ import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
+import org.jboss.osgi.framework.Constants;
+import org.jboss.osgi.framework.DefaultServiceWaitStrategy;
+import org.jboss.osgi.framework.ServiceWaitStrategy;
 import org.osgi.framework.launch.Framework;
 
 /**
@@ -48,6 +51,7 @@ public final class FrameworkBuilder {
     private final Mode initialMode;
     private ServiceContainer serviceContainer;
     private ServiceTarget serviceTarget;
+    private ServiceWaitStrategy waitStrategy;
     private boolean closed;
 
     public FrameworkBuilder(Map<String, Object> props, Mode initialMode) {
@@ -68,6 +72,43 @@ public final class FrameworkBuilder {
         return value != null ? value : defaultValue;
     }
 
+    /**
+     * Get a timeout property in milliseconds. The value may be a number or a string.
+     */
+    long getTimeoutProperty(String key, long defaultValue) {
+        Object value = getProperty(key);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value != null) {
+            return Long.parseLong(value.toString().trim());
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Get the {@link ServiceWaitStrategy} that is configured through {@link Constants#PROPERTY_SERVICE_WAIT_STRATEGY}.
+     */
+    synchronized ServiceWaitStrategy getServiceWaitStrategy() {
+        if (waitStrategy == null) {
+            Object value = getProperty(Constants.PROPERTY_SERVICE_WAIT_STRATEGY);
+            if (value instanceof ServiceWaitStrategy) {
+                waitStrategy = (ServiceWaitStrategy) value;
+            } else if (value != null) {
+                try {
+                    ClassLoader classLoader = FrameworkBuilder.class.getClassLoader();
+                    Class<?> strategyClass = Class.forName(value.toString().trim(), true, classLoader);
+                    waitStrategy = (ServiceWaitStrategy) strategyClass.newInstance();
+                } catch (Exception ex) {
+                    throw MESSAGES.illegalArgumentInvalidServiceWaitStrategy(ex, value);
+                }
+            } else {
+                long timeout = getTimeoutProperty(Constants.PROPERTY_SERVICE_WAIT_TIMEOUT, DefaultServiceWaitStrategy.DEFAULT_TIMEOUT);
+                waitStrategy = new DefaultServiceWaitStrategy(timeout);
+            }
+        }
+        return waitStrategy;
+    }
+
     public Map<String, Object> getProperties() {
         return Collections.unmodifiableMap(initialProperties);
     }
@@ -113,6 +154,7 @@ public final class FrameworkBuilder {
             BundleManagerPlugin bundleManager = BundleManagerPlugin.addService(serviceTarget, this);
             FrameworkState frameworkState = FrameworkCreate.addService(serviceTarget, bundleManager);
 
+            BundleStartPlugin.addService(serviceTarget);
             BundleStoragePlugin.addService(serviceTarget, firstInit);
             DefaultEnvironmentPlugin.addService(serviceTarget);
             DeploymentFactoryPlugin.addService(serviceTarget);
@@ -121,11 +163,14 @@ public final class FrameworkBuilder {
             FrameworkCoreServices.addService(serviceTarget);
             FrameworkEventsPlugin.addService(serviceTarget);
             FrameworkInit.addService(serviceTarget);
+            FrameworkMetricsPlugin.addService(serviceTarget);
             LifecycleInterceptorPlugin.addService(serviceTarget);
+            LifecycleTimingPlugin.addService(serviceTarget);
             ModuleManagerPlugin.addService(serviceTarget);
             NativeCodePlugin.addService(serviceTarget);
             PackageAdminPlugin.addService(serviceTarget);
             ResolverPlugin.addService(serviceTarget);
+            RevisionManagerPlugin.addService(serviceTarget);
             ServiceManagerPlugin.addService(serviceTarget);
             StartLevelPlugin.addService(serviceTarget);
             StorageStateProviderPlugin.addService(serviceTarget);
@@ -29,10 +29,12 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.osgi.framework.BundleInstallHandler;
+import org.jboss.osgi.framework.FrameworkMetrics;
 import org.jboss.osgi.framework.IntegrationServices;
 import org.jboss.osgi.framework.Services;
 import org.jboss.osgi.framework.SystemServicesProvider;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.packageadmin.PackageAdmin;
 
 /**
@@ -43,20 +45,27 @@ import org.osgi.service.packageadmin.PackageAdmin;
  */
 public final class FrameworkCoreServices extends AbstractPluginService<FrameworkCoreServices> {
 
+    private final InjectedValue<BundleStartPlugin> injectedBundleStart = new InjectedValue<BundleStartPlugin>();
     private final InjectedValue<FrameworkState> injectedFramework = new InjectedValue<FrameworkState>();
+    private final InjectedValue<FrameworkMetricsPlugin> injectedMetrics = new InjectedValue<FrameworkMetricsPlugin>();
     private final InjectedValue<BundleInstallHandler> injectedInstallProvider = new InjectedValue<BundleInstallHandler>();
     private final InjectedValue<LifecycleInterceptorPlugin> injectedLifecycleInterceptor = new InjectedValue<LifecycleInterceptorPlugin>();
+    private final InjectedValue<LifecycleTimingPlugin> injectedLifecycleTiming = new InjectedValue<LifecycleTimingPlugin>();
     private final InjectedValue<PackageAdmin> injectedPackageAdmin = new InjectedValue<PackageAdmin>();
     private final InjectedValue<StartLevelPlugin> injectedStartLevel = new InjectedValue<StartLevelPlugin>();
     private final InjectedValue<BundleContext> injectedSystemContext = new InjectedValue<BundleContext>();
     private final InjectedValue<SystemServicesProvider> injectedServicesProvider = new InjectedValue<SystemServicesProvider>();
+    private ServiceRegistration metricsRegistration;
 
     static void addService(ServiceTarget serviceTarget) {
         FrameworkCoreServices service = new FrameworkCoreServices();
         ServiceBuilder<FrameworkCoreServices> builder = serviceTarget.addService(InternalServices.FRAMEWORK_CORE_SERVICES, service);
         builder.addDependency(IntegrationServices.BUNDLE_INSTALL_HANDLER, BundleInstallHandler.class, service.injectedInstallProvider);
+        builder.addDependency(InternalServices.BUNDLE_START_PLUGIN, BundleStartPlugin.class, service.injectedBundleStart);
         builder.addDependency(Services.FRAMEWORK_CREATE, FrameworkState.class, service.injectedFramework);
+        builder.addDependency(InternalServices.FRAMEWORK_METRICS_PLUGIN, FrameworkMetricsPlugin.class, service.injectedMetrics);
         builder.addDependency(InternalServices.LIFECYCLE_INTERCEPTOR_PLUGIN, LifecycleInterceptorPlugin.class, service.injectedLifecycleInterceptor);
+        builder.addDependency(InternalServices.LIFECYCLE_TIMING_PLUGIN, LifecycleTimingPlugin.class, service.injectedLifecycleTiming);
         builder.addDependency(Services.PACKAGE_ADMIN, PackageAdmin.class, service.injectedPackageAdmin);
         builder.addDependency(Services.START_LEVEL, StartLevelPlugin.class, service.injectedStartLevel);
         builder.addDependency(Services.SYSTEM_CONTEXT, BundleContext.class, service.injectedSystemContext);
@@ -75,6 +84,7 @@ public final class FrameworkCoreServices extends AbstractPluginService<Framework
         BundleContext systemContext = injectedSystemContext.getValue();
         SystemServicesProvider servicesProvider = injectedServicesProvider.getValue();
         servicesProvider.registerSystemServices(systemContext);
+        metricsRegistration = systemContext.registerService(FrameworkMetrics.class.getName(), injectedMetrics.getValue(), null);
         getFrameworkState().injectedCoreServices.inject(this);
     }
 
@@ -82,6 +92,8 @@ public final class FrameworkCoreServices extends AbstractPluginService<Framework
     public void stop(StopContext context) {
         super.stop(context);
         getFrameworkState().injectedCoreServices.uninject();
+        metricsRegistration.unregister();
+        metricsRegistration = null;
     }
 
     @Override
@@ -89,6 +101,10 @@ public final class FrameworkCoreServices extends AbstractPluginService<Framework
         return this;
     }
 
+    BundleStartPlugin getBundleStartPlugin() {
+        return injectedBundleStart.getValue();
+    }
+
     BundleInstallHandler getInstallHandler() {
         return injectedInstallProvider.getValue();
     }
@@ -101,6 +117,10 @@ public final class FrameworkCoreServices extends AbstractPluginService<Framework
         return injectedLifecycleInterceptor.getValue();
     }
 
+    LifecycleTimingPlugin getLifecycleTimingPlugin() {
+        return injectedLifecycleTiming.getValue();
+    }
+
     PackageAdmin getPackageAdmin() {
         return injectedPackageAdmin.getValue();
     }
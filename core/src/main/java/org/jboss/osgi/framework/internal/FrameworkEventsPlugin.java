@@ -81,6 +81,7 @@ final class FrameworkEventsPlugin extends AbstractPluginService<FrameworkEventsP
 
     private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
     private final InjectedValue<BundleContext> injectedSystemContext = new InjectedValue<BundleContext>();
+    private final InjectedValue<FrameworkMetricsPlugin> injectedMetrics = new InjectedValue<FrameworkMetricsPlugin>();
 
     /** The bundleState listeners */
     private final Map<AbstractBundleState, List<BundleListener>> bundleListeners = new ConcurrentHashMap<AbstractBundleState, List<BundleListener>>();
@@ -102,6 +103,7 @@ final class FrameworkEventsPlugin extends AbstractPluginService<FrameworkEventsP
         ServiceBuilder<FrameworkEventsPlugin> builder = serviceTarget.addService(InternalServices.FRAMEWORK_EVENTS_PLUGIN, service);
         builder.addDependency(org.jboss.osgi.framework.Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
         builder.addDependency(org.jboss.osgi.framework.Services.SYSTEM_CONTEXT, BundleContext.class, service.injectedSystemContext);
+        builder.addDependency(InternalServices.FRAMEWORK_METRICS_PLUGIN, FrameworkMetricsPlugin.class, service.injectedMetrics);
         builder.setInitialMode(Mode.ON_DEMAND);
         builder.install();
     }
@@ -361,15 +363,25 @@ final class FrameworkEventsPlugin extends AbstractPluginService<FrameworkEventsP
         if (bundleManager.isFrameworkCreated() == false)
             return;
 
+        FrameworkMetricsPlugin metrics = injectedMetrics.getValue();
+        metrics.getBundleEvents().increment();
+
         // Nobody is interested
         if (listeners.isEmpty())
             return;
 
         // Synchronous listeners first
+        final LatencyHistogram executions = metrics.getListenerExecutions();
         for (BundleListener listener : listeners) {
             try {
-                if (listener instanceof SynchronousBundleListener)
-                    listener.bundleChanged(event);
+                if (listener instanceof SynchronousBundleListener) {
+                    long executionStart = executions.start();
+                    try {
+                        listener.bundleChanged(event);
+                    } finally {
+                        executions.stop(executionStart);
+                    }
+                }
             } catch (Throwable th) {
                 LOGGER.warnErrorWhileFiringBundleEvent(th, typeName, bundleState);
             }
@@ -382,8 +394,14 @@ final class FrameworkEventsPlugin extends AbstractPluginService<FrameworkEventsP
                 if (asyncBundleEvents.contains(type)) {
                     for (BundleListener listener : listeners) {
                         try {
-                            if (listener instanceof SynchronousBundleListener == false)
-                                listener.bundleChanged(event);
+                            if (listener instanceof SynchronousBundleListener == false) {
+                                long executionStart = executions.start();
+                                try {
+                                    listener.bundleChanged(event);
+                                } finally {
+                                    executions.stop(executionStart);
+                                }
+                            }
                         } catch (Throwable th) {
                             LOGGER.warnErrorWhileFiringBundleEvent(th, typeName, bundleState);
                         }
@@ -480,6 +498,9 @@ final class FrameworkEventsPlugin extends AbstractPluginService<FrameworkEventsP
         if (bundleManager.isFrameworkCreated() == false)
             return;
 
+        FrameworkMetricsPlugin metrics = injectedMetrics.getValue();
+        metrics.getServiceEvents().increment();
+
         // Call the registered event hooks
         BundleContext systemContext = injectedSystemContext.getValue();
         listenerRegs = processEventHooks(systemContext, listenerRegs, event);
@@ -488,6 +509,9 @@ final class FrameworkEventsPlugin extends AbstractPluginService<FrameworkEventsP
         if (listenerRegs.isEmpty())
             return;
 
+        MetricsCounter deliveries = metrics.getServiceEventDeliveries();
+        LatencyHistogram executions = metrics.getListenerExecutions();
+
         // Call the listeners. All service events are synchronously delivered
         for (ServiceListenerRegistration listenerReg : listenerRegs) {
 
@@ -509,7 +533,13 @@ final class FrameworkEventsPlugin extends AbstractPluginService<FrameworkEventsP
             try {
                 String filterstr = listenerReg.filter.toString();
                 if (listenerReg.filter.match(serviceState)) {
-                    listenerReg.listener.serviceChanged(event);
+                    long executionStart = executions.start();
+                    try {
+                        listenerReg.listener.serviceChanged(event);
+                    } finally {
+                        executions.stop(executionStart);
+                    }
+                    deliveries.increment();
                 }
 
                 // The MODIFIED_ENDMATCH event is synchronously delivered after the service properties have been modified.
@@ -519,7 +549,13 @@ final class FrameworkEventsPlugin extends AbstractPluginService<FrameworkEventsP
                 else if (filterstr != null && ServiceEvent.MODIFIED == event.getType()) {
                     if (listenerReg.filter.match(serviceState.getPreviousProperties())) {
                         event = new ServiceEventImpl(ServiceEvent.MODIFIED_ENDMATCH, serviceState);
-                        listenerReg.listener.serviceChanged(event);
+                        long executionStart = executions.start();
+                        try {
+                            listenerReg.listener.serviceChanged(event);
+                        } finally {
+                            executions.stop(executionStart);
+                        }
+                        deliveries.increment();
                     }
                 }
             } catch (Throwable th) {
@@ -206,4 +206,16 @@ public interface FrameworkLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 11037, value = "Cannot install initial bundle: %s")
     void errorStateCannotInstallInitialBundle(@Cause Throwable cause, String source);
+
+    @LogMessage(level = WARN)
+    @Message(id = 11038, value = "Bundle start took %d ms, exceeding the threshold of %d ms: %s")
+    void warnBundleStartThresholdExceeded(long duration, long threshold, Bundle bundle);
+
+    @LogMessage(level = WARN)
+    @Message(id = 11039, value = "Cannot register metrics MBean: %s")
+    void warnCannotRegisterMetricsMBean(@Cause Throwable cause, String objectName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 11040, value = "Cannot reclaim bundle revision: %s")
+    void warnCannotReclaimRevision(@Cause Throwable cause, BundleRevision brev);
 }
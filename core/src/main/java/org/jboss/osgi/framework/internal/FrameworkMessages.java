@@ -287,4 +287,25 @@ public interface FrameworkMessages {
 
     @Message(id = 11276, value = "Timeout waiting for bundle install service: %s")
     TimeoutException timeoutWaitingForBundleInstallService(Set<ServiceName> services);
+
+    @Message(id = 11277, value = "Cannot obtain message digest: %s")
+    IllegalStateException illegalStateCannotObtainMessageDigest(@Cause Throwable cause, String algorithm);
+
+    @Message(id = 11278, value = "Bundle start took %d ms, exceeding the threshold of %d ms: %s")
+    BundleException bundleStartThresholdExceeded(long duration, long threshold, Bundle bundle);
+
+    @Message(id = 11279, value = "Negative timeout: %d")
+    IllegalArgumentException illegalArgumentNegativeTimeout(long timeout);
+
+    @Message(id = 11280, value = "Invalid tracker filter: %s")
+    IllegalStateException illegalStateInvalidTrackerFilter(@Cause Throwable cause, String filter);
+
+    @Message(id = 11281, value = "Timeout getting: %s, unavailable dependencies: %s")
+    TimeoutException timeoutGettingServiceDependencies(String serviceName, String dependencies);
+
+    @Message(id = 11282, value = "Invalid service wait strategy: %s")
+    IllegalArgumentException illegalArgumentInvalidServiceWaitStrategy(@Cause Throwable cause, Object strategy);
+
+    @Message(id = 11283, value = "Cannot move native library to: %s")
+    IOException ioCannotMoveNativeLibrary(File file);
 }
@@ -0,0 +1,231 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.osgi.framework.Constants;
+import org.jboss.osgi.framework.FrameworkMetrics;
+import org.jboss.osgi.framework.Services;
+
+/**
+ * An implementation of the {@link FrameworkMetrics} service.
+ *
+ * When metrics are disabled, all counters and histograms are created in a disabled state
+ * so that instrumented code paths only pay for a field read.
+ *
+ * @since 19-Oct-2026
+ */
+final class FrameworkMetricsPlugin extends AbstractPluginService<FrameworkMetricsPlugin> implements FrameworkMetrics {
+
+    private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
+    private final Map<String, MetricsCounter> counters = new LinkedHashMap<String, MetricsCounter>();
+    private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<String, LatencyHistogram>();
+    private boolean enabled;
+    private ObjectName objectName;
+
+    private MetricsCounter serviceRegistrations;
+    private LatencyHistogram serviceLookups;
+    private MetricsCounter serviceEvents;
+    private MetricsCounter serviceEventDeliveries;
+    private MetricsCounter bundleEvents;
+    private LatencyHistogram listenerExecutions;
+    private LatencyHistogram resolverResolves;
+    private LatencyHistogram moduleLoads;
+    private MetricsCounter dynamicLoads;
+    private LatencyHistogram storageCreates;
+    private MetricsCounter storageBytesWritten;
+
+    static void addService(ServiceTarget serviceTarget) {
+        FrameworkMetricsPlugin service = new FrameworkMetricsPlugin();
+        ServiceBuilder<FrameworkMetricsPlugin> builder = serviceTarget.addService(InternalServices.FRAMEWORK_METRICS_PLUGIN, service);
+        builder.addDependency(Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
+        builder.setInitialMode(Mode.ON_DEMAND);
+        builder.install();
+    }
+
+    private FrameworkMetricsPlugin() {
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+        enabled = bundleManager.getBooleanProperty(Constants.PROPERTY_METRICS_ENABLED, false);
+        counters.clear();
+        histograms.clear();
+        serviceRegistrations = addCounter(SERVICE_REGISTRATIONS);
+        serviceLookups = addHistogram(SERVICE_LOOKUPS);
+        serviceEvents = addCounter(SERVICE_EVENTS);
+        serviceEventDeliveries = addCounter(SERVICE_EVENT_DELIVERIES);
+        bundleEvents = addCounter(BUNDLE_EVENTS);
+        listenerExecutions = addHistogram(LISTENER_EXECUTIONS);
+        resolverResolves = addHistogram(RESOLVER_RESOLVES);
+        moduleLoads = addHistogram(MODULE_LOADS);
+        dynamicLoads = addCounter(DYNAMIC_LOADS);
+        storageCreates = addHistogram(STORAGE_CREATES);
+        storageBytesWritten = addCounter(STORAGE_BYTES_WRITTEN);
+        if (enabled && bundleManager.getBooleanProperty(Constants.PROPERTY_METRICS_JMX, false)) {
+            registerMBean();
+        }
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        super.stop(context);
+        unregisterMBean();
+    }
+
+    @Override
+    public FrameworkMetricsPlugin getValue() {
+        return this;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, MetricsCounter> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public Map<String, LatencyStatistics> getLatencies() {
+        Map<String, LatencyStatistics> result = new LinkedHashMap<String, LatencyStatistics>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getStatistics());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public void reset() {
+        for (MetricsCounter counter : counters.values()) {
+            counter.reset();
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    MetricsCounter getServiceRegistrations() {
+        return serviceRegistrations;
+    }
+
+    LatencyHistogram getServiceLookups() {
+        return serviceLookups;
+    }
+
+    MetricsCounter getServiceEvents() {
+        return serviceEvents;
+    }
+
+    MetricsCounter getServiceEventDeliveries() {
+        return serviceEventDeliveries;
+    }
+
+    MetricsCounter getBundleEvents() {
+        return bundleEvents;
+    }
+
+    LatencyHistogram getListenerExecutions() {
+        return listenerExecutions;
+    }
+
+    LatencyHistogram getResolverResolves() {
+        return resolverResolves;
+    }
+
+    LatencyHistogram getModuleLoads() {
+        return moduleLoads;
+    }
+
+    MetricsCounter getDynamicLoads() {
+        return dynamicLoads;
+    }
+
+    LatencyHistogram getStorageCreates() {
+        return storageCreates;
+    }
+
+    MetricsCounter getStorageBytesWritten() {
+        return storageBytesWritten;
+    }
+
+    private MetricsCounter addCounter(String name) {
+        MetricsCounter counter = new MetricsCounter(enabled);
+        counters.put(name, counter);
+        return counter;
+    }
+
+    private LatencyHistogram addHistogram(String name) {
+        LatencyHistogram histogram = new LatencyHistogram(enabled);
+        histograms.put(name, histogram);
+        return histogram;
+    }
+
+    private void registerMBean() {
+        try {
+            ObjectName oname = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(oname) == false) {
+                server.registerMBean(new StandardMBean(this, FrameworkMetrics.class, true), oname);
+                objectName = oname;
+            }
+        } catch (Exception ex) {
+            LOGGER.warnCannotRegisterMetricsMBean(ex, OBJECT_NAME);
+        }
+    }
+
+    private void unregisterMBean() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception ex) {
+                LOGGER.debugf(ex, "Cannot unregister: %s", objectName);
+            }
+            objectName = null;
+        }
+    }
+}
@@ -46,8 +46,10 @@ import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceController.State;
 import org.jboss.osgi.framework.Constants;
 import org.jboss.osgi.framework.FutureServiceValue;
+import org.jboss.osgi.framework.ServiceWaitStrategy;
 import org.jboss.osgi.framework.Services;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -448,8 +450,9 @@ final class FrameworkProxy implements Framework {
             }
         });
         controller.setMode(Mode.ACTIVE);
-        FutureServiceValue<FrameworkState> future = new FutureServiceValue<FrameworkState>(controller);
-        Integer timeout = (Integer) frameworkBuilder.getProperty(PROPERTY_FRAMEWORK_INIT_TIMEOUT, DEFAULT_FRAMEWORK_INIT_TIMEOUT);
+        ServiceWaitStrategy waitStrategy = frameworkBuilder.getServiceWaitStrategy();
+        FutureServiceValue<FrameworkState> future = new FutureServiceValue<FrameworkState>(controller, State.UP, waitStrategy);
+        long timeout = frameworkBuilder.getTimeoutProperty(PROPERTY_FRAMEWORK_INIT_TIMEOUT, DEFAULT_FRAMEWORK_INIT_TIMEOUT);
         return future.get(timeout, TimeUnit.MILLISECONDS);
     }
 
@@ -457,8 +460,9 @@ final class FrameworkProxy implements Framework {
     private void awaitFrameworkActive() throws ExecutionException, TimeoutException {
         final ServiceController<FrameworkState> controller = (ServiceController<FrameworkState>) lenientContainer.getRequiredService(Services.FRAMEWORK_ACTIVE);
         controller.setMode(Mode.ACTIVE);
-        FutureServiceValue<FrameworkState> future = new FutureServiceValue<FrameworkState>(controller);
-        Integer timeout = (Integer) frameworkBuilder.getProperty(PROPERTY_FRAMEWORK_START_TIMEOUT, DEFAULT_FRAMEWORK_START_TIMEOUT);
+        ServiceWaitStrategy waitStrategy = frameworkBuilder.getServiceWaitStrategy();
+        FutureServiceValue<FrameworkState> future = new FutureServiceValue<FrameworkState>(controller, State.UP, waitStrategy);
+        long timeout = frameworkBuilder.getTimeoutProperty(PROPERTY_FRAMEWORK_START_TIMEOUT, DEFAULT_FRAMEWORK_START_TIMEOUT);
         future.get(timeout, TimeUnit.MILLISECONDS);
     }
 
@@ -46,6 +46,7 @@ final class FrameworkState {
     final InjectedValue<ModuleManagerPlugin> injectedModuleManager = new InjectedValue<ModuleManagerPlugin>();
     final InjectedValue<NativeCodePlugin> injectedNativeCode = new InjectedValue<NativeCodePlugin>();
     final InjectedValue<ResolverPlugin> injectedResolverPlugin = new InjectedValue<ResolverPlugin>();
+    final InjectedValue<RevisionManagerPlugin> injectedRevisionManager = new InjectedValue<RevisionManagerPlugin>();
     final InjectedValue<ServiceManagerPlugin> injectedServiceManager = new InjectedValue<ServiceManagerPlugin>();
     final InjectedValue<SystemBundleState> injectedSystemBundle = new InjectedValue<SystemBundleState>();
     private int startStopOptions;
@@ -86,6 +87,10 @@ final class FrameworkState {
         return injectedResolverPlugin.getValue();
     }
 
+    RevisionManagerPlugin getRevisionManagerPlugin() {
+        return injectedRevisionManager.getValue();
+    }
+
     XEnvironment getEnvironment() {
         return injectedEnvironment.getValue();
     }
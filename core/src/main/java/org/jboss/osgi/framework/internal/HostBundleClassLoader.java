@@ -24,7 +24,6 @@ package org.jboss.osgi.framework.internal;
 import org.jboss.modules.ClassSpec;
 import org.jboss.modules.ModuleClassLoader;
 import org.jboss.modules.ModuleClassLoaderFactory;
-import org.jboss.modules.filter.PathFilter;
 
 /**
  * A {@link ModuleClassLoader} that hosld a reference to the underlying bundle.
@@ -34,39 +33,36 @@ import org.jboss.modules.filter.PathFilter;
  */
 final class HostBundleClassLoader extends BundleReferenceClassLoader<HostBundleState> {
 
-    private final PathFilter lazyFilter;
-    
-    private HostBundleClassLoader(Configuration configuration, HostBundleState bundleState, PathFilter lazyFilter) {
+    private final LazyPackageFilter lazyFilter;
+
+    private HostBundleClassLoader(Configuration configuration, HostBundleState bundleState, LazyPackageFilter lazyFilter) {
         super(configuration, bundleState);
         this.lazyFilter = lazyFilter;
     }
-    
+
+    // Once the bundle no longer awaits lazy activation, the hooks only read a volatile flag
     @Override
     protected void preDefine(ClassSpec classSpec, String className) {
-        if (getBundleState().awaitLazyActivation()) {
-            String path = className.substring(0, className.lastIndexOf('.')).replace('.', '/');
-            if (lazyFilter.accept(path)) {
-                LazyActivationTracker.preDefineClass(getBundleState(), className);
-            }
+        HostBundleState hostBundle = getBundleState();
+        if (hostBundle.awaitLazyActivation() && lazyFilter.acceptClass(className)) {
+            LazyActivationTracker.preDefineClass(hostBundle, className);
         }
     }
 
     @Override
     protected void postDefine(ClassSpec classSpec, Class<?> definedClass) {
-        if (getBundleState().awaitLazyActivation()) {
-            String path = definedClass.getPackage().getName().replace('.', '/');
-            if (lazyFilter.accept(path)) {
-                LazyActivationTracker.postDefineClass(getBundleState(), definedClass);
-            }
+        HostBundleState hostBundle = getBundleState();
+        if (hostBundle.awaitLazyActivation() && lazyFilter.acceptClass(definedClass.getName())) {
+            LazyActivationTracker.postDefineClass(hostBundle, definedClass);
         }
     }
 
     static class Factory implements ModuleClassLoaderFactory {
 
         private HostBundleState bundleState;
-        private PathFilter lazyFilter;
+        private LazyPackageFilter lazyFilter;
 
-        public Factory(HostBundleState bundleState, PathFilter lazyFilter) {
+        public Factory(HostBundleState bundleState, LazyPackageFilter lazyFilter) {
             this.bundleState = bundleState;
             this.lazyFilter = lazyFilter;
         }
@@ -34,10 +34,12 @@ import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.modules.ModuleClassLoader;
 import org.jboss.modules.ModuleLoadException;
 import org.jboss.osgi.deployment.deployer.Deployment;
+import org.jboss.osgi.metadata.PackageAttribute;
 import org.jboss.osgi.vfs.VirtualFile;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleException;
@@ -56,9 +58,17 @@ import org.osgi.service.resolver.ResolutionException;
 final class HostBundleRevision extends UserBundleRevision {
 
     private Set<FragmentBundleRevision> attachedFragments;
+    private final ResourceCache resourceCache;
+    private final boolean dynamicImports;
+    // The revisions that classes or resources were loaded from through a dynamic import
+    private final Set<AbstractBundleRevision> dynamicProviders;
 
     HostBundleRevision(HostBundleState hostBundle, Deployment dep) throws BundleException {
         super(hostBundle, dep);
+        resourceCache = new ResourceCache(getResourceCacheSize(hostBundle));
+        List<PackageAttribute> dynamicImportList = getOSGiMetaData().getDynamicImports();
+        dynamicImports = (dynamicImportList != null && dynamicImportList.isEmpty() == false);
+        dynamicProviders = dynamicImports ? Collections.newSetFromMap(new ConcurrentHashMap<AbstractBundleRevision, Boolean>()) : null;
     }
 
     /**
@@ -77,9 +87,15 @@ final class HostBundleRevision extends UserBundleRevision {
     void refreshRevisionInternal() {
         super.refreshRevisionInternal();
         attachedFragments = null;
+        resourceCache.clear();
+        if (dynamicProviders != null) {
+            dynamicProviders.clear();
+        }
     }
 
     void attachFragment(FragmentBundleRevision fragRev) {
+        resourceCache.clear();
+        getLocalizedHeadersCache().clear();
         if (attachedFragments == null) {
         	Comparator<FragmentBundleRevision> comp = new Comparator<FragmentBundleRevision>(){
 				@Override
@@ -102,6 +118,29 @@ final class HostBundleRevision extends UserBundleRevision {
         return Collections.unmodifiableSet(attachedFragments);
     }
 
+    boolean hasDynamicImports() {
+        return dynamicImports;
+    }
+
+    void addDynamicProvider(AbstractBundleRevision provider) {
+        if (dynamicProviders != null && dynamicProviders.add(provider)) {
+            // Lenient assignability results may no longer hold for the new provider
+            ServiceManagerPlugin serviceManager = getBundleState().getFrameworkState().getServiceManagerPlugin();
+            serviceManager.getAssignabilityCache().invalidate(this);
+        }
+    }
+
+    /**
+     * Get the revisions that classes or resources were loaded from through a dynamic import.
+     * Dynamic loads do not create wires, so these revisions are not part of the wiring.
+     */
+    Set<AbstractBundleRevision> getDynamicProviders() {
+        if (dynamicProviders == null)
+            return Collections.emptySet();
+
+        return Collections.unmodifiableSet(dynamicProviders);
+    }
+
     @Override
     Class<?> loadClass(String className) throws ClassNotFoundException {
 
@@ -154,6 +193,10 @@ final class HostBundleRevision extends UserBundleRevision {
 
         // If this bundle's state is INSTALLED, this method must attempt to resolve this bundle
         if (getBundleState().ensureResolved(false) == null) {
+            Object cached = resourceCache.get(path);
+            if (cached != null)
+                return cached != ResourceCache.NOT_FOUND ? (URL) cached : null;
+
             ModuleClassLoader moduleClassLoader;
             try {
                 moduleClassLoader = getModuleClassLoader();
@@ -161,7 +204,13 @@ final class HostBundleRevision extends UserBundleRevision {
                 LOGGER.debugf("Cannot get resource, because of: %s", ex);
                 return null;
             }
-            return moduleClassLoader.getResource(path);
+            URL resource = moduleClassLoader.getResource(path);
+
+            // A missing resource may later be found through a dynamic import
+            if (resource != null || dynamicImports == false) {
+                resourceCache.put(path, resource);
+            }
+            return resource;
         }
 
         // If this bundle cannot be resolved, then only this bundle must be searched for the specified resource
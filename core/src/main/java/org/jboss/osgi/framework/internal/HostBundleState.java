@@ -62,6 +62,7 @@ final class HostBundleState extends UserBundleState {
     private final Semaphore activationSemaphore = new Semaphore(1);
     private final AtomicBoolean alreadyStarting = new AtomicBoolean();
     private final AtomicBoolean awaitLazyActivation = new AtomicBoolean();
+    private final BundleLifecycleTiming lifecycleTiming = new BundleLifecycleTiming();
     private BundleActivator bundleActivator;
 
     HostBundleState(FrameworkState frameworkState, long bundleId, Deployment dep) {
@@ -114,6 +115,10 @@ final class HostBundleState extends UserBundleState {
         return (HostBundleRevision) super.getCurrentBundleRevision();
     }
 
+    BundleLifecycleTiming getLifecycleTiming() {
+        return lifecycleTiming;
+    }
+
     boolean isPersistentlyStarted() {
         StorageState storageState = getStorageState();
         return storageState.isPersistentlyStarted();
@@ -224,12 +229,17 @@ final class HostBundleState extends UserBundleState {
             if (getState() == ACTIVE)
                 return;
 
+            long startNanos = System.nanoTime();
+            lifecycleTiming.resetStartPhases();
+
             // #3 Set this bundle's autostart setting
             persistAutoStartSettings(options);
 
             // #4 If this bundle's state is not RESOLVED, an attempt is made to resolve this bundle.
             // If the Framework cannot resolve this bundle, a BundleException is thrown.
+            long resolveStart = System.nanoTime();
             ResolutionException resex = ensureResolved(true);
+            lifecycleTiming.setResolveTime(System.nanoTime() - resolveStart);
             if (resex != null)
                 throw MESSAGES.bundleCannotResolveBundle(resex, this);
 
@@ -242,7 +252,7 @@ final class HostBundleState extends UserBundleState {
             if (awaitLazyActivation.get() == true && useActivationPolicy == true) {
                 transitionToStarting(options);
             } else {
-                transitionToActive(options);
+                transitionToActive(options, startNanos);
             }
         } finally {
             alreadyStarting.set(false);
@@ -297,7 +307,7 @@ final class HostBundleState extends UserBundleState {
         changeState(STARTING, BundleEvent.LAZY_ACTIVATION);
     }
 
-    private void transitionToActive(int options) throws BundleException {
+    private void transitionToActive(int options, long startNanos) throws BundleException {
         // #6 This bundle's state is set to STARTING.
         // #7 A bundle event of type BundleEvent.STARTING is fired.
         try {
@@ -312,16 +322,22 @@ final class HostBundleState extends UserBundleState {
             ClassLoader tccl = Thread.currentThread().getContextClassLoader();
             try {
                 Thread.currentThread().setContextClassLoader(null);
+                long loadStart = System.nanoTime();
                 Object result = loadClass(className).newInstance();
+                lifecycleTiming.setActivatorLoadTime(System.nanoTime() - loadStart);
                 if (result instanceof ModuleActivator) {
                     bundleActivator = new ModuleActivatorBridge((ModuleActivator) result);
-                    bundleActivator.start(getBundleContext());
                 } else if (result instanceof BundleActivator) {
                     bundleActivator = (BundleActivator) result;
-                    bundleActivator.start(getBundleContext());
                 } else {
                     throw MESSAGES.bundleInvalidBundleActivator(className);
                 }
+                long activatorStart = System.nanoTime();
+                try {
+                    bundleActivator.start(getBundleContext());
+                } finally {
+                    lifecycleTiming.setActivatorStartTime(System.nanoTime() - activatorStart);
+                }
             }
 
             // If the BundleActivator is invalid or throws an exception then
@@ -365,6 +381,10 @@ final class HostBundleState extends UserBundleState {
         getBundleManager().setServiceMode(getServiceName(ACTIVE), Mode.ACTIVE);
 
         LOGGER.infoBundleStarted(this);
+
+        lifecycleTiming.setServiceRegistrationCount(getRegisteredServicesInternal().size());
+        lifecycleTiming.setStartTime(System.nanoTime() - startNanos);
+        getCoreServices().getLifecycleTimingPlugin().bundleStarted(this);
     }
 
     @Override
@@ -407,6 +427,7 @@ final class HostBundleState extends UserBundleState {
             Throwable rethrow = null;
             if (priorState == ACTIVE) {
                 if (bundleActivator != null) {
+                    long activatorStop = System.nanoTime();
                     try {
                         if (bundleActivator instanceof ModuleActivatorBridge) {
                             bundleActivator.stop(getBundleContext());
@@ -416,6 +437,7 @@ final class HostBundleState extends UserBundleState {
                     } catch (Throwable t) {
                         rethrow = t;
                     }
+                    lifecycleTiming.setActivatorStopTime(System.nanoTime() - activatorStop);
                 }
             }
 
@@ -36,6 +36,8 @@ public interface InternalServices {
     /** The base name of all internal services */
     ServiceName INTERNAL_SERVICE_BASE = Services.JBOSGI_BASE_NAME.append("internal");
 
+    /** The {@link BundleStartPlugin} service name */
+    ServiceName BUNDLE_START_PLUGIN = INTERNAL_SERVICE_BASE.append("BundleStart");
     /** The {@link BundleStoragePlugin} service name */
     ServiceName BUNDLE_STORAGE_PLUGIN = INTERNAL_SERVICE_BASE.append("BundleStorage");
     /** The {@link FrameworkCoreServices} service name. */
@@ -44,14 +46,20 @@ public interface InternalServices {
     ServiceName DEPLOYMENT_FACTORY_PLUGIN = INTERNAL_SERVICE_BASE.append("DeploymentFactory");
     /** The {@link FrameworkEventsPlugin} service name */
     ServiceName FRAMEWORK_EVENTS_PLUGIN = INTERNAL_SERVICE_BASE.append("FrameworkEvents");
+    /** The {@link FrameworkMetricsPlugin} service name */
+    ServiceName FRAMEWORK_METRICS_PLUGIN = INTERNAL_SERVICE_BASE.append("FrameworkMetrics");
     /** The {@link LifecycleInterceptorPlugin} service name */
     ServiceName LIFECYCLE_INTERCEPTOR_PLUGIN = INTERNAL_SERVICE_BASE.append("LifecycleInterceptor");
+    /** The {@link LifecycleTimingPlugin} service name */
+    ServiceName LIFECYCLE_TIMING_PLUGIN = INTERNAL_SERVICE_BASE.append("LifecycleTiming");
     /** The {@link ModuleManagerPlugin} service name */
     ServiceName MODULE_MANGER_PLUGIN = INTERNAL_SERVICE_BASE.append("ModuleManager");
     /** The {@link NativeCodePlugin} service name */
     ServiceName NATIVE_CODE_PLUGIN = INTERNAL_SERVICE_BASE.append("NativeCode");
     /** The {@link Resolver} service name */
     ServiceName RESOLVER_PLUGIN = INTERNAL_SERVICE_BASE.append("Resolver");
+    /** The {@link RevisionManagerPlugin} service name */
+    ServiceName REVISION_MANAGER_PLUGIN = INTERNAL_SERVICE_BASE.append("RevisionManager");
     /** The {@link ServiceManagerPlugin} service name */
     ServiceName SERVICE_MANAGER_PLUGIN = INTERNAL_SERVICE_BASE.append("ServiceManager");
     /** The {@link WebXMLVerifierInterceptor} service name */
@@ -22,70 +22,124 @@
 
 package org.jboss.osgi.framework.internal;
 
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
+
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 /**
- * A utility class which maintains the set of JDK paths.  
+ * A utility class which maintains the set of JDK paths.
+ *
+ * The paths of every jar on the boot and application class path are kept in an index file.
+ * A jar is only scanned again when its size or modification time changes. Directories
+ * on the class path are always scanned.
  *
  * @author david.lloyd@redhat.com
  * @author thomas.diesler@jboss.com
  * @since 27-Jul-2011
  */
 final class JDKPaths {
-    static final Set<String> JDK;
-
-    static {
-        final Set<String> pathSet = new HashSet<String>(1024);
-        final Set<String> jarSet = new HashSet<String>(1024);
-        final String sunBootClassPath = SecurityActions.getSystemProperty("sun.boot.class.path", null);
-        final String javaClassPath = SecurityActions.getSystemProperty("java.class.path", null);
-        processClassPathItem(sunBootClassPath, jarSet, pathSet);
-        processClassPathItem(javaClassPath, jarSet, pathSet);
-        JDK = pathSet;
-    }
+
+    private static final String INDEX_ENCODING = "UTF-8";
+    private static final String INDEX_HEADER = "# JDK paths index v1";
+
+    private static Set<String> jdkPaths;
 
     private JDKPaths() {
     }
 
-    private static void processClassPathItem(final String classPath, final Set<String> jarSet, final Set<String> pathSet) {
-        if (classPath == null) return;
-        int s = 0, e;
-        do {
-            e = classPath.indexOf(File.pathSeparatorChar, s);
-            String item = e == -1 ? classPath.substring(s) : classPath.substring(s, e);
-            if (! jarSet.contains(item)) {
-                final File file = new File(item);
-                if (file.isDirectory()) {
-                    processDirectory0(pathSet, file);
-                } else {
-                    try {
-                        final ZipFile zipFile = new ZipFile(file);
-                        try {
-                            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
-                            while (entries.hasMoreElements()) {
-                                final ZipEntry entry = entries.nextElement();
-                                final String name = entry.getName();
-                                final int lastSlash = name.lastIndexOf('/');
-                                if (lastSlash != -1) {
-                                    pathSet.add(name.substring(0, lastSlash));
-                                }
-                            }
-                        } finally {
-                            zipFile.close();
-                        }
-                    } catch (IOException ex) {
-                        // ignore
+    /**
+     * Get the set of JDK paths. The paths are computed once and reused for every framework in this VM.
+     *
+     * @param indexFile The file that persists the paths by jar or null
+     */
+    static synchronized Set<String> getJDKPaths(File indexFile) {
+        if (jdkPaths == null) {
+            long startNanos = System.nanoTime();
+            String sunBootClassPath = SecurityActions.getSystemProperty("sun.boot.class.path", null);
+            String javaClassPath = SecurityActions.getSystemProperty("java.class.path", null);
+            jdkPaths = computePaths(indexFile, sunBootClassPath, javaClassPath);
+            LOGGER.debugf("JDK paths computed in %dms", (System.nanoTime() - startNanos) / 1000000);
+        }
+        return jdkPaths;
+    }
+
+    /**
+     * Compute the paths of the given class paths and update the index file when a jar was scanned.
+     *
+     * @param indexFile The file that persists the paths by jar or null
+     */
+    static Set<String> computePaths(File indexFile, String... classPaths) {
+        Map<String, IndexedJar> previous = indexFile != null ? readIndex(indexFile) : Collections.<String, IndexedJar> emptyMap();
+        Map<String, IndexedJar> current = new LinkedHashMap<String, IndexedJar>();
+        Set<String> pathSet = new HashSet<String>(1024);
+        for (String classPath : classPaths) {
+            processClassPath(classPath, previous, current, pathSet);
+        }
+        if (indexFile != null && current.equals(previous) == false) {
+            writeIndex(indexFile, current);
+        }
+        return Collections.unmodifiableSet(pathSet);
+    }
+
+    private static void processClassPath(String classPath, Map<String, IndexedJar> previous, Map<String, IndexedJar> current, Set<String> pathSet) {
+        if (classPath == null)
+            return;
+
+        for (String item : classPath.split(File.pathSeparator)) {
+            if (item.length() == 0 || current.containsKey(item))
+                continue;
+
+            File file = new File(item);
+            if (file.isDirectory()) {
+                processDirectory0(pathSet, file);
+            } else if (file.isFile()) {
+                IndexedJar entry = previous.get(item);
+                if (entry == null || entry.lastModified != file.lastModified() || entry.length != file.length()) {
+                    entry = new IndexedJar(file.lastModified(), file.length(), processJar(file));
+                }
+                current.put(item, entry);
+                pathSet.addAll(entry.paths);
+            }
+        }
+    }
+
+    private static Set<String> processJar(File file) {
+        Set<String> pathSet = new HashSet<String>();
+        try {
+            ZipFile zipFile = new ZipFile(file);
+            try {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    String name = entry.getName();
+                    int lastSlash = name.lastIndexOf('/');
+                    if (lastSlash != -1) {
+                        pathSet.add(name.substring(0, lastSlash));
                     }
                 }
+            } finally {
+                zipFile.close();
             }
-            s = e + 1;
-        } while (e != -1);
+        } catch (IOException ex) {
+            // ignore
+        }
+        return pathSet;
     }
 
     private static void processDirectory0(final Set<String> pathSet, final File file) {
@@ -115,4 +169,104 @@ final class JDKPaths {
             }
         }
     }
+
+    // Every line holds the jar file, modification time, size and the comma separated paths, separated by tabs
+    private static Map<String, IndexedJar> readIndex(File indexFile) {
+        Map<String, IndexedJar> result = new HashMap<String, IndexedJar>();
+        if (indexFile.isFile() == false)
+            return result;
+
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), INDEX_ENCODING));
+            try {
+                if (INDEX_HEADER.equals(reader.readLine()) == false)
+                    return result;
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split("\t", -1);
+                    if (parts.length != 4)
+                        return new HashMap<String, IndexedJar>();
+
+                    Set<String> paths = new HashSet<String>();
+                    for (String path : parts[3].split(",")) {
+                        if (path.length() > 0) {
+                            paths.add(path);
+                        }
+                    }
+                    result.put(parts[0], new IndexedJar(Long.parseLong(parts[1]), Long.parseLong(parts[2]), paths));
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException ex) {
+            LOGGER.debugf("Cannot read JDK paths index: %s", indexFile);
+            result.clear();
+        } catch (NumberFormatException ex) {
+            LOGGER.debugf("Invalid JDK paths index: %s", indexFile);
+            result.clear();
+        }
+        return result;
+    }
+
+    // The index is written to a temporary file that replaces the previous index when complete
+    private static void writeIndex(File indexFile, Map<String, IndexedJar> entries) {
+        File tmpFile = new File(indexFile.getPath() + ".tmp");
+        try {
+            indexFile.getAbsoluteFile().getParentFile().mkdirs();
+            Writer writer = new OutputStreamWriter(new FileOutputStream(tmpFile), INDEX_ENCODING);
+            try {
+                writer.write(INDEX_HEADER + "\n");
+                for (Map.Entry<String, IndexedJar> entry : entries.entrySet()) {
+                    IndexedJar indexedJar = entry.getValue();
+                    StringBuilder line = new StringBuilder(entry.getKey());
+                    line.append('\t').append(indexedJar.lastModified);
+                    line.append('\t').append(indexedJar.length).append('\t');
+                    boolean first = true;
+                    for (String path : indexedJar.paths) {
+                        if (first == false)
+                            line.append(',');
+                        line.append(path);
+                        first = false;
+                    }
+                    writer.write(line.append('\n').toString());
+                }
+            } finally {
+                writer.close();
+            }
+            indexFile.delete();
+            if (tmpFile.renameTo(indexFile) == false) {
+                tmpFile.delete();
+            }
+        } catch (IOException ex) {
+            LOGGER.debugf("Cannot write JDK paths index: %s", indexFile);
+            tmpFile.delete();
+        }
+    }
+
+    private static final class IndexedJar {
+
+        private final long lastModified;
+        private final long length;
+        private final Set<String> paths;
+
+        IndexedJar(long lastModified, long length, Set<String> paths) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.paths = paths;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof IndexedJar == false)
+                return false;
+            IndexedJar other = (IndexedJar) obj;
+            return lastModified == other.lastModified && length == other.length && paths.equals(other.paths);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lastModified ^ length);
+        }
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.osgi.framework.FrameworkMetrics.LatencyStatistics;
+
+/**
+ * A log-linear latency histogram in the spirit of HdrHistogram.
+ *
+ * Values are recorded in nanoseconds into buckets that cover each power of two with
+ * {@link #SUB_BUCKETS} linear sub buckets, which bounds the relative error of a percentile to 12.5%.
+ * Like the {@link MetricsCounter} each thread updates its own stripe of buckets, the stripes are summed on read.
+ * A disabled histogram ignores all updates.
+ *
+ * @since 19-Oct-2026
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    // The buckets of a stripe are followed by a cache line of padding
+    private static final int STRIPE_LENGTH = BUCKET_COUNT + 8;
+
+    private final boolean enabled;
+    private final AtomicLongArray buckets;
+    private final MetricsCounter count;
+    private final MetricsCounter total;
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram(boolean enabled) {
+        this.enabled = enabled;
+        this.buckets = enabled ? new AtomicLongArray(MetricsCounter.STRIPES * STRIPE_LENGTH) : null;
+        this.count = new MetricsCounter(enabled);
+        this.total = new MetricsCounter(enabled);
+    }
+
+    /**
+     * Get the start time of a measurement or zero if the histogram is disabled
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the time elapsed since the given start time
+     */
+    void stop(long startTime) {
+        if (enabled) {
+            record(System.nanoTime() - startTime);
+        }
+    }
+
+    void record(long nanos) {
+        if (enabled) {
+            long value = Math.max(0, nanos);
+            buckets.getAndIncrement(MetricsCounter.stripe() * STRIPE_LENGTH + bucketIndex(value));
+            count.increment();
+            total.add(value);
+            long current = max.get();
+            while (value > current && max.compareAndSet(current, value) == false) {
+                current = max.get();
+            }
+        }
+    }
+
+    void reset() {
+        if (enabled) {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            total.reset();
+            max.set(0);
+        }
+    }
+
+    LatencyStatistics getStatistics() {
+        long[] counts = new long[BUCKET_COUNT];
+        long recorded = 0;
+        if (enabled) {
+            for (int stripe = 0; stripe < MetricsCounter.STRIPES; stripe++) {
+                int offset = stripe * STRIPE_LENGTH;
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    counts[i] += buckets.get(offset + i);
+                }
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                recorded += counts[i];
+            }
+        }
+        long min = 0;
+        for (int i = 0; i < BUCKET_COUNT && recorded > 0; i++) {
+            if (counts[i] > 0) {
+                min = bucketLowerBound(i);
+                break;
+            }
+        }
+        long mean = recorded > 0 ? total.sum() / recorded : 0;
+        long p50 = percentile(counts, recorded, 0.50);
+        long p90 = percentile(counts, recorded, 0.90);
+        long p99 = percentile(counts, recorded, 0.99);
+        return new Statistics(recorded, min, max.get(), mean, p50, p90, p99);
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exp - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int exp = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exp - SUB_BUCKET_BITS);
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int exp = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return bucketLowerBound(index) + (1L << (exp - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static long percentile(long[] counts, long recorded, double fraction) {
+        if (recorded == 0)
+            return 0;
+        long threshold = (long) Math.ceil(recorded * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= threshold)
+                return bucketUpperBound(i);
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+
+    static final class Statistics implements LatencyStatistics {
+
+        private final long count;
+        private final long min;
+        private final long max;
+        private final long mean;
+        private final long median;
+        private final long p90;
+        private final long p99;
+
+        Statistics(long count, long min, long max, long mean, long median, long p90, long p99) {
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.median = median;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public long getMin() {
+            return min;
+        }
+
+        @Override
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public long getMean() {
+            return mean;
+        }
+
+        @Override
+        public long getMedian() {
+            return median;
+        }
+
+        @Override
+        public long get90thPercentile() {
+            return p90;
+        }
+
+        @Override
+        public long get99thPercentile() {
+            return p99;
+        }
+
+        @Override
+        public String toString() {
+            return "[count=" + count + ",min=" + min + ",max=" + max + ",mean=" + mean + ",median=" + median + ",p90=" + p90 + ",p99=" + p99 + "]";
+        }
+    }
+}
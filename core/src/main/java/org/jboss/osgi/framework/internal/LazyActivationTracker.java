@@ -23,26 +23,35 @@ package org.jboss.osgi.framework.internal;
 
 import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
 
-import java.util.Stack;
+import java.util.Arrays;
 
 /**
  * A {@link ThreadLocal} of bundles that need to get started caused by lazy activation.
- * 
+ *
+ * Every thread reuses its {@link ActivationStack}, so tracking a defined class does not allocate.
+ *
  * @author thomas.diesler@jboss.com
  * @since 02-May-2011
  */
 final class LazyActivationTracker {
 
-    private final static ThreadLocal<Stack<HostBundleState>> stackAssociation = new ThreadLocal<Stack<HostBundleState>>();
-    private final static ThreadLocal<HostBundleState> initiatorAssociation = new ThreadLocal<HostBundleState>();
+    private final static ThreadLocal<ActivationStack> stackAssociation = new ThreadLocal<ActivationStack>() {
+        @Override
+        protected ActivationStack initialValue() {
+            return new ActivationStack();
+        }
+    };
 
     static void startTracking(HostBundleState hostBundle, String className) {
         LOGGER.tracef("startTracking %s from: %s", className, hostBundle);
-        initiatorAssociation.set(hostBundle);
+        ActivationStack stack = stackAssociation.get();
+        if (stack.tracking++ == 0) {
+            stack.initiator = hostBundle;
+        }
     }
 
     static void processLoadedClass(Class<?> loadedClass) {
-        assert initiatorAssociation.get() != null : "No activation initiator";
+        assert stackAssociation.get().initiator != null : "No activation initiator";
         LOGGER.tracef("processLoadedClass: %s", loadedClass.getName());
         processActivationStack();
     }
@@ -54,24 +63,25 @@ final class LazyActivationTracker {
 
     static void postDefineClass(HostBundleState hostBundle, Class<?> definedClass) {
         LOGGER.tracef("postDefineClass %s from: %s", definedClass.getName(), hostBundle);
-        if (initiatorAssociation.get() == null) {
+        if (stackAssociation.get().initiator == null) {
             processActivationStack();
         }
     }
 
     static void stopTracking(HostBundleState hostBundle, String className) {
         LOGGER.tracef("stopTracking %s from: %s", className, hostBundle);
-        initiatorAssociation.remove();
-        stackAssociation.remove();
+
+        // Nested class loads during lazy activation must not discard the initiator or the bundles of the outer load
+        ActivationStack stack = stackAssociation.get();
+        if (--stack.tracking == 0) {
+            stack.initiator = null;
+            stack.clear();
+        }
     }
 
     private static void addDefinedClass(HostBundleState hostBundle, String className) {
         if (hostBundle.awaitLazyActivation() && hostBundle.isAlreadyStarting() == false) {
-            Stack<HostBundleState> stack = stackAssociation.get();
-            if (stack == null) {
-                stack = new Stack<HostBundleState>();
-                stackAssociation.set(stack);
-            }
+            ActivationStack stack = stackAssociation.get();
             if (stack.contains(hostBundle) == false) {
                 LOGGER.tracef("addDefinedClass %s from: %s", className, hostBundle);
                 stack.push(hostBundle);
@@ -80,8 +90,8 @@ final class LazyActivationTracker {
     }
 
     private static void processActivationStack() {
-        Stack<HostBundleState> stack = stackAssociation.get();
-        if (stack != null) {
+        ActivationStack stack = stackAssociation.get();
+        if (stack.isEmpty() == false) {
             LOGGER.tracef("processActivationStack: %s", stack);
             while (stack.isEmpty() == false) {
                 HostBundleState hostBundle = stack.pop();
@@ -95,4 +105,50 @@ final class LazyActivationTracker {
             }
         }
     }
+
+    // An unsynchronized stack that is confined to a single thread. It only grows when more bundles
+    // await activation at the same time than ever before on this thread.
+    private static final class ActivationStack {
+
+        private HostBundleState[] elements = new HostBundleState[4];
+        private int size;
+        // The number of nested class loads that are tracked
+        private int tracking;
+        // The bundle that initiated the outermost tracked class load
+        private HostBundleState initiator;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean contains(HostBundleState hostBundle) {
+            for (int i = 0; i < size; i++) {
+                if (elements[i] == hostBundle)
+                    return true;
+            }
+            return false;
+        }
+
+        void push(HostBundleState hostBundle) {
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, 2 * size);
+            elements[size++] = hostBundle;
+        }
+
+        HostBundleState pop() {
+            HostBundleState hostBundle = elements[--size];
+            elements[size] = null;
+            return hostBundle;
+        }
+
+        void clear() {
+            Arrays.fill(elements, 0, size, null);
+            size = 0;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.asList(elements).subList(0, size).toString();
+        }
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.jboss.osgi.metadata.ActivationPolicyMetaData;
+
+/**
+ * The set of packages that trigger lazy activation of a bundle.
+ *
+ * The included and excluded package names are precomputed into hash tables. A class name is matched
+ * against these tables without creating the package name, so the check does not allocate.
+ *
+ * @since 19-Oct-2026
+ */
+final class LazyPackageFilter {
+
+    private final PackageSet includes;
+    private final PackageSet excludes;
+
+    private LazyPackageFilter(PackageSet includes, PackageSet excludes) {
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    static LazyPackageFilter create(ActivationPolicyMetaData activationPolicy) {
+        // By default all packages are loaded lazily
+        if (activationPolicy == null)
+            return create(null, null);
+
+        return create(activationPolicy.getIncludes(), activationPolicy.getExcludes());
+    }
+
+    static LazyPackageFilter create(List<String> includes, List<String> excludes) {
+        // The set of packages on the exclude list determines the packages that can be loaded eagerly
+        PackageSet includeSet = (includes != null ? new PackageSet(includes) : null);
+        PackageSet excludeSet = (excludes != null ? new PackageSet(excludes) : null);
+        return new LazyPackageFilter(includeSet, excludeSet);
+    }
+
+    /**
+     * True if loading the given class triggers lazy activation
+     */
+    boolean acceptClass(String className) {
+        int length = Math.max(0, className.lastIndexOf('.'));
+        return accept(className, length);
+    }
+
+    /**
+     * True if loading a class from the given package triggers lazy activation
+     */
+    boolean acceptPackage(String packageName) {
+        return accept(packageName, packageName.length());
+    }
+
+    private boolean accept(String name, int length) {
+        if (includes != null && includes.contains(name, length) == false)
+            return false;
+        if (excludes != null && excludes.contains(name, length) == true)
+            return false;
+        return true;
+    }
+
+    // An open addressing hash set of package names that can be probed with the prefix of a string
+    private static final class PackageSet {
+
+        private final String[] table;
+
+        PackageSet(Collection<String> packageNames) {
+            int capacity = 2;
+            while (capacity < 2 * packageNames.size())
+                capacity <<= 1;
+
+            table = new String[capacity];
+            for (String packageName : packageNames) {
+                int index = prefixHash(packageName, packageName.length()) & (capacity - 1);
+                while (table[index] != null && table[index].equals(packageName) == false)
+                    index = (index + 1) & (capacity - 1);
+                table[index] = packageName;
+            }
+        }
+
+        boolean contains(String name, int length) {
+            int mask = table.length - 1;
+            int index = prefixHash(name, length) & mask;
+            String candidate;
+            while ((candidate = table[index]) != null) {
+                if (candidate.length() == length && name.regionMatches(0, candidate, 0, length))
+                    return true;
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        // The same hash as String.hashCode() for the first length characters
+        private static int prefixHash(String name, int length) {
+            int hash = 0;
+            for (int i = 0; i < length; i++)
+                hash = 31 * hash + name.charAt(i);
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
+import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.osgi.framework.BundleLifecycleTimings;
+import org.jboss.osgi.framework.Constants;
+import org.jboss.osgi.framework.Services;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * An implementation of the {@link BundleLifecycleTimings} service.
+ *
+ * @since 19-Oct-2026
+ */
+final class LifecycleTimingPlugin extends AbstractPluginService<LifecycleTimingPlugin> implements BundleLifecycleTimings {
+
+    /** The default start threshold in milliseconds */
+    static final int DEFAULT_START_THRESHOLD = 5000;
+
+    private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
+    private final InjectedValue<FrameworkEventsPlugin> injectedFrameworkEvents = new InjectedValue<FrameworkEventsPlugin>();
+    private final InjectedValue<SystemBundleState> injectedSystemBundle = new InjectedValue<SystemBundleState>();
+    private ServiceRegistration registration;
+    private long startThreshold;
+
+    static void addService(ServiceTarget serviceTarget) {
+        LifecycleTimingPlugin service = new LifecycleTimingPlugin();
+        ServiceBuilder<LifecycleTimingPlugin> builder = serviceTarget.addService(InternalServices.LIFECYCLE_TIMING_PLUGIN, service);
+        builder.addDependency(Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
+        builder.addDependency(InternalServices.FRAMEWORK_EVENTS_PLUGIN, FrameworkEventsPlugin.class, service.injectedFrameworkEvents);
+        builder.addDependency(Services.SYSTEM_BUNDLE, SystemBundleState.class, service.injectedSystemBundle);
+        builder.addDependency(Services.FRAMEWORK_CREATE);
+        builder.setInitialMode(Mode.ON_DEMAND);
+        builder.install();
+    }
+
+    private LifecycleTimingPlugin() {
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+        startThreshold = Math.max(0, bundleManager.getIntegerProperty(Constants.PROPERTY_BUNDLE_START_THRESHOLD, DEFAULT_START_THRESHOLD));
+        BundleContext systemContext = injectedSystemBundle.getValue().getBundleContext();
+        registration = systemContext.registerService(BundleLifecycleTimings.class.getName(), this, null);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        super.stop(context);
+        registration.unregister();
+        registration = null;
+    }
+
+    @Override
+    public LifecycleTimingPlugin getValue() {
+        return this;
+    }
+
+    @Override
+    public Timing getTiming(Bundle bundle) {
+        AbstractBundleState bundleState = AbstractBundleState.assertBundleState(bundle);
+        return bundleState instanceof HostBundleState ? ((HostBundleState) bundleState).getLifecycleTiming() : null;
+    }
+
+    @Override
+    public Map<Bundle, Timing> getTimings() {
+        Map<Bundle, Timing> result = new HashMap<Bundle, Timing>();
+        for (Bundle bundle : injectedBundleManager.getValue().getBundles()) {
+            if (bundle instanceof HostBundleState) {
+                result.put(bundle, ((HostBundleState) bundle).getLifecycleTiming());
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public long getStartThreshold() {
+        return startThreshold;
+    }
+
+    void bundleStarted(HostBundleState hostState) {
+        BundleLifecycleTiming timing = hostState.getLifecycleTiming();
+        LOGGER.debugf("Bundle start timing %s for: %s", timing, hostState);
+        long duration = TimeUnit.NANOSECONDS.toMillis(timing.getStartTime());
+        if (startThreshold > 0 && duration > startThreshold) {
+            LOGGER.warnBundleStartThresholdExceeded(duration, startThreshold, hostState);
+            FrameworkEventsPlugin eventsPlugin = injectedFrameworkEvents.getValue();
+            BundleException cause = MESSAGES.bundleStartThresholdExceeded(duration, startThreshold, hostState);
+            eventsPlugin.fireFrameworkEvent(hostState, FrameworkEvent.INFO, cause);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import java.util.Dictionary;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache of the localized manifest headers of a bundle revision by locale.
+ *
+ * The localized headers also depend on the default locale, which is used for a null locale and as fallback.
+ * Headers that were localized for another default locale are not returned.
+ * The cached headers are shared, callers must copy them before they are handed out.
+ *
+ * @since 19-Oct-2026
+ */
+final class LocalizedHeadersCache {
+
+    // The maximum number of cached locales
+    static final int MAX_LOCALES = 32;
+
+    // The key for the null locale, the empty locale is never cached
+    private static final String DEFAULT_LOCALE_KEY = "";
+
+    private final ConcurrentMap<String, LocalizedHeaders> cache = new ConcurrentHashMap<String, LocalizedHeaders>();
+
+    /**
+     * Get the cached headers for the given locale.
+     * @return The headers or null if the headers for the locale are not cached
+     */
+    Dictionary<String, String> get(String locale, Locale defaultLocale) {
+        LocalizedHeaders entry = cache.get(locale != null ? locale : DEFAULT_LOCALE_KEY);
+        return entry != null && entry.defaultLocale.equals(defaultLocale) ? entry.headers : null;
+    }
+
+    void put(String locale, Locale defaultLocale, Dictionary<String, String> headers) {
+        if (cache.size() >= MAX_LOCALES)
+            cache.clear();
+        cache.put(locale != null ? locale : DEFAULT_LOCALE_KEY, new LocalizedHeaders(defaultLocale, headers));
+    }
+
+    void clear() {
+        cache.clear();
+    }
+
+    private static final class LocalizedHeaders {
+        private final Locale defaultLocale;
+        private final Dictionary<String, String> headers;
+
+        LocalizedHeaders(Locale defaultLocale, Dictionary<String, String> headers) {
+            this.defaultLocale = defaultLocale;
+            this.headers = headers;
+        }
+    }
+}
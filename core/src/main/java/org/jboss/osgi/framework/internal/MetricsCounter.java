@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads concurrent updates over padded cells to avoid contention.
+ *
+ * A disabled counter ignores all updates.
+ *
+ * @since 19-Oct-2026
+ */
+final class MetricsCounter {
+
+    // Each cell occupies its own cache line
+    private static final int PADDING = 8;
+    static final int STRIPES = stripeCount();
+
+    private final boolean enabled;
+    private final AtomicLongArray cells;
+
+    MetricsCounter(boolean enabled) {
+        this.enabled = enabled;
+        this.cells = enabled ? new AtomicLongArray(STRIPES * PADDING) : null;
+    }
+
+    void increment() {
+        if (enabled) {
+            cells.getAndIncrement(index());
+        }
+    }
+
+    void add(long delta) {
+        if (enabled) {
+            cells.getAndAdd(index(), delta);
+        }
+    }
+
+    long sum() {
+        long result = 0;
+        if (enabled) {
+            for (int i = 0; i < STRIPES; i++) {
+                result += cells.get(i * PADDING);
+            }
+        }
+        return result;
+    }
+
+    void reset() {
+        if (enabled) {
+            for (int i = 0; i < STRIPES; i++) {
+                cells.set(i * PADDING, 0);
+            }
+        }
+    }
+
+    private static int index() {
+        return stripe() * PADDING;
+    }
+
+    /**
+     * Get the stripe that the current thread updates
+     */
+    static int stripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash >>> 16) & (STRIPES - 1);
+    }
+
+    private static int stripeCount() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while (stripes < 2 * cpus && stripes < 64) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(sum());
+    }
+}
@@ -56,7 +56,6 @@ import org.jboss.osgi.framework.ModuleLoaderProvider;
 import org.jboss.osgi.framework.Services;
 import org.jboss.osgi.framework.SystemPathsProvider;
 import org.jboss.osgi.framework.internal.NativeCodePlugin.BundleNativeLibraryProvider;
-import org.jboss.osgi.metadata.ActivationPolicyMetaData;
 import org.jboss.osgi.metadata.NativeLibrary;
 import org.jboss.osgi.metadata.NativeLibraryMetaData;
 import org.jboss.osgi.resolver.XBundleRequirement;
@@ -82,6 +81,7 @@ import org.osgi.resource.Wire;
 final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugin> {
 
     private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
+    private final InjectedValue<FrameworkMetricsPlugin> injectedMetrics = new InjectedValue<FrameworkMetricsPlugin>();
     private final InjectedValue<SystemPathsProvider> injectedSystemPaths = new InjectedValue<SystemPathsProvider>();
     private final InjectedValue<ModuleLoaderProvider> injectedModuleLoader = new InjectedValue<ModuleLoaderProvider>();
 
@@ -91,6 +91,7 @@ final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugi
         ModuleManagerPlugin service = new ModuleManagerPlugin();
         ServiceBuilder<ModuleManagerPlugin> builder = serviceTarget.addService(InternalServices.MODULE_MANGER_PLUGIN, service);
         builder.addDependency(Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
+        builder.addDependency(InternalServices.FRAMEWORK_METRICS_PLUGIN, FrameworkMetricsPlugin.class, service.injectedMetrics);
         builder.addDependency(IntegrationServices.MODULE_LOADER_PROVIDER, ModuleLoaderProvider.class, service.injectedModuleLoader);
         builder.addDependency(IntegrationServices.SYSTEM_PATHS_PROVIDER, SystemPathsProvider.class, service.injectedSystemPaths);
         builder.setInitialMode(Mode.ON_DEMAND);
@@ -105,6 +106,10 @@ final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugi
         return this;
     }
 
+    FrameworkMetricsPlugin getMetricsPlugin() {
+        return injectedMetrics.getValue();
+    }
+
     ModuleLoaderProvider getModuleLoaderIntegration() {
         return injectedModuleLoader.getValue();
     }
@@ -176,11 +181,39 @@ final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugi
         return result;
     }
 
-    ModuleIdentifier addModule(final XResource res, final List<Wire> wires) {
+    /**
+     * Create the {@link ModuleSpec} for the given resource.
+     *
+     * This builds the dependencies, the path filters and the resource loaders, but does not register anything.
+     * It can be called concurrently for different resources provided their module identifiers already exist.
+     *
+     * @return The module spec or null if the resource does not need a new module
+     */
+    ModuleSpec createModuleSpec(final XResource res, final List<Wire> wires) {
         assert res != null : "Null res";
         assert wires != null : "Null wires";
         assert !res.isFragment() : "Fragments cannot be added: " + res;
 
+        if (res.getAttachment(Module.class) != null)
+            return null;
+
+        XIdentityCapability icap = res.getIdentityCapability();
+        if (SYSTEM_BUNDLE_SYMBOLICNAME.equals(icap.getSymbolicName()))
+            return null;
+
+        HostBundleRevision hostRev = HostBundleRevision.assertHostRevision(res);
+        return createHostModuleSpec(hostRev, wires);
+    }
+
+    /**
+     * Register the module for the given resource with the module loader.
+     *
+     * @param moduleSpec The spec from {@link #createModuleSpec(XResource, List)}
+     */
+    ModuleIdentifier addModule(final XResource res, final ModuleSpec moduleSpec) {
+        assert res != null : "Null res";
+        assert !res.isFragment() : "Fragments cannot be added: " + res;
+
         Module module = res.getAttachment(Module.class);
         if (module != null) {
             getModuleLoaderIntegration().addModule(module);
@@ -192,8 +225,11 @@ final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugi
         if (SYSTEM_BUNDLE_SYMBOLICNAME.equals(icap.getSymbolicName())) {
             identifier = getFrameworkModule().getIdentifier();
         } else {
+            assert moduleSpec != null : "Null moduleSpec";
             HostBundleRevision hostRev = HostBundleRevision.assertHostRevision(res);
-            identifier = createHostModule(hostRev, wires);
+            identifier = moduleSpec.getModuleIdentifier();
+            modules.put(identifier, hostRev);
+            getModuleLoaderIntegration().addModule(moduleSpec);
         }
         return identifier;
     }
@@ -201,7 +237,7 @@ final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugi
     /**
      * Create a {@link ModuleSpec} from the given resolver module definition
      */
-    private ModuleIdentifier createHostModule(final HostBundleRevision hostRev, final List<Wire> wires) {
+    private ModuleSpec createHostModuleSpec(final HostBundleRevision hostRev, final List<Wire> wires) {
 
         HostBundleState hostBundle = hostRev.getBundleState();
         List<RevisionContent> contentRoots = hostBundle.getContentRoots();
@@ -287,16 +323,12 @@ final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugi
         // Native - Hack
         addNativeResourceLoader(hostRev, specBuilder);
 
-        PathFilter lazyActivationFilter = getLazyPackagesFilter(hostBundle);
+        LazyPackageFilter lazyActivationFilter = LazyPackageFilter.create(hostBundle.getActivationPolicy());
         specBuilder.setModuleClassLoaderFactory(new HostBundleClassLoader.Factory(hostBundle, lazyActivationFilter));
         specBuilder.setFallbackLoader(new FallbackLoader(hostRev, identifier, importedPaths));
 
         // Build the ModuleSpec
-        ModuleSpec moduleSpec = specBuilder.create();
-
-        modules.put(identifier, hostRev);
-        getModuleLoaderIntegration().addModule(moduleSpec);
-        return identifier;
+        return specBuilder.create();
     }
 
     private void processModuleWireList(List<Wire> wires, Map<XResource, ModuleDependencyHolder> depBuilderMap) {
@@ -413,41 +445,6 @@ final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugi
         return PathFilters.all(includeFilter, excludeFilter);
     }
 
-    /**
-     * Get a path filter for packages that trigger bundle activation for a host bundle with lazy ActivationPolicy
-     */
-    private PathFilter getLazyPackagesFilter(HostBundleState hostBundle) {
-
-        // By default all packages are loaded lazily
-        PathFilter result = PathFilters.acceptAll();
-
-        ActivationPolicyMetaData activationPolicy = hostBundle.getActivationPolicy();
-        if (activationPolicy != null) {
-            List<String> includes = activationPolicy.getIncludes();
-            if (includes != null) {
-                Set<String> paths = new HashSet<String>();
-                for (String packageName : includes)
-                    paths.add(packageName.replace('.', '/'));
-
-                result = PathFilters.in(paths);
-            }
-
-            List<String> excludes = activationPolicy.getExcludes();
-            if (excludes != null) {
-                // The set of packages on the exclude list determines the packages that can be loaded eagerly
-                Set<String> paths = new HashSet<String>();
-                for (String packageName : excludes)
-                    paths.add(packageName.replace('.', '/'));
-
-                if (includes != null)
-                    result = PathFilters.all(result, PathFilters.not(PathFilters.in(paths)));
-                else
-                    result = PathFilters.not(PathFilters.in(paths));
-            }
-        }
-        return result;
-    }
-
     private void addNativeResourceLoader(HostBundleRevision hostrev, ModuleSpec.Builder specBuilder) {
         Deployment deployment = hostrev.getDeployment();
         addNativeResourceLoader(specBuilder, hostrev, deployment);
@@ -502,8 +499,14 @@ final class ModuleManagerPlugin extends AbstractPluginService<ModuleManagerPlugi
     Module loadModule(ModuleIdentifier identifier) throws ModuleLoadException {
         if (getFrameworkModule().getIdentifier().equals(identifier))
             return getFrameworkModule();
-        else
+
+        LatencyHistogram moduleLoads = injectedMetrics.getValue().getModuleLoads();
+        long loadStart = moduleLoads.start();
+        try {
             return getModuleLoader().loadModule(identifier);
+        } finally {
+            moduleLoads.stop(loadStart);
+        }
     }
 
     /**
@@ -21,34 +21,43 @@
  */
 package org.jboss.osgi.framework.internal;
 
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
 import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.jboss.modules.ModuleLoadException;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.osgi.deployment.deployer.Deployment;
+import org.jboss.osgi.framework.StorageState;
 import org.jboss.osgi.metadata.NativeLibrary;
 import org.jboss.osgi.metadata.NativeLibraryMetaData;
 import org.jboss.osgi.metadata.OSGiMetaData;
 import org.jboss.osgi.metadata.Parameter;
 import org.jboss.osgi.metadata.ParameterizedAttribute;
 import org.jboss.osgi.metadata.VersionRange;
-import org.jboss.osgi.vfs.VFSUtils;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleException;
 import org.osgi.framework.Constants;
@@ -72,6 +81,9 @@ final class NativeCodePlugin extends AbstractPluginService<NativeCodePlugin> {
      */
     private static final String ABSPATH_VARIABLE = "${abspath}";
 
+    // The maximum number of bytes that are transferred from a stream at once
+    private static final long TRANSFER_CHUNK_SIZE = 1 << 20;
+
     /** Maps an alias to an OSGi processor name */
     private static Map<String, String> processorAlias = new HashMap<String, String>();
     static {
@@ -305,34 +317,46 @@ final class NativeCodePlugin extends AbstractPluginService<NativeCodePlugin> {
     }
 
     static class BundleNativeLibraryProvider implements NativeLibraryProvider {
+        // The class loaders that the cached library files are handed out to in this VM. The VM releases
+        // a library when its class loader is garbage collected, so the claims are only weakly held
+        private static final Map<String, WeakReference<ClassLoader>> claimedLibraries = new HashMap<String, WeakReference<ClassLoader>>();
+        private static final AtomicLong libraryCopies = new AtomicLong();
+
+        private final HostBundleRevision hostRev;
         private final HostBundleState hostBundle;
         private final String libname;
         private final String libpath;
         private final URL libURL;
+        private final String contentDigest;
         private File libraryFile;
 
         BundleNativeLibraryProvider(HostBundleRevision hostrev, String libname, String libpath) {
+            this.hostRev = hostrev;
             this.hostBundle = hostrev.getBundleState();
             this.libpath = libpath;
             this.libname = libname;
 
             // If a native code library in a selected native code clause cannot be found
             // within the bundle or its fragments then the bundle must fail to resolve
-            String path;
-            String filename;
-            int idx = libpath.lastIndexOf('/');
-            if (idx >= 0) {
-                path = libpath.substring(0, idx);
-                filename = libpath.substring(idx + 1);
-            } else {
-                path = "";
-                filename = libpath;
+            UserBundleRevision sourceRev = hostrev;
+            URL entry = hostrev.getEntry(libpath);
+            if (entry == null) {
+                for (FragmentBundleRevision fragrev : hostrev.getAttachedFragments()) {
+                    entry = fragrev.getEntry(libpath);
+                    if (entry != null) {
+                        sourceRev = fragrev;
+                        break;
+                    }
+                }
             }
-            Enumeration<URL> urls = hostrev.findResolvedEntries(path, filename, false);
-            if (urls == null || urls.hasMoreElements() == false)
+            if (entry == null)
                 throw MESSAGES.illegalStateCannotFindNativeLibrary(libpath);
 
-            this.libURL = urls.nextElement();
+            this.libURL = entry;
+
+            // The digest of the bundle content that contains the library
+            StorageState storageState = sourceRev.getDeployment().getAttachment(StorageState.class);
+            this.contentDigest = (storageState != null ? storageState.getDigest() : null);
         }
 
         @Override
@@ -346,23 +370,121 @@ final class NativeCodePlugin extends AbstractPluginService<NativeCodePlugin> {
         }
 
         @Override
-        public File getLibraryLocation() throws IOException {
+        public synchronized File getLibraryLocation() throws IOException {
             if (libraryFile == null) {
-                // Create a unique local file location
-                libraryFile = getUniqueLibraryFile(hostBundle, libpath);
-                libraryFile.deleteOnExit();
+                BundleStoragePlugin storagePlugin = hostBundle.getFrameworkState().getBundleStoragePlugin();
+                if (contentDigest != null) {
+                    // Libraries are shared by digest, so they are only extracted when the content is new
+                    File cachedFile = storagePlugin.getNativeLibraryFile(contentDigest, libpath);
+                    if (cachedFile.isFile() == false) {
+                        cachedFile = extractLibrary(cachedFile);
+                    }
+                    // The VM loads a library path into one class loader only. The first provider uses the cached
+                    // file, every other provider for the same content gets its own copy
+                    if (claimLibrary(cachedFile)) {
+                        libraryFile = cachedFile;
+                    } else {
+                        String copyPath = "native-" + libraryCopies.incrementAndGet() + File.separator + libpath;
+                        File copyFile = storagePlugin.getDataFile(hostBundle.getBundleId(), copyPath);
+                        copyFile.deleteOnExit();
+                        copyLibrary(copyFile);
+                        handleExecPermission(copyFile);
+                        libraryFile = copyFile;
+                    }
+                } else {
+                    // Content without a digest is extracted to a unique local file location
+                    File dataFile = storagePlugin.getDataFile(hostBundle.getBundleId(), libpath);
+                    dataFile.deleteOnExit();
+                    copyLibrary(dataFile);
+                    handleExecPermission(dataFile);
+                    libraryFile = dataFile;
+                }
+            }
+            return libraryFile;
+        }
+
+        private boolean claimLibrary(File cachedFile) {
+            // Without a class loader the library is not shared
+            ClassLoader classLoader;
+            try {
+                classLoader = hostRev.getModuleClassLoader();
+            } catch (ModuleLoadException ex) {
+                return false;
+            }
+            String path = cachedFile.getAbsolutePath();
+            synchronized (claimedLibraries) {
+                WeakReference<ClassLoader> claim = claimedLibraries.get(path);
+                ClassLoader owner = (claim != null ? claim.get() : null);
+                if (owner == classLoader)
+                    return true;
+                if (owner != null)
+                    return false;
+
+                // Drop the claims of class loaders that have been collected
+                Iterator<WeakReference<ClassLoader>> iterator = claimedLibraries.values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().get() == null) {
+                        iterator.remove();
+                    }
+                }
+                claimedLibraries.put(path, new WeakReference<ClassLoader>(classLoader));
+                return true;
+            }
+        }
 
-                // Copy the native library to the bundle storage area
-                FileOutputStream fos = new FileOutputStream(libraryFile);
-                VFSUtils.copyStream(libURL.openStream(), fos);
-                fos.close();
+        // Write the library next to the cached file and move it in place when it is complete,
+        // so that a partially written library is never used
+        private File extractLibrary(File cachedFile) throws IOException {
+            File tmpFile = File.createTempFile(cachedFile.getName(), ".tmp", cachedFile.getParentFile());
+            try {
+                copyLibrary(tmpFile);
+                handleExecPermission(tmpFile);
+            } catch (IOException ex) {
+                tmpFile.delete();
+                throw ex;
+            }
+            if (tmpFile.renameTo(cachedFile) == false && tmpFile.renameTo(cachedFile) == false) {
+                tmpFile.delete();
+                if (cachedFile.isFile() == false)
+                    throw MESSAGES.ioCannotMoveNativeLibrary(cachedFile);
 
-                handleExecPermission();
+                // Another framework extracted the library concurrently
+            }
+            LOGGER.debugf("Extracted native library: %s", cachedFile);
+            return cachedFile;
+        }
+
+        // Copy the library through file channels, which avoids a copy to user space when the content is a file
+        private void copyLibrary(File targetFile) throws IOException {
+            InputStream input = libURL.openStream();
+            try {
+                FileOutputStream output = new FileOutputStream(targetFile);
+                try {
+                    FileChannel outChannel = output.getChannel();
+                    if (input instanceof FileInputStream) {
+                        FileChannel inChannel = ((FileInputStream) input).getChannel();
+                        long size = inChannel.size();
+                        long position = 0;
+                        while (position < size) {
+                            position += inChannel.transferTo(position, size - position, outChannel);
+                        }
+                    } else {
+                        ReadableByteChannel inChannel = Channels.newChannel(input);
+                        long position = 0;
+                        long count;
+                        while ((count = outChannel.transferFrom(inChannel, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                            position += count;
+                        }
+                    }
+                } finally {
+                    output.close();
+                }
+            } finally {
+                input.close();
             }
-            return libraryFile;
         }
 
-        private void handleExecPermission() throws IOException {
+        private void handleExecPermission(File file) throws IOException {
             String epProp = hostBundle.getBundleContext().getProperty(Constants.FRAMEWORK_EXECPERMISSION);
             if (epProp == null)
                 return;
@@ -370,7 +492,7 @@ final class NativeCodePlugin extends AbstractPluginService<NativeCodePlugin> {
             StringBuilder command = new StringBuilder(epProp);
             int idx = command.indexOf(ABSPATH_VARIABLE);
             if (idx >= 0) {
-                command.replace(idx, idx + ABSPATH_VARIABLE.length(), libraryFile.getAbsolutePath());
+                command.replace(idx, idx + ABSPATH_VARIABLE.length(), file.getAbsolutePath());
             }
             Process process = Runtime.getRuntime().exec(command.toString());
             try {
@@ -379,10 +501,5 @@ final class NativeCodePlugin extends AbstractPluginService<NativeCodePlugin> {
                 // Move ahead when interrupted
             }
         }
-
-        private File getUniqueLibraryFile(final UserBundleState userBundle, final String libpath) {
-            BundleStoragePlugin storagePlugin = userBundle.getFrameworkState().getBundleStoragePlugin();
-            return storagePlugin.getDataFile(userBundle.getBundleId(), libpath);
-        }
     }
-}
\ No newline at end of file
+}
@@ -21,8 +21,6 @@
  */
 package org.jboss.osgi.framework.internal;
 
-import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
-
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -58,12 +56,10 @@ import org.osgi.framework.namespace.PackageNamespace;
 import org.osgi.framework.wiring.BundleRevision;
 import org.osgi.framework.wiring.BundleWiring;
 import org.osgi.resource.Capability;
-import org.osgi.resource.Resource;
 import org.osgi.resource.Wire;
 import org.osgi.service.packageadmin.ExportedPackage;
 import org.osgi.service.packageadmin.PackageAdmin;
 import org.osgi.service.packageadmin.RequiredBundle;
-import org.osgi.service.resolver.ResolutionException;
 
 /**
  * An implementation of the {@link PackageAdmin} service.
@@ -78,7 +74,6 @@ public final class PackageAdminPlugin extends AbstractExecutorService<PackageAdm
     private final InjectedValue<FrameworkEventsPlugin> injectedFrameworkEvents = new InjectedValue<FrameworkEventsPlugin>();
     private final InjectedValue<BundleContext> injectedSystemContext = new InjectedValue<BundleContext>();
     private final InjectedValue<ModuleManagerPlugin> injectedModuleManager = new InjectedValue<ModuleManagerPlugin>();
-    private final InjectedValue<ResolverPlugin> injectedResolver = new InjectedValue<ResolverPlugin>();
     private ServiceRegistration registration;
 
     static void addService(ServiceTarget serviceTarget) {
@@ -88,7 +83,6 @@ public final class PackageAdminPlugin extends AbstractExecutorService<PackageAdm
         builder.addDependency(InternalServices.FRAMEWORK_EVENTS_PLUGIN, FrameworkEventsPlugin.class, service.injectedFrameworkEvents);
         builder.addDependency(InternalServices.MODULE_MANGER_PLUGIN, ModuleManagerPlugin.class, service.injectedModuleManager);
         builder.addDependency(Services.SYSTEM_CONTEXT, BundleContext.class, service.injectedSystemContext);
-        builder.addDependency(InternalServices.RESOLVER_PLUGIN, ResolverPlugin.class, service.injectedResolver);
         builder.addDependency(Services.FRAMEWORK_CREATE);
         builder.setInitialMode(Mode.ON_DEMAND);
         builder.install();
@@ -354,33 +348,10 @@ public final class PackageAdminPlugin extends AbstractExecutorService<PackageAdm
     public boolean resolveBundles(Bundle[] bundles) {
         // Only bundles that are in state INSTALLED and are
         // registered with the resolver qualify as resolvable
-        ResolverPlugin resolverPlugin = injectedResolver.getValue();
         BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
-        if (bundles == null) {
-            Set<Bundle> bundleset = bundleManager.getBundles(Bundle.INSTALLED);
-            bundles = new Bundle[bundleset.size()];
-            bundleset.toArray(bundles);
-        }
-        Set<Resource> resolve = new LinkedHashSet<Resource>();
-        for (Bundle aux : bundles) {
-            AbstractBundleState bundleState = AbstractBundleState.assertBundleState(aux);
-            resolve.add(bundleState.getCurrentBundleRevision());
-        }
-
-        boolean result = true;
-        try {
-            resolverPlugin.resolveAndApply(resolve, null);
-            for (Resource aux : resolve) {
-                if (((AbstractBundleRevision) aux).isResolved() == false) {
-                    result = false;
-                    break;
-                }
-            }
-        } catch (ResolutionException ex) {
-            LOGGER.debugf(ex, "Cannot resolve: " + resolve);
-            result = false;
-        }
-        return result;
+        Collection<Bundle> resolve = bundles != null ? Arrays.asList(bundles) : null;
+        Set<Bundle> unresolved = bundleManager.resolveBundles(resolve);
+        return unresolved.isEmpty();
     }
 
     @Override
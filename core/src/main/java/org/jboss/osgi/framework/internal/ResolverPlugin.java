@@ -33,9 +33,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.modules.ModuleLoadException;
+import org.jboss.modules.ModuleSpec;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController.Mode;
 import org.jboss.msc.service.ServiceTarget;
@@ -44,6 +54,7 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.osgi.deployment.deployer.Deployment;
+import org.jboss.osgi.framework.Constants;
 import org.jboss.osgi.framework.Services;
 import org.jboss.osgi.metadata.NativeLibraryMetaData;
 import org.jboss.osgi.resolver.XCapability;
@@ -68,20 +79,28 @@ import org.osgi.service.resolver.ResolutionException;
 /**
  * The resolver plugin.
  *
+ * The module specs and class loaders of the resolved host bundles are created concurrently.
+ * The modules are registered and the bundles change to RESOLVED in the order of the wire map.
+ *
  * @author thomas.diesler@jboss.com
  * @since 15-Feb-2012
  */
-final class ResolverPlugin extends AbstractPluginService<ResolverPlugin> {
+final class ResolverPlugin extends AbstractExecutorService<ResolverPlugin> {
 
+    private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
+    private final InjectedValue<FrameworkMetricsPlugin> injectedMetrics = new InjectedValue<FrameworkMetricsPlugin>();
     private final InjectedValue<NativeCodePlugin> injectedNativeCode = new InjectedValue<NativeCodePlugin>();
     private final InjectedValue<ModuleManagerPlugin> injectedModuleManager = new InjectedValue<ModuleManagerPlugin>();
     private final InjectedValue<XEnvironment> injectedEnvironment = new InjectedValue<XEnvironment>();
     private XResolver resolver;
+    private int resolverThreads;
 
     static void addService(ServiceTarget serviceTarget) {
         ResolverPlugin service = new ResolverPlugin();
         ServiceBuilder<ResolverPlugin> builder = serviceTarget.addService(InternalServices.RESOLVER_PLUGIN, service);
+        builder.addDependency(Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
         builder.addDependency(Services.ENVIRONMENT, XEnvironment.class, service.injectedEnvironment);
+        builder.addDependency(InternalServices.FRAMEWORK_METRICS_PLUGIN, FrameworkMetricsPlugin.class, service.injectedMetrics);
         builder.addDependency(InternalServices.NATIVE_CODE_PLUGIN, NativeCodePlugin.class, service.injectedNativeCode);
         builder.addDependency(InternalServices.MODULE_MANGER_PLUGIN, ModuleManagerPlugin.class, service.injectedModuleManager);
         builder.setInitialMode(Mode.ON_DEMAND);
@@ -108,12 +127,38 @@ final class ResolverPlugin extends AbstractPluginService<ResolverPlugin> {
         return this;
     }
 
+    @Override
+    ExecutorService createExecutorService() {
+        BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+        int defaultThreads = Runtime.getRuntime().availableProcessors();
+        resolverThreads = Math.max(1, bundleManager.getIntegerProperty(Constants.PROPERTY_RESOLVER_THREADS, defaultThreads));
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable run) {
+                Thread thread = new Thread(run);
+                thread.setName("OSGi Resolver Thread-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(resolverThreads, resolverThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     Map<Resource, List<Wire>> resolve(final Collection<? extends Resource> mandatory, final Collection<? extends Resource> optional) throws ResolutionException {
         XEnvironment env = injectedEnvironment.getValue();
         Collection<Resource> manres = filterSingletons(mandatory);
         Collection<Resource> optres = appendOptionalFragments(mandatory, optional);
         XResolveContext context = resolver.createResolverContext(env, manres, optres);
-        return resolver.resolve(context);
+        LatencyHistogram resolves = injectedMetrics.getValue().getResolverResolves();
+        long resolveStart = resolves.start();
+        try {
+            return resolver.resolve(context);
+        } finally {
+            resolves.stop(resolveStart);
+        }
     }
 
     synchronized void resolveAndApply(Collection<? extends Resource> mandatory, Collection<? extends Resource> optional) throws ResolutionException {
@@ -127,10 +172,14 @@ final class ResolverPlugin extends AbstractPluginService<ResolverPlugin> {
     private Collection<Resource> appendOptionalFragments(Collection<? extends Resource> mandatory, Collection<? extends Resource> optional) {
         Collection<Capability> hostcaps = getHostCapabilities(mandatory);
         Collection<Resource> result = new HashSet<Resource>();
+        if (optional != null) {
+            hostcaps.addAll(getHostCapabilities(optional));
+            result.addAll(optional);
+        }
         if (hostcaps.isEmpty() == false) {
-            result.addAll(optional != null ? optional : Collections.<Resource>emptySet());
             result.addAll(findAttachableFragments(hostcaps));
         }
+        result.removeAll(mandatory);
         return result;
     }
 
@@ -245,29 +294,121 @@ final class ResolverPlugin extends AbstractPluginService<ResolverPlugin> {
     }
 
     private void addModules(Map<Resource, List<Wire>> wiremap) {
-        ModuleManagerPlugin moduleManager = injectedModuleManager.getValue();
+        final ModuleManagerPlugin moduleManager = injectedModuleManager.getValue();
+
+        // Assign the module identifiers up front, the spec tasks only read them
+        List<XResource> hosts = new ArrayList<XResource>();
         for (Map.Entry<Resource, List<Wire>> entry : wiremap.entrySet()) {
             XResource res = (XResource) entry.getKey();
             if (res.isFragment() == false) {
-                List<Wire> wires = wiremap.get(res);
-                moduleManager.addModule(res, wires);
+                moduleManager.getModuleIdentifier(res);
+                hosts.add(res);
             }
+            for (Wire wire : entry.getValue()) {
+                XResource provider = (XResource) wire.getProvider();
+                if (provider.isFragment() == false) {
+                    moduleManager.getModuleIdentifier(provider);
+                }
+            }
+        }
+
+        // Build the module specs concurrently, this creates the resource loaders that scan the bundle content
+        List<ResolverTask<ModuleSpec>> tasks = new ArrayList<ResolverTask<ModuleSpec>>();
+        for (final XResource res : hosts) {
+            final List<Wire> wires = wiremap.get(res);
+            tasks.add(new ResolverTask<ModuleSpec>() {
+                @Override
+                public ModuleSpec call() {
+                    return moduleManager.createModuleSpec(res, wires);
+                }
+            });
+        }
+        List<ModuleSpec> specs = invokeAll(tasks);
+
+        // Register the modules in the order of the wire map
+        for (int i = 0; i < hosts.size(); i++) {
+            moduleManager.addModule(hosts.get(i), specs.get(i));
         }
     }
 
     private void loadModules(Map<Resource, List<Wire>> wiremap) {
-        ModuleManagerPlugin moduleManager = injectedModuleManager.getValue();
+        final ModuleManagerPlugin moduleManager = injectedModuleManager.getValue();
+        List<ResolverTask<Void>> tasks = new ArrayList<ResolverTask<Void>>();
         for (Map.Entry<Resource, List<Wire>> entry : wiremap.entrySet()) {
-            XResource res = (XResource) entry.getKey();
+            final XResource res = (XResource) entry.getKey();
             if (res.isFragment() == false) {
-                ModuleIdentifier identifier = moduleManager.getModuleIdentifier(res);
+                tasks.add(new ResolverTask<Void>() {
+                    @Override
+                    public Void call() {
+                        ModuleIdentifier identifier = moduleManager.getModuleIdentifier(res);
+                        try {
+                            long loadStart = System.nanoTime();
+                            moduleManager.loadModule(identifier);
+                            if (res instanceof HostBundleRevision) {
+                                HostBundleState hostState = ((HostBundleRevision) res).getBundleState();
+                                hostState.getLifecycleTiming().setClassLoaderCreationTime(System.nanoTime() - loadStart);
+                            }
+                        } catch (ModuleLoadException ex) {
+                            throw FrameworkMessages.MESSAGES.illegalStateCannotLoadModule(ex, identifier);
+                        }
+                        return null;
+                    }
+                });
+            }
+        }
+        invokeAll(tasks);
+    }
+
+    /**
+     * Run the given tasks and return their results in task order.
+     *
+     * Every task completes before this returns. The failure of the first failed task in task order is rethrown.
+     */
+    private <T> List<T> invokeAll(List<ResolverTask<T>> tasks) {
+        List<T> results = new ArrayList<T>(tasks.size());
+        if (resolverThreads < 2 || tasks.size() < 2) {
+            for (ResolverTask<T> task : tasks) {
+                results.add(task.call());
+            }
+            return results;
+        }
+
+        List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+        for (ResolverTask<T> task : tasks) {
+            futures.add(getExecutorService().submit(task));
+        }
+
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (Future<T> future : futures) {
+            T result = null;
+            boolean done = false;
+            while (done == false) {
                 try {
-                    moduleManager.loadModule(identifier);
-                } catch (ModuleLoadException ex) {
-                    throw FrameworkMessages.MESSAGES.illegalStateCannotLoadModule(ex, identifier);
+                    result = future.get();
+                    done = true;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    if (failure == null) {
+                        failure = ex.getCause();
+                    }
+                    done = true;
                 }
             }
+            results.add(result);
         }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        // A task does not throw checked exceptions
+        if (failure instanceof Error)
+            throw (Error) failure;
+        if (failure != null)
+            throw (RuntimeException) failure;
+
+        return results;
     }
 
     private void setBundleToResolved(Map<Resource, List<Wire>> wiremap) {
@@ -278,4 +419,10 @@ final class ResolverPlugin extends AbstractPluginService<ResolverPlugin> {
             }
         }
     }
-}
\ No newline at end of file
+
+    private abstract static class ResolverTask<T> implements Callable<T> {
+
+        @Override
+        public abstract T call();
+    }
+}
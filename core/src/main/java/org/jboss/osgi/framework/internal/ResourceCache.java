@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import java.net.URL;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A size bounded cache of resource URLs by path.
+ *
+ * Paths that could not be found are cached as well. Reads do not lock. When the cache is full,
+ * arbitrary entries are evicted before a new path is added, so the bound is approximate under concurrent updates.
+ * A cache with a maximum size of zero does not cache anything.
+ *
+ * @since 19-Oct-2026
+ */
+final class ResourceCache {
+
+    /** The cached result for a path that could not be found */
+    static final Object NOT_FOUND = new Object();
+
+    private final int maxSize;
+    private final ConcurrentMap<String, Object> cache;
+
+    ResourceCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = maxSize > 0 ? new ConcurrentHashMap<String, Object>() : null;
+    }
+
+    /**
+     * Get the cached result for the given path.
+     * @return The cached URL, {@link #NOT_FOUND} if the path could not be found or null if the path is not cached
+     */
+    Object get(String path) {
+        return cache != null ? cache.get(path) : null;
+    }
+
+    void put(String path, URL url) {
+        if (cache != null) {
+            if (cache.size() >= maxSize && cache.containsKey(path) == false) {
+                evict();
+            }
+            cache.put(path, url != null ? url : NOT_FOUND);
+        }
+    }
+
+    void clear() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    int size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    private void evict() {
+        Iterator<String> iterator = cache.keySet().iterator();
+        while (cache.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.osgi.framework.Constants;
+import org.jboss.osgi.framework.Services;
+import org.jboss.osgi.framework.StorageState;
+import org.jboss.osgi.resolver.XEnvironment;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.wiring.BundleWiring;
+import org.osgi.resource.Resource;
+import org.osgi.resource.Wire;
+
+/**
+ * A plugin that reclaims bundle revisions which were replaced by an update and are no longer wired.
+ *
+ * A revision is live if it is the current revision of an installed bundle, if it provides a capability
+ * to a live revision, if a live revision loaded from it through a dynamic import or if it is a fragment
+ * attached to a live host. All other revisions are uninstalled
+ * from the environment, their modules are removed, their content is closed and their storage file is deleted.
+ * Uninstalled bundles that have no live revision left are removed.
+ *
+ * @since 19-Oct-2026
+ */
+final class RevisionManagerPlugin extends AbstractExecutorService<RevisionManagerPlugin> {
+
+    /** The default reclaim delay in milliseconds */
+    static final int DEFAULT_RECLAIM_DELAY = 1000;
+
+    private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
+    private final InjectedValue<BundleStoragePlugin> injectedBundleStorage = new InjectedValue<BundleStoragePlugin>();
+    private final InjectedValue<XEnvironment> injectedEnvironment = new InjectedValue<XEnvironment>();
+    private final InjectedValue<ModuleManagerPlugin> injectedModuleManager = new InjectedValue<ModuleManagerPlugin>();
+    private final InjectedValue<ResolverPlugin> injectedResolver = new InjectedValue<ResolverPlugin>();
+    private final InjectedValue<ServiceManagerPlugin> injectedServiceManager = new InjectedValue<ServiceManagerPlugin>();
+    private final AtomicBoolean reclaimScheduled = new AtomicBoolean();
+    private int reclaimDelay;
+
+    static void addService(ServiceTarget serviceTarget) {
+        RevisionManagerPlugin service = new RevisionManagerPlugin();
+        ServiceBuilder<RevisionManagerPlugin> builder = serviceTarget.addService(InternalServices.REVISION_MANAGER_PLUGIN, service);
+        builder.addDependency(Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
+        builder.addDependency(InternalServices.BUNDLE_STORAGE_PLUGIN, BundleStoragePlugin.class, service.injectedBundleStorage);
+        builder.addDependency(Services.ENVIRONMENT, XEnvironment.class, service.injectedEnvironment);
+        builder.addDependency(InternalServices.MODULE_MANGER_PLUGIN, ModuleManagerPlugin.class, service.injectedModuleManager);
+        builder.addDependency(InternalServices.RESOLVER_PLUGIN, ResolverPlugin.class, service.injectedResolver);
+        builder.addDependency(InternalServices.SERVICE_MANAGER_PLUGIN, ServiceManagerPlugin.class, service.injectedServiceManager);
+        builder.setInitialMode(Mode.ON_DEMAND);
+        builder.install();
+    }
+
+    private RevisionManagerPlugin() {
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+        reclaimDelay = bundleManager.getIntegerProperty(Constants.PROPERTY_REVISION_RECLAIM_DELAY, DEFAULT_RECLAIM_DELAY);
+    }
+
+    @Override
+    public RevisionManagerPlugin getValue() {
+        return this;
+    }
+
+    @Override
+    ExecutorService createExecutorService() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable run) {
+                Thread thread = new Thread(run);
+                thread.setName("OSGi Revision Reclaim Thread");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Pending reclaims are dropped when the framework stops
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    /**
+     * Schedule a background reclaim of the revisions that are no longer wired.
+     * Requests that arrive while a reclaim is pending are coalesced.
+     */
+    void scheduleReclaim() {
+        if (reclaimDelay < 0 || reclaimScheduled.compareAndSet(false, true) == false)
+            return;
+
+        Runnable runner = new Runnable() {
+            @Override
+            public void run() {
+                reclaimScheduled.set(false);
+                reclaimRevisions();
+            }
+        };
+        ScheduledThreadPoolExecutor executor = (ScheduledThreadPoolExecutor) getExecutorService();
+        executor.schedule(runner, reclaimDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reclaim the revisions that are no longer wired.
+     *
+     * @return The number of reclaimed revisions
+     */
+    int reclaimRevisions() {
+        BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+        List<UserBundleRevision> reclaimed = new ArrayList<UserBundleRevision>();
+        List<UserBundleState> removed = new ArrayList<UserBundleState>();
+
+        // The resolver cannot wire to a revision while it is being reclaimed
+        ResolverPlugin resolverPlugin = injectedResolver.getValue();
+        synchronized (resolverPlugin) {
+            Set<Bundle> bundles = bundleManager.getBundles(null);
+            Set<AbstractBundleRevision> live = getLiveRevisions(bundles);
+            XEnvironment env = injectedEnvironment.getValue();
+            for (Bundle bundle : bundles) {
+                if (bundle.getBundleId() == 0)
+                    continue;
+
+                UserBundleState userBundle = UserBundleState.assertBundleState(bundle);
+                List<AbstractBundleRevision> revisions = userBundle.getAllBundleRevisions();
+                if (userBundle.getState() == Bundle.UNINSTALLED) {
+                    boolean inUse = false;
+                    for (AbstractBundleRevision brev : revisions) {
+                        inUse |= live.contains(brev);
+                    }
+                    if (inUse == false) {
+                        removed.add(userBundle);
+                    }
+                    continue;
+                }
+
+                for (AbstractBundleRevision brev : revisions.subList(1, revisions.size())) {
+                    if (live.contains(brev) == false) {
+                        UserBundleRevision userRev = (UserBundleRevision) brev;
+                        env.uninstallResources(userRev);
+                        if (userBundle.removeRevision(userRev)) {
+                            reclaimed.add(userRev);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Wait for an uninstall that is still in progress, removing the bundle twice is a noop
+        for (UserBundleState userBundle : removed) {
+            if (userBundle.aquireUninstallLock()) {
+                try {
+                    bundleManager.removeBundle(userBundle, 0);
+                } finally {
+                    userBundle.releaseUninstallLock();
+                }
+            }
+        }
+        for (UserBundleRevision userRev : reclaimed) {
+            releaseRevision(userRev);
+        }
+        return reclaimed.size();
+    }
+
+    private Set<AbstractBundleRevision> getLiveRevisions(Set<Bundle> bundles) {
+        Set<AbstractBundleRevision> result = new HashSet<AbstractBundleRevision>();
+        LinkedList<AbstractBundleRevision> pending = new LinkedList<AbstractBundleRevision>();
+        for (Bundle bundle : bundles) {
+            AbstractBundleState bundleState = AbstractBundleState.assertBundleState(bundle);
+            if (bundleState.getState() != Bundle.UNINSTALLED) {
+                pending.add(bundleState.getCurrentBundleRevision());
+            }
+        }
+        while (pending.isEmpty() == false) {
+            AbstractBundleRevision brev = pending.removeFirst();
+            if (result.add(brev) == false)
+                continue;
+
+            BundleWiring wiring = brev.getWiring();
+            if (wiring != null) {
+                for (Wire wire : wiring.getRequiredResourceWires(null)) {
+                    Resource provider = wire.getProvider();
+                    if (provider instanceof AbstractBundleRevision) {
+                        pending.add((AbstractBundleRevision) provider);
+                    }
+                }
+            }
+            if (brev instanceof HostBundleRevision) {
+                HostBundleRevision hostRev = (HostBundleRevision) brev;
+                pending.addAll(hostRev.getAttachedFragments());
+                pending.addAll(hostRev.getDynamicProviders());
+            }
+        }
+        return result;
+    }
+
+    private void releaseRevision(UserBundleRevision userRev) {
+        try {
+            ServiceManagerPlugin serviceManager = injectedServiceManager.getValue();
+            serviceManager.getAssignabilityCache().invalidate(userRev);
+            if (userRev.getBundleState().isFragment() == false) {
+                ModuleIdentifier identifier = userRev.getModuleIdentifier();
+                if (identifier != null) {
+                    ModuleManagerPlugin moduleManager = injectedModuleManager.getValue();
+                    moduleManager.removeModule(identifier);
+                }
+            }
+            userRev.close();
+            StorageState storageState = userRev.getDeployment().getAttachment(StorageState.class);
+            if (storageState != null) {
+                BundleStoragePlugin storagePlugin = injectedBundleStorage.getValue();
+                storagePlugin.deleteRevisionContent(storageState);
+            }
+            LOGGER.debugf("Reclaimed bundle revision: %s", userRev);
+        } catch (Exception ex) {
+            LOGGER.warnCannotReclaimRevision(ex, userRev);
+        }
+    }
+}
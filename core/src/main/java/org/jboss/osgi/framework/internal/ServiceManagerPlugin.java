@@ -30,23 +30,29 @@ import java.util.Dictionary;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.modules.ModuleClassLoader;
 import org.jboss.modules.ModuleLoadException;
 import org.jboss.msc.service.AbstractService;
+import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceContainer;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceController.State;
+import org.jboss.msc.service.ServiceController.Transition;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.osgi.framework.Constants;
 import org.jboss.osgi.framework.Services;
 import org.jboss.osgi.framework.util.NoFilter;
 import org.jboss.osgi.framework.util.RemoveOnlyCollection;
@@ -72,8 +78,17 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
 
     private final InjectedValue<BundleManagerPlugin> injectedBundleManager = new InjectedValue<BundleManagerPlugin>();
     private final InjectedValue<FrameworkEventsPlugin> injectedFrameworkEvents = new InjectedValue<FrameworkEventsPlugin>();
+    private final InjectedValue<FrameworkMetricsPlugin> injectedMetrics = new InjectedValue<FrameworkMetricsPlugin>();
     private final InjectedValue<ModuleManagerPlugin> injectedModuleManager = new InjectedValue<ModuleManagerPlugin>();
 
+    // The cached results of ServiceReference.isAssignableTo
+    private final AssignabilityCache assignabilityCache = new AssignabilityCache();
+    // The registered OSGi services by service name
+    private final ConcurrentMap<ServiceName, RegistryEntry> serviceRegistry = new ConcurrentHashMap<ServiceName, RegistryEntry>();
+    // The service states for XServices by service name
+    private final ConcurrentMap<ServiceName, XServiceEntry> xserviceEntries = new ConcurrentHashMap<ServiceName, XServiceEntry>();
+    // True if MSC services are only installed for exposed service names
+    private boolean lightweightRegistry;
     // The ServiceId generator
     private AtomicLong identityGenerator = new AtomicLong();
     // The cached service container
@@ -86,6 +101,7 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
         ServiceBuilder<ServiceManagerPlugin> builder = serviceTarget.addService(InternalServices.SERVICE_MANAGER_PLUGIN, service);
         builder.addDependency(Services.BUNDLE_MANAGER, BundleManagerPlugin.class, service.injectedBundleManager);
         builder.addDependency(InternalServices.FRAMEWORK_EVENTS_PLUGIN, FrameworkEventsPlugin.class, service.injectedFrameworkEvents);
+        builder.addDependency(InternalServices.FRAMEWORK_METRICS_PLUGIN, FrameworkMetricsPlugin.class, service.injectedMetrics);
         builder.addDependency(InternalServices.MODULE_MANGER_PLUGIN, ModuleManagerPlugin.class, service.injectedModuleManager);
         builder.setInitialMode(Mode.ON_DEMAND);
         builder.install();
@@ -99,11 +115,16 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
         super.start(context);
         serviceContainer = context.getController().getServiceContainer();
         serviceTarget = context.getChildTarget();
+        BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+        lightweightRegistry = bundleManager.getBooleanProperty(Constants.PROPERTY_SERVICE_REGISTRY_LIGHTWEIGHT, false);
     }
 
     @Override
     public void stop(StopContext context) {
         super.stop(context);
+        assignabilityCache.clear();
+        serviceRegistry.clear();
+        xserviceEntries.clear();
     }
 
     @Override
@@ -111,6 +132,10 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
         return this;
     }
 
+    AssignabilityCache getAssignabilityCache() {
+        return assignabilityCache;
+    }
+
     FrameworkEventsPlugin getFrameworkEventsPlugin() {
         return injectedFrameworkEvents.getValue();
     }
@@ -159,34 +184,15 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
         LOGGER.debugf("Register service: %s", serviceState);
 
         for (ServiceName serviceName : serviceState.getServiceNames()) {
-            // Obtain an interned string representation of the service name
-            // having it interned means that two services with the same name will
-            // return the same object.
-            String sns = serviceName.getCanonicalName().intern();
-
-            // Now synchronize on the string representation so that two concurrent
-            // registrations of two services with the same name will not race to create an MSC service.
-            synchronized (sns) {
-                @SuppressWarnings("unchecked")
-                ServiceController<List<ServiceState>> controller = (ServiceController<List<ServiceState>>) serviceContainer.getService(serviceName);
-                if (controller != null) {
-                    List<ServiceState> serviceStates = controller.getValue();
-                    serviceStates.add(serviceState);
-                } else {
-                    final List<ServiceState> serviceStates = new CopyOnWriteArrayList<ServiceState>();
-                    serviceStates.add(serviceState);
-                    Service<List<ServiceState>> service = new AbstractService<List<ServiceState>>() {
-                        public List<ServiceState> getValue() throws IllegalStateException {
-                            // [TODO] for injection to work this needs to be the Object value
-                            return serviceStates;
-                        }
-                    };
-                    ServiceBuilder<List<ServiceState>> builder = serviceTarget.addService(serviceName, service);
-                    builder.install();
-                }
+            RegistryEntry entry = addToRegistryEntry(serviceName, serviceState);
+
+            // In the lightweight mode the MSC service is only installed for exposed names
+            if (lightweightRegistry == false || entry.exposed == true) {
+                installServiceController(entry);
             }
         }
         bundleState.addRegisteredService(serviceState);
+        injectedMetrics.getValue().getServiceRegistrations().increment();
 
         // Call the newly added ListenerHook.added() method
         if (serviceValue instanceof ListenerHook) {
@@ -200,6 +206,112 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
         return serviceState;
     }
 
+    /**
+     * Make the services registered under the given class name available as an MSC service.
+     *
+     * In the lightweight registry mode, the MSC service is installed now if there are registered services
+     * and for every later registration under that name. Otherwise, the MSC service already exists.
+     *
+     * @return The name of the MSC service
+     */
+    ServiceName exposeService(String className) {
+        ServiceName serviceName = ServiceState.createServiceName(className);
+        if (lightweightRegistry == true) {
+            // Marks the entry as exposed so that it is kept while it is empty
+            RegistryEntry entry = addToRegistryEntry(serviceName, null);
+            installServiceController(entry);
+        }
+        return serviceName;
+    }
+
+    // Add the service to the registry entry for the given name. The entry is created if needed,
+    // an entry that was concurrently removed because it became empty is replaced.
+    private RegistryEntry addToRegistryEntry(ServiceName serviceName, ServiceState serviceState) {
+        while (true) {
+            RegistryEntry entry = serviceRegistry.get(serviceName);
+            if (entry == null) {
+                RegistryEntry newEntry = new RegistryEntry(serviceName);
+                entry = serviceRegistry.putIfAbsent(serviceName, newEntry);
+                if (entry == null)
+                    entry = newEntry;
+            }
+            synchronized (entry) {
+                if (entry.removed == false) {
+                    if (serviceState != null) {
+                        entry.serviceStates.add(serviceState);
+                    } else {
+                        entry.exposed = true;
+                    }
+                    return entry;
+                }
+            }
+        }
+    }
+
+    // Remove the service from the registry entry. An empty entry that was not exposed is removed from the registry.
+    private void removeFromRegistryEntry(RegistryEntry entry, ServiceState serviceState) {
+        synchronized (entry) {
+            entry.serviceStates.remove(serviceState);
+            if (entry.serviceStates.isEmpty()) {
+                removeServiceController(entry);
+                if (entry.exposed == false) {
+                    entry.removed = true;
+                    serviceRegistry.remove(entry.serviceName, entry);
+                }
+            }
+        }
+    }
+
+    // Install the MSC service that exposes the registered services unless it already exists.
+    // Synchronizing on the entry ensures that concurrent registrations with the same name
+    // do not race to create the MSC service, while registrations with other names are not affected.
+    private void installServiceController(RegistryEntry entry) {
+        if (serviceContainer.getService(entry.serviceName) != null)
+            return;
+
+        synchronized (entry) {
+            if (entry.serviceStates.isEmpty() == false && serviceContainer.getService(entry.serviceName) == null) {
+                final List<ServiceState> serviceStates = entry.serviceStates;
+                Service<List<ServiceState>> service = new AbstractService<List<ServiceState>>() {
+                    public List<ServiceState> getValue() throws IllegalStateException {
+                        // [TODO] for injection to work this needs to be the Object value
+                        return serviceStates;
+                    }
+                };
+                ServiceBuilder<List<ServiceState>> builder = serviceTarget.addService(entry.serviceName, service);
+                builder.install();
+            }
+        }
+    }
+
+    // Remove the MSC service when the last service with that name was unregistered.
+    // The removal is asynchronous. A registration with the same name that arrives before the MSC service
+    // is removed cannot install it, so the current registry entry is installed once the removal completes.
+    private void removeServiceController(RegistryEntry entry) {
+        synchronized (entry) {
+            if (entry.serviceStates.isEmpty()) {
+                ServiceController<?> controller = serviceContainer.getService(entry.serviceName);
+                if (controller != null) {
+                    final ServiceName serviceName = entry.serviceName;
+                    controller.addListener(new AbstractServiceListener<Object>() {
+                        @Override
+                        public void transition(ServiceController<? extends Object> controller, Transition transition) {
+                            if (transition == Transition.REMOVING_to_REMOVED) {
+                                controller.removeListener(this);
+                                RegistryEntry current = serviceRegistry.get(serviceName);
+                                if (current != null && (lightweightRegistry == false || current.exposed == true)) {
+                                    installServiceController(current);
+                                }
+                            }
+                        }
+                    });
+                    BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
+                    bundleManager.setServiceMode(controller, Mode.REMOVE);
+                }
+            }
+        }
+    }
+
     /**
      * Returns a <code>ServiceReference</code> object for a service that implements and was registered under the specified
      * class.
@@ -210,9 +322,12 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
     ServiceState getServiceReference(AbstractBundleState bundleState, String clazz) {
         assert clazz != null : "Null clazz";
 
+        LatencyHistogram lookups = injectedMetrics.getValue().getServiceLookups();
+        long lookupStart = lookups.start();
         boolean checkAssignable = (bundleState.getBundleId() != 0);
         List<ServiceState> result = getServiceReferencesInternal(bundleState, clazz, NoFilter.INSTANCE, checkAssignable);
         result = processFindHooks(bundleState, clazz, null, true, result);
+        lookups.stop(lookupStart);
         if (result.isEmpty())
             return null;
 
@@ -237,81 +352,59 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
         if (filterStr != null)
             filter = FrameworkUtil.createFilter(filterStr);
 
+        LatencyHistogram lookups = injectedMetrics.getValue().getServiceLookups();
+        long lookupStart = lookups.start();
         List<ServiceState> result = getServiceReferencesInternal(bundleState, clazz, filter, checkAssignable);
         result = processFindHooks(bundleState, clazz, filterStr, checkAssignable, result);
+        lookups.stop(lookupStart);
         return result;
     }
-
     @SuppressWarnings("unchecked")
-    private List<ServiceState> getServiceReferencesInternal(final AbstractBundleState bundleState, String className, Filter filter, boolean checkAssignable) {
+    private List<ServiceState> getServiceReferencesInternal(AbstractBundleState bundleState, String className, Filter filter, boolean checkAssignable) {
         assert bundleState != null : "Null bundleState";
         assert filter != null : "Null filter";
 
-        Set<ServiceName> serviceNames = new HashSet<ServiceName>();
+        // OSGi services are looked up in the registry, other services in the service container
+        List<List<ServiceState>> registryEntries = new ArrayList<List<ServiceState>>();
+        Set<ServiceName> xserviceNames = new HashSet<ServiceName>();
         if (className != null) {
-            ServiceName serviceName = ServiceState.createServiceName(className);
-            if (serviceContainer.getService(serviceName) != null) {
-                serviceNames.add(serviceName);
+            RegistryEntry entry = serviceRegistry.get(ServiceState.createServiceName(className));
+            if (entry != null && entry.serviceStates.isEmpty() == false) {
+                registryEntries.add(entry.serviceStates);
             } else {
                 ServiceName xserviceName = ServiceState.createXServiceName(className);
                 if (serviceContainer.getService(xserviceName) != null) {
-                    serviceNames.add(xserviceName);
+                    xserviceNames.add(xserviceName);
                 }
             }
         } else {
+            for (RegistryEntry entry : serviceRegistry.values()) {
+                registryEntries.add(entry.serviceStates);
+            }
             for (ServiceName aux : serviceContainer.getServiceNames()) {
-                if (Services.SERVICE_BASE_NAME.isParentOf(aux) || Services.XSERVICE_BASE_NAME.isParentOf(aux)) {
-                    serviceNames.add(aux);
+                if (Services.XSERVICE_BASE_NAME.isParentOf(aux)) {
+                    xserviceNames.add(aux);
                 }
             }
         }
 
-        if (serviceNames.isEmpty())
+        if (registryEntries.isEmpty() && xserviceNames.isEmpty())
             return Collections.emptyList();
 
         Set<ServiceState> resultset = new HashSet<ServiceState>();
-        for (ServiceName serviceName : serviceNames) {
-            final ServiceController<?> controller = serviceContainer.getService(serviceName);
+        for (List<ServiceState> serviceStates : registryEntries) {
+            for (ServiceState serviceState : serviceStates) {
+                if (isMatchingService(bundleState, serviceState, className, filter, checkAssignable)) {
+                    resultset.add(serviceState);
+                }
+            }
+        }
+        for (ServiceName serviceName : xserviceNames) {
+            ServiceController<?> controller = serviceContainer.getService(serviceName);
             if (controller != null) {
-                if (Services.SERVICE_BASE_NAME.isParentOf(serviceName)) {
-                    List<ServiceState> serviceStates = (List<ServiceState>) controller.getValue();
-                    for (ServiceState serviceState : serviceStates) {
-                        if (isMatchingService(bundleState, serviceState, className, filter, checkAssignable)) {
-                            resultset.add(serviceState);
-                        }
-                    }
-                } else if (Services.XSERVICE_BASE_NAME.isParentOf(serviceName)) {
-                    final ServiceState.ValueProvider valueProvider = new ServiceState.ValueProvider() {
-                        ModuleClassLoader classLoader = null;
-                        public boolean isFactoryValue() {
-                            return false;
-                        }
-                        public Object getValue() {
-                            if (classLoader == null) {
-                                AbstractBundleRevision currentRevision = bundleState.getCurrentBundleRevision();
-                                try {
-                                    classLoader = currentRevision.getModuleClassLoader();
-                                } catch (ModuleLoadException ex) {
-                                    LOGGER.errorCannotObtainClassLoader(ex, currentRevision);
-                                }
-                            }
-                            ClassLoader ctxLoader = SecurityActions.getContextClassLoader();
-                            try {
-                                SecurityActions.setContextClassLoader(classLoader);
-                                return controller.getValue();
-                            } finally {
-                                SecurityActions.setContextClassLoader(ctxLoader);
-                            }
-                        }
-                    };
-                    final long serviceId = getNextServiceId();
-                    final AbstractBundleState auxBundle = injectedModuleManager.getValue().getBundleState(valueProvider.getValue().getClass());
-                    final AbstractBundleState owner = (auxBundle != null ? auxBundle : injectedBundleManager.getValue().getSystemBundle());
-                    final String auxName = (className != null ? className : serviceName.getSimpleName());
-                    ServiceState serviceState = new ServiceState(this, owner, serviceId, new String[] { auxName }, valueProvider, null);
-                    if (isMatchingService(bundleState, serviceState, auxName, filter, checkAssignable)) {
-                        resultset.add(serviceState);
-                    }
+                ServiceState serviceState = getXServiceState(serviceName, controller);
+                if (isMatchingService(bundleState, serviceState, serviceName.getSimpleName(), filter, checkAssignable)) {
+                    resultset.add(serviceState);
                 }
             }
         }
@@ -324,6 +417,41 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
         return Collections.unmodifiableList(resultlist);
     }
 
+    // Get the stable service state for an XService. It is created once for every controller,
+    // which gives it a single service id and resolves the owner once. It is discarded when the controller is removed.
+    private ServiceState getXServiceState(final ServiceName serviceName, ServiceController<?> controller) {
+        XServiceEntry entry = xserviceEntries.get(serviceName);
+        if (entry != null && entry.controller == controller)
+            return entry.serviceState;
+
+        XServiceValueProvider valueProvider = new XServiceValueProvider(controller);
+        AbstractBundleState auxBundle = injectedModuleManager.getValue().getBundleState(valueProvider.getValue().getClass());
+        AbstractBundleState owner = (auxBundle != null ? auxBundle : injectedBundleManager.getValue().getSystemBundle());
+        long serviceId = getNextServiceId();
+        ServiceState serviceState = new ServiceState(this, owner, serviceId, new String[] { serviceName.getSimpleName() }, valueProvider, null);
+
+        final XServiceEntry newEntry = new XServiceEntry(controller, serviceState);
+        boolean cached = (entry == null ? xserviceEntries.putIfAbsent(serviceName, newEntry) == null : xserviceEntries.replace(serviceName, entry, newEntry));
+        if (cached == false) {
+            // Another lookup created the service state concurrently
+            entry = xserviceEntries.get(serviceName);
+            return (entry != null && entry.controller == controller ? entry.serviceState : serviceState);
+        }
+
+        controller.addListener(new AbstractServiceListener<Object>() {
+            @Override
+            public void transition(ServiceController<? extends Object> controller, Transition transition) {
+                if (transition == Transition.REMOVING_to_REMOVED) {
+                    xserviceEntries.remove(serviceName, newEntry);
+                }
+            }
+        });
+        if (controller.getState() == State.REMOVED) {
+            xserviceEntries.remove(serviceName, newEntry);
+        }
+        return serviceState;
+    }
+
     private boolean isMatchingService(AbstractBundleState bundleState, ServiceState serviceState, String clazzName, Filter filter, boolean checkAssignable) {
         if (serviceState.isUnregistered() || filter.match(serviceState) == false)
             return false;
@@ -362,7 +490,6 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
     /**
      * Unregister the given service.
      */
-    @SuppressWarnings("unchecked")
     void unregisterService(ServiceState serviceState) {
         synchronized (serviceState) {
 
@@ -372,14 +499,9 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
             for (ServiceName serviceName : serviceState.getServiceNames()) {
                 LOGGER.debugf("Unregister service: %s", serviceName);
                 try {
-                    ServiceController<?> controller = serviceContainer.getService(serviceName);
-                    if (controller != null) {
-                        List<ServiceState> serviceStates = (List<ServiceState>) controller.getValue();
-                        serviceStates.remove(serviceState);
-                        if (serviceStates.isEmpty()) {
-                            BundleManagerPlugin bundleManager = injectedBundleManager.getValue();
-                            bundleManager.setServiceMode(controller, Mode.REMOVE);
-                        }
+                    RegistryEntry entry = serviceRegistry.get(serviceName);
+                    if (entry != null) {
+                        removeFromRegistryEntry(entry, serviceState);
                     }
                 } catch (RuntimeException ex) {
                     LOGGER.errorCannotRemoveService(ex, serviceName);
@@ -467,4 +589,70 @@ final class ServiceManagerPlugin extends AbstractPluginService<ServiceManagerPlu
 
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * The registry entry for a service name. The list is shared with the MSC service for that name.
+     */
+    private static final class RegistryEntry {
+
+        private final ServiceName serviceName;
+        private final List<ServiceState> serviceStates = new CopyOnWriteArrayList<ServiceState>();
+        // True if the MSC service was requested in the lightweight mode
+        private volatile boolean exposed;
+        // True if the entry was removed from the registry, guarded by the entry
+        private boolean removed;
+
+        RegistryEntry(ServiceName serviceName) {
+            this.serviceName = serviceName;
+        }
+    }
+
+    private static final class XServiceEntry {
+
+        private final ServiceController<?> controller;
+        private final ServiceState serviceState;
+
+        XServiceEntry(ServiceController<?> controller, ServiceState serviceState) {
+            this.controller = controller;
+            this.serviceState = serviceState;
+        }
+    }
+
+    // Provides the XService value with the requesting bundle's class loader as the thread context loader
+    private static final class XServiceValueProvider implements ServiceState.ContextValueProvider {
+
+        private final ServiceController<?> controller;
+
+        XServiceValueProvider(ServiceController<?> controller) {
+            this.controller = controller;
+        }
+
+        @Override
+        public boolean isFactoryValue() {
+            return false;
+        }
+
+        @Override
+        public Object getValue() {
+            return controller.getValue();
+        }
+
+        @Override
+        public Object getValue(AbstractBundleState bundleState) {
+            ModuleClassLoader classLoader = null;
+            AbstractBundleRevision currentRevision = bundleState.getCurrentBundleRevision();
+            try {
+                classLoader = currentRevision.getModuleClassLoader();
+            } catch (ModuleLoadException ex) {
+                LOGGER.errorCannotObtainClassLoader(ex, currentRevision);
+            }
+            ClassLoader ctxLoader = SecurityActions.getContextClassLoader();
+            try {
+                SecurityActions.setContextClassLoader(classLoader);
+                return controller.getValue();
+            } finally {
+                SecurityActions.setContextClassLoader(ctxLoader);
+            }
+        }
+    }
+}
@@ -30,12 +30,12 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Dictionary;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.msc.service.ServiceName;
@@ -49,6 +49,7 @@ import org.osgi.framework.ServiceException;
 import org.osgi.framework.ServiceFactory;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.ServiceRegistration;
+import org.osgi.resource.Resource;
 
 /**
  * The service implementation.
@@ -66,9 +67,9 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
     private final long serviceId;
     private final ValueProvider valueProvider;
     private final ServiceReference reference;
+    private final Set<AbstractBundleState> usingBundles;
+    private final ConcurrentMap<Long, ServiceFactoryHolder> factoryValues;
     private ServiceRegistration registration;
-    private Set<AbstractBundleState> usingBundles;
-    private Map<Long, ServiceFactoryHolder> factoryValues;
 
     // The properties
     private CaseInsensitiveDictionary prevProperties;
@@ -85,6 +86,8 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
         this.ownerBundle = owner;
         this.serviceId = serviceId;
         this.valueProvider = valueProvider;
+        this.usingBundles = Collections.newSetFromMap(new ConcurrentHashMap<AbstractBundleState, Boolean>());
+        this.factoryValues = valueProvider.isFactoryValue() ? new ConcurrentHashMap<Long, ServiceFactoryHolder>() : null;
 
         if (!valueProvider.isFactoryValue() && !checkValidClassNames(owner, classNames, valueProvider.getValue()))
             throw MESSAGES.illegalArgumentInvalidObjectClass(Arrays.toString(classNames));
@@ -138,20 +141,23 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
     Object getScopedValue(AbstractBundleState bundleState) {
 
         // For non-factory services, return the value
-        if (valueProvider.isFactoryValue() == false)
+        if (valueProvider.isFactoryValue() == false) {
+            if (valueProvider instanceof ContextValueProvider)
+                return ((ContextValueProvider) valueProvider).getValue(bundleState);
             return valueProvider.getValue();
+        }
 
         // Get the ServiceFactory value
         Object result = null;
         try {
-            if (factoryValues == null)
-                factoryValues = new HashMap<Long, ServiceFactoryHolder>();
-
+            // The holder for a bundle is created exactly once
             ServiceFactoryHolder factoryHolder = getFactoryHolder(bundleState);
             if (factoryHolder == null) {
                 ServiceFactory factory = (ServiceFactory) valueProvider.getValue();
-                factoryHolder = new ServiceFactoryHolder(bundleState, factory);
-                factoryValues.put(bundleState.getBundleId(), factoryHolder);
+                ServiceFactoryHolder newHolder = new ServiceFactoryHolder(bundleState, factory);
+                factoryHolder = factoryValues.putIfAbsent(bundleState.getBundleId(), newHolder);
+                if (factoryHolder == null)
+                    factoryHolder = newHolder;
             }
 
             result = factoryHolder.getService();
@@ -214,7 +220,7 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
 
     void unregisterInternal() {
         serviceManager.unregisterService(this);
-        usingBundles = null;
+        usingBundles.clear();
         registration = null;
     }
 
@@ -274,43 +280,28 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
     }
 
     void addUsingBundle(AbstractBundleState bundleState) {
-        synchronized (this) {
-            if (usingBundles == null)
-                usingBundles = new HashSet<AbstractBundleState>();
-
-            usingBundles.add(bundleState);
-        }
+        usingBundles.add(bundleState);
     }
 
     void removeUsingBundle(AbstractBundleState bundleState) {
-        synchronized (this) {
-            if (usingBundles != null)
-                usingBundles.remove(bundleState);
-        }
+        usingBundles.remove(bundleState);
     }
 
+    /**
+     * Get an unmodifiable view of the using bundles. The view is weakly consistent and can be
+     * iterated while bundles are added or removed.
+     */
     Set<AbstractBundleState> getUsingBundlesInternal() {
-        synchronized (this) {
-            if (usingBundles == null)
-                return Collections.emptySet();
-
-            // Return an unmodifieable snapshot of the set
-            return Collections.unmodifiableSet(new HashSet<AbstractBundleState>(usingBundles));
-        }
+        return Collections.unmodifiableSet(usingBundles);
     }
 
     @Override
     public Bundle[] getUsingBundles() {
-        synchronized (this) {
-            if (usingBundles == null)
-                return null;
-
-            Set<Bundle> bundles = new HashSet<Bundle>();
-            for (AbstractBundleState aux : usingBundles)
-                bundles.add(aux);
+        List<Bundle> bundles = new ArrayList<Bundle>(usingBundles);
+        if (bundles.isEmpty())
+            return null;
 
-            return bundles.toArray(new Bundle[bundles.size()]);
-        }
+        return bundles.toArray(new Bundle[bundles.size()]);
     }
 
     @Override
@@ -324,6 +315,44 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
         if (bundleState == ownerBundle)
             return true;
 
+        // The registry and event paths check the same combinations over and over
+        AbstractBundleRevision requesterRev = bundleState.getCurrentBundleRevision();
+        AbstractBundleRevision ownerRev = ownerBundle.getCurrentBundleRevision();
+        AssignabilityCache cache = serviceManager.getAssignabilityCache();
+        Boolean cached = cache.get(requesterRev, ownerRev, className);
+        if (cached != null)
+            return cached.booleanValue();
+
+        Boolean result = isAssignableInternal(bundleState, requesterRev, ownerRev, className);
+
+        // A class that cannot be loaded now may become loadable through a dynamic import
+        if (result == null) {
+            if (hasDynamicImports(requesterRev) == false && hasDynamicImports(ownerRev) == false) {
+                cache.put(requesterRev, ownerRev, className, true);
+            }
+            return true;
+        }
+
+        cache.put(requesterRev, ownerRev, className, result.booleanValue());
+        return result.booleanValue();
+    }
+
+    private static boolean hasDynamicImports(AbstractBundleRevision brev) {
+        return brev instanceof HostBundleRevision && ((HostBundleRevision) brev).hasDynamicImports();
+    }
+
+    /**
+     * @return The result or null if either bundle cannot load the class
+     */
+    private Boolean isAssignableInternal(AbstractBundleState bundle, AbstractBundleRevision requesterRev, AbstractBundleRevision ownerRev, String className) {
+
+        // If both revisions get the package from the same source, the class is the same
+        int index = className.lastIndexOf('.');
+        String packageName = index > 0 ? className.substring(0, index) : "";
+        Resource requesterSource = AssignabilityCache.getPackageSource(requesterRev, packageName);
+        if (requesterSource != null && requesterSource == AssignabilityCache.getPackageSource(ownerRev, packageName))
+            return Boolean.TRUE;
+
         Class<?> targetClass;
         try {
             targetClass = bundle.loadClass(className);
@@ -331,7 +360,7 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
             // If the requesting bundle does not have a wire to the
             // service package it cannot be constraint on that package.
             LOGGER.tracef("Requesting bundle [%s] cannot load class: %s", bundle, className);
-            return true;
+            return null;
         }
 
         // For the bundle that registered the service referenced by this ServiceReference (registrant bundle);
@@ -342,17 +371,17 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
             serviceClass = ownerBundle.loadClass(className);
         } catch (ClassNotFoundException e) {
             LOGGER.tracef("Registrant bundle [%s] cannot load class: %s", ownerBundle, className);
-            return true;
+            return null;
         }
 
         // If the package source of the registrant bundle is equal to the package source of the specified bundle
         // then return true; otherwise return false.
         if (targetClass != serviceClass) {
             LOGGER.tracef("Not assignable: %s", className);
-            return false;
+            return Boolean.FALSE;
         }
 
-        return true;
+        return Boolean.TRUE;
     }
 
     @Override
@@ -428,12 +457,19 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
         Object getValue();
     }
 
+    /**
+     * A provider that obtains the value in the context of the requesting bundle
+     */
+    interface ContextValueProvider extends ValueProvider {
+        Object getValue(AbstractBundleState bundleState);
+    }
+
     class ServiceFactoryHolder {
 
-        ServiceFactory factory;
-        AbstractBundleState bundleState;
-        AtomicInteger useCount;
-        Object value;
+        final ServiceFactory factory;
+        final AbstractBundleState bundleState;
+        final AtomicInteger useCount;
+        volatile Object value;
 
         ServiceFactoryHolder(AbstractBundleState bundleState, ServiceFactory factory) {
             this.bundleState = bundleState;
@@ -443,9 +479,16 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
 
         Object getService() {
             // Multiple calls to getService() return the same value
-            if (useCount.get() == 0) {
-                // The Framework must not allow this method to be concurrently called for the same bundle
-                synchronized (bundleState) {
+            int count = useCount.get();
+            while (count > 0) {
+                if (useCount.compareAndSet(count, count + 1))
+                    return value;
+                count = useCount.get();
+            }
+
+            // The Framework must not allow this method to be concurrently called for the same bundle
+            synchronized (this) {
+                if (useCount.get() == 0) {
                     Object retValue = factory.getService(bundleState, getRegistration());
                     if (retValue == null)
                         return null;
@@ -457,19 +500,26 @@ final class ServiceState implements ServiceRegistration, ServiceReference {
 
                     value = retValue;
                 }
+                useCount.incrementAndGet();
+                return value;
             }
-
-            useCount.incrementAndGet();
-            return value;
         }
 
         void ungetService() {
-            if (useCount.get() == 0)
-                return;
+            // Release a use that is not the last one
+            int count = useCount.get();
+            while (count > 1) {
+                if (useCount.compareAndSet(count, count - 1))
+                    return;
+                count = useCount.get();
+            }
 
             // Call unget on the factory when done
-            if (useCount.decrementAndGet() == 0) {
-                synchronized (bundleState) {
+            synchronized (this) {
+                if (useCount.get() == 0)
+                    return;
+
+                if (useCount.decrementAndGet() == 0) {
                     factory.ungetService(bundleState, getRegistration(), value);
                     value = null;
                 }
@@ -24,7 +24,10 @@ package org.jboss.osgi.framework.internal;
 import static org.jboss.osgi.framework.internal.FrameworkLogger.LOGGER;
 import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
@@ -59,9 +62,10 @@ public final class StartLevelPlugin extends AbstractExecutorService<StartLevel>
     private final InjectedValue<SystemBundleState> injectedSystemBundle = new InjectedValue<SystemBundleState>();
     private final InjectedValue<FrameworkEventsPlugin> injectedFrameworkEvents = new InjectedValue<FrameworkEventsPlugin>();
 
-    private int initialBundleStartLevel = 1; // Synchronized on this
+    private volatile int initialBundleStartLevel = 1;
     private ServiceRegistration registration;
-    private int startLevel = 0; // Synchronized on this
+    // Changed while holding the lock on this, read without it by bundles that start concurrently
+    private volatile int startLevel = 0;
 
     static void addService(ServiceTarget serviceTarget) {
         StartLevelPlugin service = new StartLevelPlugin();
@@ -110,12 +114,12 @@ public final class StartLevelPlugin extends AbstractExecutorService<StartLevel>
     }
 
     @Override
-    public synchronized int getStartLevel() {
+    public int getStartLevel() {
         return startLevel;
     }
 
     @Override
-    public synchronized void setStartLevel(final int level) {
+    public void setStartLevel(final int level) {
         final FrameworkEventsPlugin eventsPlugin = injectedFrameworkEvents.getValue();
         final AbstractBundleState bundleState = injectedSystemBundle.getValue();
         if (level > getStartLevel()) {
@@ -202,12 +206,12 @@ public final class StartLevelPlugin extends AbstractExecutorService<StartLevel>
     }
 
     @Override
-    public synchronized int getInitialBundleStartLevel() {
+    public int getInitialBundleStartLevel() {
         return initialBundleStartLevel;
     }
 
     @Override
-    public synchronized void setInitialBundleStartLevel(int startlevel) {
+    public void setInitialBundleStartLevel(int startlevel) {
         initialBundleStartLevel = startlevel;
     }
 
@@ -228,6 +232,10 @@ public final class StartLevelPlugin extends AbstractExecutorService<StartLevel>
     /**
      * Increases the Start Level of the Framework in the current thread.
      *
+     * The bundles of a start level are started through the {@link BundleManagerPlugin#startBundles(Collection, int)}
+     * bulk start, so that bundles which are not wired to each other are activated concurrently.
+     * The next start level is entered when all bundles of the current level were started.
+     *
      * @param level the target Start Level to which the Framework should move.
      */
     synchronized void increaseStartLevel(int level) {
@@ -236,24 +244,34 @@ public final class StartLevelPlugin extends AbstractExecutorService<StartLevel>
         while (startLevel < level) {
             startLevel++;
             LOGGER.infoStartingBundlesForStartLevel(level);
+            List<Bundle> policyBundles = new ArrayList<Bundle>();
+            List<Bundle> eagerBundles = new ArrayList<Bundle>();
             for (Bundle bundle : bundles) {
                 if (!(bundle instanceof HostBundleState))
                     continue;
 
                 HostBundleState hostBundle = (HostBundleState) bundle;
                 if (hostBundle.getStartLevel() == startLevel && hostBundle.isPersistentlyStarted()) {
-                    try {
-                        int opts = Bundle.START_TRANSIENT;
-                        if (isBundleActivationPolicyUsed(bundle)) {
-                            opts |= Bundle.START_ACTIVATION_POLICY;
-                        }
-                        bundle.start(opts);
-                    } catch (Throwable e) {
-                        FrameworkEventsPlugin eventsPlugin = injectedFrameworkEvents.getValue();
-                        eventsPlugin.fireFrameworkEvent(bundle, FrameworkEvent.ERROR, e);
+                    if (isBundleActivationPolicyUsed(bundle)) {
+                        policyBundles.add(bundle);
+                    } else {
+                        eagerBundles.add(bundle);
                     }
                 }
             }
+            startBundles(bundleManager, eagerBundles, Bundle.START_TRANSIENT);
+            startBundles(bundleManager, policyBundles, Bundle.START_TRANSIENT | Bundle.START_ACTIVATION_POLICY);
+        }
+    }
+
+    private void startBundles(BundleManagerPlugin bundleManager, List<Bundle> bundles, int options) {
+        if (bundles.isEmpty())
+            return;
+
+        Map<Bundle, BundleException> failures = bundleManager.startBundles(bundles, options);
+        FrameworkEventsPlugin eventsPlugin = injectedFrameworkEvents.getValue();
+        for (Map.Entry<Bundle, BundleException> entry : failures.entrySet()) {
+            eventsPlugin.fireFrameworkEvent(entry.getKey(), FrameworkEvent.ERROR, entry.getValue());
         }
     }
 
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A map of use counts that is keyed by the counted object itself.
+ *
+ * The keys are compared with equals, for a {@link ServiceState} that is its identity, so no key object is created for a lookup.
+ * Counting an existing entry is a lock-free update of its counter. An entry is removed when its count
+ * drops to zero. A counter at zero is never incremented again, a concurrent increment replaces it instead.
+ *
+ * @since 19-Oct-2026
+ */
+final class UseCountMap<K> {
+
+    private final ConcurrentMap<K, AtomicInteger> counters = new ConcurrentHashMap<K, AtomicInteger>();
+
+    /**
+     * Increment the use count for the given key.
+     * @return The new use count
+     */
+    int increment(K key) {
+        while (true) {
+            AtomicInteger counter = counters.get(key);
+            if (counter == null) {
+                AtomicInteger newCounter = new AtomicInteger(1);
+                counter = counters.putIfAbsent(key, newCounter);
+                if (counter == null)
+                    return 1;
+            }
+            int count = counter.get();
+            while (count > 0) {
+                if (counter.compareAndSet(count, count + 1))
+                    return count + 1;
+                count = counter.get();
+            }
+
+            // The counter dropped to zero and is being removed
+            counters.remove(key, counter);
+        }
+    }
+
+    /**
+     * Decrement the use count for the given key and remove the entry when the count drops to zero.
+     * @return The new use count or -1 if there is no entry for the given key
+     */
+    int decrement(K key) {
+        AtomicInteger counter = counters.get(key);
+        if (counter == null)
+            return -1;
+
+        int count = counter.get();
+        while (count > 0) {
+            if (counter.compareAndSet(count, count - 1)) {
+                if (count == 1)
+                    counters.remove(key, counter);
+                return count - 1;
+            }
+            count = counter.get();
+        }
+        return -1;
+    }
+
+    /**
+     * Get the use count for the given key or zero if there is no entry.
+     */
+    int getCount(K key) {
+        AtomicInteger counter = counters.get(key);
+        return counter != null ? counter.get() : 0;
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    /**
+     * Get a snapshot of the keys that have a positive use count.
+     */
+    List<K> keys() {
+        if (counters.isEmpty())
+            return Collections.emptyList();
+
+        List<K> result = new ArrayList<K>(counters.size());
+        for (Map.Entry<K, AtomicInteger> entry : counters.entrySet()) {
+            if (entry.getValue().get() > 0) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+}
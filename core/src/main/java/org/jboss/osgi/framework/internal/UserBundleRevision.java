@@ -32,6 +32,7 @@ import java.util.List;
 
 import org.jboss.modules.Module;
 import org.jboss.osgi.deployment.deployer.Deployment;
+import org.jboss.osgi.framework.Constants;
 import org.jboss.osgi.framework.StorageState;
 import org.jboss.osgi.metadata.OSGiMetaData;
 import org.jboss.osgi.vfs.AbstractVFS;
@@ -47,9 +48,13 @@ import org.osgi.framework.BundleException;
  */
 abstract class UserBundleRevision extends AbstractBundleRevision {
 
+    // The default number of cached entry and resource URLs
+    static final int DEFAULT_RESOURCE_CACHE_SIZE = 256;
+
     private final Deployment deployment;
     private List<RevisionContent> contentList;
     private final EntriesProvider entriesProvider;
+    private final ResourceCache entryCache;
 
     UserBundleRevision(UserBundleState userBundle, Deployment dep) throws BundleException {
         super(userBundle, getOSGiMetaData(dep), getRevisionId(dep));
@@ -65,6 +70,12 @@ abstract class UserBundleRevision extends AbstractBundleRevision {
             contentList = Collections.emptyList();
             addAttachment(Module.class, module);
         }
+        entryCache = new ResourceCache(getResourceCacheSize(userBundle));
+    }
+
+    static int getResourceCacheSize(UserBundleState userBundle) {
+        BundleManagerPlugin bundleManager = userBundle.getFrameworkState().getBundleManager();
+        return bundleManager.getIntegerProperty(Constants.PROPERTY_RESOURCE_CACHE_SIZE, DEFAULT_RESOURCE_CACHE_SIZE);
     }
 
     private static OSGiMetaData getOSGiMetaData(Deployment dep) {
@@ -118,6 +129,12 @@ abstract class UserBundleRevision extends AbstractBundleRevision {
         return null;
     }
 
+    @Override
+    void refreshRevisionInternal() {
+        super.refreshRevisionInternal();
+        entryCache.clear();
+    }
+
     void close() {
         for (RevisionContent aux : contentList) {
             aux.close();
@@ -133,7 +150,15 @@ abstract class UserBundleRevision extends AbstractBundleRevision {
     @Override
     URL getEntry(String path) {
         getBundleState().assertNotUninstalled();
-        return entriesProvider.getEntry(path);
+
+        // The revision content does not change, so missing entries can be cached as well
+        Object cached = entryCache.get(path);
+        if (cached != null)
+            return cached != ResourceCache.NOT_FOUND ? (URL) cached : null;
+
+        URL entry = entriesProvider.getEntry(path);
+        entryCache.put(path, entry);
+        return entry;
     }
 
     @Override
@@ -31,9 +31,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.modules.ModuleIdentifier;
 import org.jboss.msc.service.ServiceController.Mode;
@@ -43,10 +43,12 @@ import org.jboss.osgi.framework.BundleInstallHandler;
 import org.jboss.osgi.framework.StorageState;
 import org.jboss.osgi.framework.TypeAdaptor;
 import org.jboss.osgi.framework.internal.BundleStoragePlugin.InternalStorageState;
+import org.jboss.osgi.framework.internal.BundleStoragePlugin.StoredContent;
 import org.jboss.osgi.metadata.OSGiMetaData;
 import org.jboss.osgi.resolver.XEnvironment;
 import org.jboss.osgi.spi.ConstantsHelper;
 import org.jboss.osgi.vfs.AbstractVFS;
+import org.jboss.osgi.vfs.VFSUtils;
 import org.jboss.osgi.vfs.VirtualFile;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleEvent;
@@ -65,9 +67,11 @@ import org.osgi.service.packageadmin.PackageAdmin;
 abstract class UserBundleState extends AbstractBundleState implements TypeAdaptor {
 
     private final Semaphore uninstallSemaphore = new Semaphore(1);
+    private final AtomicBoolean removed = new AtomicBoolean();
 
     private final ServiceName serviceName;
-    private final List<UserBundleRevision> revisions = new CopyOnWriteArrayList<UserBundleRevision>();
+    private final Object revisionLock = new Object();
+    private volatile List<AbstractBundleRevision> revisions = Collections.emptyList();
     private Dictionary<String, String> headersOnUninstall;
     private InternalStorageState storageState;
 
@@ -150,30 +154,60 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
         return serviceName.append(ConstantsHelper.bundleState(state));
     }
 
+    /**
+     * The revisions are held in an immutable list with the current revision first.
+     * Readers get the list without copying, writers replace it while holding the revision lock.
+     */
     void addRevision(UserBundleRevision rev) {
-        revisions.add(0, rev);
+        synchronized (revisionLock) {
+            List<AbstractBundleRevision> result = new ArrayList<AbstractBundleRevision>(revisions.size() + 1);
+            result.add(rev);
+            result.addAll(revisions);
+            revisions = Collections.unmodifiableList(result);
+        }
+    }
+
+    /**
+     * Remove a revision that is no longer current.
+     *
+     * @return true if the revision was removed
+     */
+    boolean removeRevision(UserBundleRevision rev) {
+        synchronized (revisionLock) {
+            List<AbstractBundleRevision> result = new ArrayList<AbstractBundleRevision>(revisions);
+            if (result.indexOf(rev) < 1)
+                return false;
+
+            result.remove(rev);
+            revisions = Collections.unmodifiableList(result);
+            return true;
+        }
     }
 
     @Override
     UserBundleRevision getCurrentBundleRevision() {
-        return revisions.get(0);
+        return (UserBundleRevision) revisions.get(0);
     }
 
     @Override
     List<AbstractBundleRevision> getAllBundleRevisions() {
-        List<AbstractBundleRevision> result = new ArrayList<AbstractBundleRevision>(revisions);
-        return Collections.unmodifiableList(result);
+        return revisions;
     }
 
     void clearOldRevisions() {
-        UserBundleRevision rev = getCurrentBundleRevision();
-        revisions.clear();
-        revisions.add(rev);
+        synchronized (revisionLock) {
+            revisions = Collections.singletonList(revisions.get(0));
+        }
     }
 
     @Override
     AbstractBundleRevision getBundleRevisionById(int revisionId) {
-        for (AbstractBundleRevision rev : revisions) {
+        List<AbstractBundleRevision> snapshot = revisions;
+        AbstractBundleRevision currentRev = snapshot.get(0);
+        if (currentRev.getRevisionId() == revisionId) {
+            return currentRev;
+        }
+        for (AbstractBundleRevision rev : snapshot) {
             if (rev.getRevisionId() == revisionId) {
                 return rev;
             }
@@ -199,6 +233,15 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
         uninstallSemaphore.release();
     }
 
+    /**
+     * Mark this bundle as removed from the framework.
+     *
+     * @return false if the bundle was already removed
+     */
+    boolean markRemoved() {
+        return removed.compareAndSet(false, true);
+    }
+
     boolean hasActiveWires() {
         BundleWiring wiring = getCurrentBundleRevision().getWiring();
         return wiring != null ? wiring.isInUse() : false;
@@ -247,6 +290,9 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
 
         FrameworkEventsPlugin eventsPlugin = getFrameworkState().getFrameworkEventsPlugin();
         eventsPlugin.fireBundleEvent(this, BundleEvent.UPDATED);
+
+        // The previous revision is reclaimed when it is no longer wired
+        getFrameworkState().getRevisionManagerPlugin().scheduleReclaim();
         if (restart) {
             // If this bundle's state was originally ACTIVE or STARTING, the updated bundle is started as described in the
             // Bundle.start method.
@@ -284,11 +330,24 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
             }
         }
 
-        if (rootFile == null && input != null)
-            rootFile = AbstractVFS.toVirtualFile(input);
-
+        // Stream the content once, directly into the storage location of the new revision
         BundleStoragePlugin storagePlugin = getFrameworkState().getBundleStoragePlugin();
-        InternalStorageState storageState = createStorageState(storagePlugin, getLocation(), rootFile);
+        StoredContent storedContent = null;
+        InternalStorageState storageState;
+        try {
+            if (rootFile == null && input != null) {
+                storedContent = storagePlugin.storeBundleContent(getBundleId(), input);
+                rootFile = AbstractVFS.toVirtualFile(storedContent.getFile().toURI());
+            }
+            storageState = createStorageState(storagePlugin, getLocation(), rootFile, storedContent);
+        } catch (Exception ex) {
+            if (storedContent != null) {
+                VFSUtils.safeClose(rootFile);
+                storagePlugin.deleteStoredContent(storedContent);
+            }
+            throw ex;
+        }
+
         try {
             DeploymentFactoryPlugin deploymentPlugin = getFrameworkState().getDeploymentFactoryPlugin();
             Deployment dep = deploymentPlugin.createDeployment(storageState);
@@ -298,6 +357,7 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
             UserBundleRevision brev = createRevision(dep);
             XEnvironment env = getFrameworkState().getEnvironment();
             env.installResources(brev);
+            this.storageState = storageState;
         } catch (BundleException ex) {
             storagePlugin.deleteStorageState(storageState);
             throw ex;
@@ -313,13 +373,14 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
         if (attachedState == null) {
             String location = dep.getLocation();
             VirtualFile rootFile = dep.getRoot();
+            StoredContent storedContent = dep.getAttachment(StoredContent.class);
             try {
                 BundleStoragePlugin storagePlugin = getFrameworkState().getBundleStoragePlugin();
                 Integer startlevel = dep.getStartLevel();
                 if (startlevel == null) {
                     startlevel = getCoreServices().getStartLevel().getInitialBundleStartLevel();
                 }
-                storageState = storagePlugin.createStorageState(getBundleId(), location, startlevel, rootFile);
+                storageState = storagePlugin.createStorageState(getBundleId(), location, startlevel, rootFile, storedContent);
                 dep.addAttachment(StorageState.class, storageState);
             } catch (IOException ex) {
                 throw MESSAGES.bundleCannotSetupStorage(ex, rootFile);
@@ -330,11 +391,13 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
         return storageState;
     }
 
-    private InternalStorageState createStorageState(BundleStoragePlugin storagePlugin, String location, VirtualFile rootFile) throws BundleException {
+    private InternalStorageState createStorageState(BundleStoragePlugin storagePlugin, String location, VirtualFile rootFile, StoredContent storedContent) throws BundleException {
+        // The new revision keeps the start settings of the bundle
+        InternalStorageState currentState = getStorageState();
         InternalStorageState storageState;
         try {
-            int startlevel = getCoreServices().getStartLevel().getInitialBundleStartLevel();
-            storageState = storagePlugin.createStorageState(getBundleId(), location, startlevel, rootFile);
+            storageState = storagePlugin.createStorageState(getBundleId(), location, currentState.getStartLevel(), rootFile, storedContent);
+            storageState.setBundleActivationPolicyUsed(currentState.isBundleActivationPolicyUsed());
         } catch (IOException ex) {
             throw MESSAGES.bundleCannotSetupStorage(ex, rootFile);
         }
@@ -352,6 +415,7 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
 
         // Remove the revisions from the environment
         ModuleManagerPlugin moduleManager = getFrameworkState().getModuleManagerPlugin();
+        ServiceManagerPlugin serviceManager = getFrameworkState().getServiceManagerPlugin();
         UserBundleRevision currentRev = getCurrentBundleRevision();
         for (AbstractBundleRevision brev : getAllBundleRevisions()) {
 
@@ -370,6 +434,7 @@ abstract class UserBundleState extends AbstractBundleState implements TypeAdapto
 
             ModuleIdentifier identifier = brev.getModuleIdentifier();
             moduleManager.removeModule(identifier);
+            serviceManager.getAssignabilityCache().invalidate(brev);
         }
 
         clearOldRevisions();
@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.util;
+
+import java.util.Comparator;
+import java.util.Map;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
+import org.osgi.util.tracker.BundleTracker;
+import org.osgi.util.tracker.BundleTrackerCustomizer;
+
+/**
+ * A {@link BundleTracker} for trackers that are used on hot paths.
+ *
+ * The tracked bundles are kept in an immutable snapshot that is sorted by bundle id and published through a
+ * volatile reference. The accessors {@link #getBundles()}, {@link #getObject(Bundle)}, {@link #size()} and
+ * {@link #getTrackingCount()} never lock. Changes to the tracked bundles are serialized and copy the snapshot.
+ *
+ * @since 19-Oct-2026
+ */
+public class ConcurrentBundleTracker extends BundleTracker {
+
+    private static final Comparator<Bundle> BUNDLE_ID_ORDER = new Comparator<Bundle>() {
+        @Override
+        public int compare(Bundle b1, Bundle b2) {
+            long id1 = b1.getBundleId();
+            long id2 = b2.getBundleId();
+            return id1 < id2 ? -1 : (id1 == id2 ? 0 : 1);
+        }
+    };
+
+    private final int stateMask;
+    private final BundleTrackerCustomizer trackerCustomizer;
+    private volatile Tracked tracked;
+
+    public ConcurrentBundleTracker(BundleContext context, int stateMask, BundleTrackerCustomizer customizer) {
+        super(context, stateMask, customizer);
+        this.stateMask = stateMask;
+        this.trackerCustomizer = (customizer == null ? this : customizer);
+    }
+
+    @Override
+    public void open() {
+        Tracked t;
+        Bundle[] bundles;
+        synchronized (this) {
+            if (tracked != null)
+                return;
+
+            t = new Tracked();
+            context.addBundleListener(t);
+            bundles = context.getBundles();
+            tracked = t;
+        }
+
+        // Track the initial bundles outside of the synchronized region
+        if (bundles != null) {
+            for (Bundle bundle : bundles) {
+                if ((bundle.getState() & stateMask) != 0) {
+                    t.track(bundle, null);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Tracked outgoing;
+        synchronized (this) {
+            outgoing = tracked;
+            if (outgoing == null)
+                return;
+
+            tracked = null;
+            try {
+                context.removeBundleListener(outgoing);
+            } catch (IllegalStateException ex) {
+                // In case the context was stopped
+            }
+        }
+        Map<Bundle, Object> bundles = outgoing.close();
+        for (Map.Entry<Bundle, Object> entry : bundles.entrySet()) {
+            trackerCustomizer.removedBundle(entry.getKey(), null, entry.getValue());
+        }
+    }
+
+    @Override
+    public Bundle[] getBundles() {
+        Tracked t = tracked;
+        if (t == null)
+            return null;
+
+        ConcurrentTracked.Snapshot<Bundle> snapshot = t.getSnapshot();
+        return snapshot.size() > 0 ? snapshot.items.clone() : null;
+    }
+
+    @Override
+    public Object getObject(Bundle bundle) {
+        Tracked t = tracked;
+        return t != null ? t.getSnapshot().objectMap.get(bundle) : null;
+    }
+
+    @Override
+    public void remove(Bundle bundle) {
+        Tracked t = tracked;
+        if (t != null) {
+            t.untrack(bundle, null);
+        }
+    }
+
+    @Override
+    public int size() {
+        Tracked t = tracked;
+        return t != null ? t.getSnapshot().size() : 0;
+    }
+
+    @Override
+    public int getTrackingCount() {
+        Tracked t = tracked;
+        return t != null ? t.getSnapshot().trackingCount : -1;
+    }
+
+    class Tracked extends ConcurrentTracked<Bundle> implements SynchronousBundleListener {
+
+        Tracked() {
+            super(BUNDLE_ID_ORDER);
+        }
+
+        @Override
+        public void bundleChanged(BundleEvent event) {
+            Bundle bundle = event.getBundle();
+            if ((bundle.getState() & stateMask) != 0) {
+                track(bundle, event);
+            } else {
+                untrack(bundle, event);
+            }
+        }
+
+        @Override
+        Bundle[] newArray(int size) {
+            return new Bundle[size];
+        }
+
+        @Override
+        Object customizerAdding(Bundle bundle, Object related) {
+            return trackerCustomizer.addingBundle(bundle, (BundleEvent) related);
+        }
+
+        @Override
+        void customizerModified(Bundle bundle, Object related, Object object) {
+            trackerCustomizer.modifiedBundle(bundle, (BundleEvent) related, object);
+        }
+
+        @Override
+        void customizerRemoved(Bundle bundle, Object related, Object object) {
+            trackerCustomizer.removedBundle(bundle, (BundleEvent) related, object);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.util;
+
+import static org.jboss.osgi.framework.internal.FrameworkMessages.MESSAGES;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.osgi.framework.AllServiceListener;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Filter;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+import org.osgi.util.tracker.ServiceTracker;
+import org.osgi.util.tracker.ServiceTrackerCustomizer;
+
+/**
+ * A {@link ServiceTracker} for trackers that are used on hot paths.
+ *
+ * The tracked services are kept in an immutable snapshot that is sorted by service ranking and published through a
+ * volatile reference. The accessors {@link #getService()}, {@link #getServices()}, {@link #getServiceReferences()} and
+ * {@link #getTrackingCount()} never lock. Changes to the tracked services are serialized and copy the snapshot.
+ *
+ * Filters that select an <code>objectClass</code> use the class name for the initial lookup, which uses the class
+ * index of the service registry.
+ *
+ * @since 19-Oct-2026
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class ConcurrentServiceTracker extends ServiceTracker {
+
+    private final ServiceTrackerCustomizer trackerCustomizer;
+    private final String trackClass;
+    private final ServiceReference trackReference;
+    private volatile Tracked tracked;
+
+    public ConcurrentServiceTracker(BundleContext context, ServiceReference reference, ServiceTrackerCustomizer customizer) {
+        super(context, reference, customizer);
+        this.trackerCustomizer = (customizer == null ? this : customizer);
+        this.trackClass = null;
+        this.trackReference = reference;
+    }
+
+    public ConcurrentServiceTracker(BundleContext context, String clazz, ServiceTrackerCustomizer customizer) {
+        super(context, clazz, customizer);
+        this.trackerCustomizer = (customizer == null ? this : customizer);
+        this.trackClass = clazz;
+        this.trackReference = null;
+    }
+
+    public ConcurrentServiceTracker(BundleContext context, Filter filter, ServiceTrackerCustomizer customizer) {
+        super(context, filter, customizer);
+        this.trackerCustomizer = (customizer == null ? this : customizer);
+        this.trackClass = null;
+        this.trackReference = null;
+    }
+
+    @Override
+    public void open() {
+        open(false);
+    }
+
+    @Override
+    public void open(boolean trackAllServices) {
+        Tracked t;
+        ServiceReference[] references;
+        synchronized (this) {
+            if (tracked != null)
+                return;
+
+            t = trackAllServices ? new AllTracked() : new Tracked();
+            String filterString = filter.toString();
+            context.addServiceListener(t, filterString);
+            try {
+                if (trackReference != null) {
+                    references = new ServiceReference[] { trackReference };
+                } else {
+                    String className = trackClass != null ? trackClass : getObjectClass(filterString);
+                    if (trackAllServices) {
+                        references = context.getAllServiceReferences(className, filterString);
+                    } else {
+                        references = context.getServiceReferences(className, filterString);
+                    }
+                }
+            } catch (InvalidSyntaxException ex) {
+                throw MESSAGES.illegalStateInvalidTrackerFilter(ex, filterString);
+            }
+            tracked = t;
+        }
+
+        // Track the initial services outside of the synchronized region
+        if (references != null) {
+            for (ServiceReference reference : references) {
+                // Skip services that were unregistered in the meantime
+                if (reference.getBundle() != null) {
+                    t.track(reference, null);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Tracked outgoing;
+        synchronized (this) {
+            outgoing = tracked;
+            if (outgoing == null)
+                return;
+
+            tracked = null;
+            try {
+                context.removeServiceListener(outgoing);
+            } catch (IllegalStateException ex) {
+                // In case the context was stopped
+            }
+        }
+        Map<ServiceReference, Object> services = outgoing.close();
+        for (Map.Entry<ServiceReference, Object> entry : services.entrySet()) {
+            trackerCustomizer.removedService(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public Object waitForService(long timeout) throws InterruptedException {
+        if (timeout < 0)
+            throw MESSAGES.illegalArgumentNegativeTimeout(timeout);
+
+        Object service = getService();
+        while (service == null) {
+            Tracked t = tracked;
+            if (t == null)
+                return null;
+
+            t.awaitTracked(timeout);
+            service = getService();
+            if (timeout > 0)
+                return service;
+        }
+        return service;
+    }
+
+    @Override
+    public ServiceReference[] getServiceReferences() {
+        Tracked t = tracked;
+        if (t == null)
+            return null;
+
+        ConcurrentTracked.Snapshot<ServiceReference> snapshot = t.getSnapshot();
+        return snapshot.size() > 0 ? snapshot.items.clone() : null;
+    }
+
+    @Override
+    public ServiceReference getServiceReference() {
+        Tracked t = tracked;
+        if (t == null)
+            return null;
+
+        ConcurrentTracked.Snapshot<ServiceReference> snapshot = t.getSnapshot();
+        return snapshot.size() > 0 ? snapshot.items[0] : null;
+    }
+
+    @Override
+    public Object getService(ServiceReference reference) {
+        Tracked t = tracked;
+        return t != null ? t.getSnapshot().objectMap.get(reference) : null;
+    }
+
+    @Override
+    public Object[] getServices() {
+        Tracked t = tracked;
+        if (t == null)
+            return null;
+
+        ConcurrentTracked.Snapshot<ServiceReference> snapshot = t.getSnapshot();
+        return snapshot.size() > 0 ? snapshot.objects.clone() : null;
+    }
+
+    @Override
+    public Object getService() {
+        Tracked t = tracked;
+        if (t == null)
+            return null;
+
+        ConcurrentTracked.Snapshot<ServiceReference> snapshot = t.getSnapshot();
+        return snapshot.size() > 0 ? snapshot.objects[0] : null;
+    }
+
+    @Override
+    public void remove(ServiceReference reference) {
+        Tracked t = tracked;
+        if (t != null) {
+            t.untrack(reference, null);
+        }
+    }
+
+    @Override
+    public int size() {
+        Tracked t = tracked;
+        return t != null ? t.getSnapshot().size() : 0;
+    }
+
+    @Override
+    public int getTrackingCount() {
+        Tracked t = tracked;
+        return t != null ? t.getSnapshot().trackingCount : -1;
+    }
+
+    /**
+     * Get the class name from a filter that selects a single <code>objectClass</code>, either on its own or as the first
+     * operand of a conjunction.
+     * @return The class name or null
+     */
+    static String getObjectClass(String filterString) {
+        String prefix = "(" + Constants.OBJECTCLASS + "=";
+        int start = -1;
+        if (filterString.startsWith(prefix)) {
+            start = prefix.length();
+        } else if (filterString.startsWith("(&" + prefix)) {
+            start = prefix.length() + 2;
+        }
+        if (start < 0)
+            return null;
+
+        int end = filterString.indexOf(')', start);
+        if (end <= start)
+            return null;
+
+        String className = filterString.substring(start, end);
+        return (className.indexOf('*') < 0 && className.indexOf('\\') < 0 ? className : null);
+    }
+
+    class Tracked extends ConcurrentTracked<ServiceReference> implements ServiceListener {
+
+        Tracked() {
+            // The highest ranking service first
+            super(Collections.reverseOrder());
+        }
+
+        @Override
+        public void serviceChanged(ServiceEvent event) {
+            ServiceReference reference = event.getServiceReference();
+            switch (event.getType()) {
+                case ServiceEvent.REGISTERED:
+                case ServiceEvent.MODIFIED:
+                    track(reference, event);
+                    break;
+                case ServiceEvent.MODIFIED_ENDMATCH:
+                case ServiceEvent.UNREGISTERING:
+                    untrack(reference, event);
+                    break;
+            }
+        }
+
+        @Override
+        ServiceReference[] newArray(int size) {
+            return new ServiceReference[size];
+        }
+
+        @Override
+        Object customizerAdding(ServiceReference reference, Object related) {
+            return trackerCustomizer.addingService(reference);
+        }
+
+        @Override
+        void customizerModified(ServiceReference reference, Object related, Object service) {
+            trackerCustomizer.modifiedService(reference, service);
+        }
+
+        @Override
+        void customizerRemoved(ServiceReference reference, Object related, Object service) {
+            trackerCustomizer.removedService(reference, service);
+        }
+    }
+
+    class AllTracked extends Tracked implements AllServiceListener {
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The tracked items of a concurrent tracker.
+ *
+ * Changes are serialized on an internal lock and published as an immutable {@link Snapshot} through a volatile reference,
+ * so that readers never lock. The customizer is never called while holding the lock.
+ *
+ * @since 19-Oct-2026
+ */
+abstract class ConcurrentTracked<K> {
+
+    private final Object lock = new Object();
+    private final Comparator<? super K> comparator;
+    private final Map<K, Object> tracked = new HashMap<K, Object>();
+    private final Set<K> adding = new HashSet<K>();
+    private volatile Snapshot<K> snapshot;
+    private int trackingCount;
+    private boolean closed;
+
+    ConcurrentTracked(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        this.snapshot = new Snapshot<K>(newArray(0), new Object[0], Collections.<K, Object> emptyMap(), 0);
+    }
+
+    /**
+     * Get the tracked items. The snapshot must not be modified.
+     */
+    Snapshot<K> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Begin to track the given item or report its modification.
+     */
+    void track(K item, Object related) {
+        boolean modified;
+        Object object;
+        synchronized (lock) {
+            if (closed)
+                return;
+            modified = tracked.containsKey(item);
+            object = tracked.get(item);
+            // The item is currently being added
+            if (modified == false && adding.add(item) == false)
+                return;
+        }
+
+        if (modified) {
+            synchronized (lock) {
+                if (tracked.containsKey(item)) {
+                    trackingCount++;
+                    // The modification may change the order
+                    publish();
+                }
+            }
+            customizerModified(item, related, object);
+            return;
+        }
+
+        Object newObject = null;
+        boolean removed = false;
+        try {
+            newObject = customizerAdding(item, related);
+        } finally {
+            synchronized (lock) {
+                // The item was untracked while it was being added
+                if (adding.remove(item) == false || closed) {
+                    removed = true;
+                } else if (newObject != null) {
+                    tracked.put(item, newObject);
+                    trackingCount++;
+                    publish();
+                }
+            }
+        }
+        if (removed && newObject != null) {
+            customizerRemoved(item, related, newObject);
+        }
+    }
+
+    /**
+     * Stop to track the given item.
+     */
+    void untrack(K item, Object related) {
+        Object object;
+        synchronized (lock) {
+            // The adding thread calls the customizer
+            if (adding.remove(item))
+                return;
+            if (tracked.containsKey(item) == false)
+                return;
+            object = tracked.remove(item);
+            trackingCount++;
+            publish();
+        }
+        customizerRemoved(item, related, object);
+    }
+
+    /**
+     * Wait until an item is tracked, this is closed or the timeout expires.
+     */
+    void awaitTracked(long timeout) throws InterruptedException {
+        synchronized (lock) {
+            if (closed == false && tracked.isEmpty()) {
+                lock.wait(timeout);
+            }
+        }
+    }
+
+    /**
+     * Close this and return the items that were tracked.
+     */
+    Map<K, Object> close() {
+        synchronized (lock) {
+            closed = true;
+            Map<K, Object> result = new HashMap<K, Object>(tracked);
+            tracked.clear();
+            adding.clear();
+            lock.notifyAll();
+            return result;
+        }
+    }
+
+    abstract K[] newArray(int size);
+
+    abstract Object customizerAdding(K item, Object related);
+
+    abstract void customizerModified(K item, Object related, Object object);
+
+    abstract void customizerRemoved(K item, Object related, Object object);
+
+    // Must be called while holding the lock
+    private void publish() {
+        K[] items = tracked.keySet().toArray(newArray(tracked.size()));
+        if (comparator != null && items.length > 1) {
+            Arrays.sort(items, comparator);
+        }
+        Object[] objects = new Object[items.length];
+        for (int i = 0; i < items.length; i++) {
+            objects[i] = tracked.get(items[i]);
+        }
+        snapshot = new Snapshot<K>(items, objects, new HashMap<K, Object>(tracked), trackingCount);
+        lock.notifyAll();
+    }
+
+    /**
+     * An immutable view of the tracked items and their customized objects in tracking order.
+     */
+    static final class Snapshot<K> {
+        final K[] items;
+        final Object[] objects;
+        final Map<K, Object> objectMap;
+        final int trackingCount;
+
+        Snapshot(K[] items, Object[] objects, Map<K, Object> objectMap, int trackingCount) {
+            this.items = items;
+            this.objects = objects;
+            this.objectMap = objectMap;
+            this.trackingCount = trackingCount;
+        }
+
+        int size() {
+            return items.length;
+        }
+    }
+}
@@ -21,7 +21,15 @@
  */
 package org.jboss.osgi.framework.internal;
 
+import java.io.InputStream;
+
+import org.jboss.osgi.spi.OSGiManifestBuilder;
 import org.jboss.osgi.testing.OSGiFrameworkTest;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.test.osgi.framework.subA.SimpleActivator;
+import org.jboss.test.osgi.framework.subA.SimpleService;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleException;
 
@@ -42,4 +50,33 @@ public abstract class AbstractFrameworkTest extends OSGiFrameworkTest {
     protected FrameworkState getFrameworkState() throws BundleException {
         return getBundleManager().getFrameworkState();
     }
-}
\ No newline at end of file
+
+    /**
+     * Get a bundle archive that contains the {@link SimpleService} and the {@link SimpleActivator}.
+     * The bundle imports org.osgi.framework and the given packages.
+     *
+     * @param exportPackage The package to export, may be null
+     */
+    protected JavaArchive getSimpleArchive(final String name, final String exportPackage, final String... importPackages) {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, name);
+        archive.addClasses(SimpleService.class, SimpleActivator.class);
+        archive.setManifest(new Asset() {
+            public InputStream openStream() {
+                OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
+                builder.addBundleManifestVersion(2);
+                builder.addBundleSymbolicName(archive.getName());
+                builder.addBundleVersion("1.0.0");
+                builder.addBundleActivator(SimpleActivator.class);
+                builder.addImportPackages("org.osgi.framework");
+                if (importPackages.length > 0) {
+                    builder.addImportPackages(importPackages);
+                }
+                if (exportPackage != null) {
+                    builder.addExportPackages(exportPackage);
+                }
+                return builder.openStream();
+            }
+        });
+        return archive;
+    }
+}
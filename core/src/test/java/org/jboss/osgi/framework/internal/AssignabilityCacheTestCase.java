@@ -0,0 +1,170 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+
+import org.jboss.osgi.spi.OSGiManifestBuilder;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.test.osgi.framework.subA.SimpleService;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Test the caching of {@link ServiceState#isAssignableTo(Bundle, String)} results.
+ *
+ * @since 19-Oct-2026
+ */
+public class AssignabilityCacheTestCase extends AbstractFrameworkTest {
+
+    private static final String SERVICE_CLASS = SimpleService.class.getName();
+
+    @Test
+    public void testWiredResultCached() throws Exception {
+        Bundle provider = installBundle(getSimpleArchive("assignable-provider", SimpleService.class.getPackage().getName()));
+        Bundle consumer = installBundle(getConsumerArchive("assignable-consumer", SimpleService.class.getPackage().getName(), null));
+        try {
+            provider.start();
+            ServiceState serviceState = getServiceState();
+            assertTrue(serviceState.isAssignableTo(consumer, SERVICE_CLASS));
+            assertEquals(Boolean.TRUE, getCache().get(getRevision(consumer), getRevision(provider), SERVICE_CLASS));
+        } finally {
+            consumer.uninstall();
+            provider.uninstall();
+        }
+    }
+
+    @Test
+    public void testLenientResultCached() throws Exception {
+        Bundle provider = installBundle(getSimpleArchive("assignable-provider", SimpleService.class.getPackage().getName()));
+        Bundle consumer = installBundle(getConsumerArchive("assignable-consumer", null, null));
+        try {
+            provider.start();
+            getBundleManager().resolveBundles(null);
+            ServiceState serviceState = getServiceState();
+            assertTrue(serviceState.isAssignableTo(consumer, SERVICE_CLASS));
+            assertEquals(Boolean.TRUE, getCache().get(getRevision(consumer), getRevision(provider), SERVICE_CLASS));
+        } finally {
+            consumer.uninstall();
+            provider.uninstall();
+        }
+    }
+
+    @Test
+    public void testLenientResultNotCachedWithDynamicImport() throws Exception {
+        Bundle provider = installBundle(getSimpleArchive("assignable-provider", SimpleService.class.getPackage().getName()));
+        Bundle consumer = installBundle(getConsumerArchive("assignable-consumer", null, "org.acme.*"));
+        try {
+            provider.start();
+            getBundleManager().resolveBundles(null);
+            ServiceState serviceState = getServiceState();
+            assertTrue(serviceState.isAssignableTo(consumer, SERVICE_CLASS));
+            assertNull(getCache().get(getRevision(consumer), getRevision(provider), SERVICE_CLASS));
+        } finally {
+            consumer.uninstall();
+            provider.uninstall();
+        }
+    }
+
+    @Test
+    public void testDynamicProviderInvalidates() throws Exception {
+        Bundle provider = installBundle(getSimpleArchive("assignable-provider", SimpleService.class.getPackage().getName()));
+        Bundle consumer = installBundle(getConsumerArchive("assignable-consumer", null, "org.acme.*"));
+        try {
+            getBundleManager().resolveBundles(null);
+            HostBundleRevision consumerRev = HostBundleRevision.assertHostRevision(getRevision(consumer));
+            AbstractBundleRevision providerRev = getRevision(provider);
+            AssignabilityCache cache = getCache();
+            cache.put(consumerRev, providerRev, SERVICE_CLASS, true);
+            assertEquals(Boolean.TRUE, cache.get(consumerRev, providerRev, SERVICE_CLASS));
+
+            consumerRev.addDynamicProvider(providerRev);
+            assertNull(cache.get(consumerRev, providerRev, SERVICE_CLASS));
+        } finally {
+            consumer.uninstall();
+            provider.uninstall();
+        }
+    }
+
+    @Test
+    public void testUninstallInvalidates() throws Exception {
+        Bundle provider = installBundle(getSimpleArchive("assignable-provider", SimpleService.class.getPackage().getName()));
+        Bundle consumer = installBundle(getConsumerArchive("assignable-consumer", SimpleService.class.getPackage().getName(), null));
+        try {
+            provider.start();
+            ServiceState serviceState = getServiceState();
+            AbstractBundleRevision consumerRev = getRevision(consumer);
+            AbstractBundleRevision providerRev = getRevision(provider);
+            assertTrue(serviceState.isAssignableTo(consumer, SERVICE_CLASS));
+            assertNotNull(getCache().get(consumerRev, providerRev, SERVICE_CLASS));
+
+            consumer.uninstall();
+            assertNull(getCache().get(consumerRev, providerRev, SERVICE_CLASS));
+        } finally {
+            if (consumer.getState() != Bundle.UNINSTALLED) {
+                consumer.uninstall();
+            }
+            provider.uninstall();
+        }
+    }
+
+    private ServiceState getServiceState() throws Exception {
+        ServiceReference sref = getSystemContext().getServiceReference(SERVICE_CLASS);
+        assertNotNull("ServiceReference not null", sref);
+        return ServiceState.assertServiceState(sref);
+    }
+
+    private AssignabilityCache getCache() throws Exception {
+        return getFrameworkState().getServiceManagerPlugin().getAssignabilityCache();
+    }
+
+    private AbstractBundleRevision getRevision(Bundle bundle) {
+        return AbstractBundleState.assertBundleState(bundle).getCurrentBundleRevision();
+    }
+
+    private JavaArchive getConsumerArchive(final String name, final String importPackage, final String dynamicImport) {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, name);
+        archive.setManifest(new Asset() {
+            public InputStream openStream() {
+                OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
+                builder.addBundleManifestVersion(2);
+                builder.addBundleSymbolicName(archive.getName());
+                if (importPackage != null) {
+                    builder.addImportPackages(importPackage);
+                }
+                if (dynamicImport != null) {
+                    builder.addManifestHeader("DynamicImport-Package", dynamicImport);
+                }
+                return builder.openStream();
+            }
+        });
+        return archive;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Dictionary;
+
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+
+/**
+ * Test the localized manifest headers of a bundle.
+ *
+ * @since 19-Oct-2026
+ */
+public class BundleHeadersTestCase extends AbstractFrameworkTest {
+
+    @Test
+    public void testCallersGetOwnHeaders() throws Exception {
+        Bundle bundle = installBundle(getSimpleArchive("headers-bundle", null));
+        try {
+            Dictionary<String, String> headers = bundle.getHeaders();
+            assertEquals("headers-bundle", headers.get(Constants.BUNDLE_SYMBOLICNAME));
+            headers.put(Constants.BUNDLE_SYMBOLICNAME, "modified");
+
+            // The cached headers are not affected by the modification
+            Dictionary<String, String> other = bundle.getHeaders();
+            assertNotSame(headers, other);
+            assertEquals("headers-bundle", other.get(Constants.BUNDLE_SYMBOLICNAME));
+            assertEquals("headers-bundle", bundle.getHeaders("de").get(Constants.BUNDLE_SYMBOLICNAME));
+        } finally {
+            bundle.uninstall();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import org.jboss.osgi.deployment.deployer.Deployment;
+import org.jboss.osgi.vfs.VirtualFile;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test the non-blocking bundle install API.
+ *
+ * @since 19-Oct-2026
+ */
+public class BundleInstallAsyncTestCase extends AbstractFrameworkTest {
+
+    @Test
+    public void testInstallBundleAsync() throws Exception {
+        Deployment dep = createDeployment(getSimpleArchive("async-bundle", null));
+        Future<Bundle> future = getBundleManager().installBundleAsync(dep);
+        Bundle bundle = future.get(10, TimeUnit.SECONDS);
+        assertNotNull("Bundle not null", bundle);
+        assertTrue("Future done", future.isDone());
+        assertEquals("async-bundle", bundle.getSymbolicName());
+        assertBundleState(Bundle.INSTALLED, bundle.getState());
+
+        bundle.uninstall();
+        assertBundleState(Bundle.UNINSTALLED, bundle.getState());
+    }
+
+    @Test
+    public void testInstallBundles() throws Exception {
+        List<Deployment> deps = new ArrayList<Deployment>();
+        for (int i = 0; i < 5; i++) {
+            deps.add(createDeployment(getSimpleArchive("bulk-bundle-" + i, null)));
+        }
+        List<Future<Bundle>> futures = getBundleManager().installBundles(deps);
+        assertEquals(5, futures.size());
+        for (int i = 0; i < 5; i++) {
+            Bundle bundle = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals("bulk-bundle-" + i, bundle.getSymbolicName());
+            assertBundleState(Bundle.INSTALLED, bundle.getState());
+        }
+        for (Future<Bundle> future : futures) {
+            future.get().uninstall();
+        }
+    }
+
+    @Test
+    public void testInstallBundlesWithInvalidDeployment() throws Exception {
+        List<Deployment> deps = new ArrayList<Deployment>();
+        deps.add(null);
+        deps.add(createDeployment(getSimpleArchive("valid-bundle", null)));
+        List<Future<Bundle>> futures = getBundleManager().installBundles(deps);
+        try {
+            futures.get(0).get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException ex) {
+            // expected
+        }
+        Bundle bundle = futures.get(1).get(10, TimeUnit.SECONDS);
+        assertBundleState(Bundle.INSTALLED, bundle.getState());
+        bundle.uninstall();
+    }
+
+    private Deployment createDeployment(JavaArchive archive) throws Exception {
+        VirtualFile rootFile = toVirtualFile(archive);
+        DeploymentFactoryPlugin deploymentPlugin = getFrameworkState().getDeploymentFactoryPlugin();
+        return deploymentPlugin.createDeployment(archive.getName(), rootFile);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.osgi.framework.Bundle.INSTALLED;
+import static org.osgi.framework.Bundle.RESOLVED;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.test.osgi.framework.subA.SimpleService;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+
+/**
+ * Test the bulk resolve of installed bundles.
+ *
+ * @since 19-Oct-2026
+ */
+public class BundleResolveTestCase extends AbstractFrameworkTest {
+
+    @Test
+    public void testResolveInstalledBundles() throws Exception {
+        Bundle provider = installBundle(getSimpleArchive("resolve-provider", SimpleService.class.getPackage().getName()));
+        Bundle consumer = installBundle(getSimpleArchive("resolve-consumer", null, SimpleService.class.getPackage().getName()));
+        Bundle unresolvable = installBundle(getSimpleArchive("resolve-unresolvable", null, "org.jboss.test.osgi.missing"));
+        try {
+            assertBundleState(INSTALLED, provider.getState());
+            assertBundleState(INSTALLED, consumer.getState());
+            assertBundleState(INSTALLED, unresolvable.getState());
+
+            Set<Bundle> unresolved = getBundleManager().resolveBundles(null);
+            assertEquals(1, unresolved.size());
+            assertTrue(unresolved.contains(unresolvable));
+            assertBundleState(RESOLVED, provider.getState());
+            assertBundleState(RESOLVED, consumer.getState());
+            assertBundleState(INSTALLED, unresolvable.getState());
+
+            // Resolved bundles are not resolved again
+            unresolved = getBundleManager().resolveBundles(null);
+            assertEquals(1, unresolved.size());
+            assertBundleState(RESOLVED, consumer.getState());
+        } finally {
+            unresolvable.uninstall();
+            consumer.uninstall();
+            provider.uninstall();
+        }
+    }
+
+    @Test
+    public void testResolveWiredBundlesInOnePass() throws Exception {
+        String packageName = SimpleService.class.getPackage().getName();
+        Bundle provider = installBundle(getSimpleArchive("resolve-shared-provider", packageName));
+        List<Bundle> consumers = new ArrayList<Bundle>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                consumers.add(installBundle(getSimpleArchive("resolve-shared-consumer" + i, null, packageName)));
+            }
+
+            // The module specs and class loaders of the resolved bundles are built concurrently
+            Set<Bundle> unresolved = getBundleManager().resolveBundles(null);
+            assertTrue(unresolved.isEmpty());
+            assertBundleState(RESOLVED, provider.getState());
+
+            Class<?> expected = provider.loadClass(SimpleService.class.getName());
+            for (Bundle consumer : consumers) {
+                assertBundleState(RESOLVED, consumer.getState());
+                assertSame(expected, consumer.loadClass(SimpleService.class.getName()));
+            }
+        } finally {
+            for (Bundle consumer : consumers) {
+                consumer.uninstall();
+            }
+            provider.uninstall();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import org.jboss.test.osgi.framework.subA.SimpleService;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.SynchronousBundleListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the concurrent start of multiple bundles.
+ *
+ * @since 19-Oct-2026
+ */
+public class BundleStartPluginTestCase extends AbstractFrameworkTest {
+
+    @Test
+    public void testStartBundles() throws Exception {
+        List<Bundle> bundles = new ArrayList<Bundle>();
+        for (int i = 0; i < 4; i++) {
+            bundles.add(installBundle(getSimpleArchive("start-bundle-" + i, null)));
+        }
+        Map<Bundle, BundleException> failures = getBundleManager().startBundles(bundles, 0);
+        assertTrue("No failures: " + failures, failures.isEmpty());
+        for (Bundle bundle : bundles) {
+            assertBundleState(Bundle.ACTIVE, bundle.getState());
+            bundle.uninstall();
+        }
+    }
+
+    @Test
+    public void testStartBundlesWithFailure() throws Exception {
+        Bundle bundleA = installBundle(getSimpleArchive("start-bundle-a", null));
+        Bundle bundleB = installBundle(getSimpleArchive("start-bundle-b", null, "org.acme.unresolvable"));
+        List<Bundle> bundles = new ArrayList<Bundle>();
+        bundles.add(bundleA);
+        bundles.add(bundleB);
+        Map<Bundle, BundleException> failures = getBundleManager().startBundles(bundles, 0);
+        assertEquals("One failure: " + failures, 1, failures.size());
+        assertTrue("Bundle B failed", failures.containsKey(bundleB));
+        assertBundleState(Bundle.ACTIVE, bundleA.getState());
+        bundleA.uninstall();
+        bundleB.uninstall();
+    }
+
+    @Test
+    public void testStartBundlesInDependencyOrder() throws Exception {
+        String packageName = SimpleService.class.getPackage().getName();
+        Bundle consumer = installBundle(getSimpleArchive("ordered-consumer", null, packageName));
+        Bundle provider = installBundle(getSimpleArchive("ordered-provider", packageName));
+        Bundle unresolvable = installBundle(getSimpleArchive("ordered-unresolvable", null, "org.acme.unresolvable"));
+
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        SynchronousBundleListener listener = new SynchronousBundleListener() {
+            public void bundleChanged(BundleEvent event) {
+                if (event.getType() == BundleEvent.STARTING || event.getType() == BundleEvent.STARTED) {
+                    events.add(event.getBundle().getSymbolicName() + ":" + event.getType());
+                }
+            }
+        };
+        getSystemContext().addBundleListener(listener);
+        try {
+            List<Bundle> bundles = new ArrayList<Bundle>();
+            bundles.add(consumer);
+            bundles.add(provider);
+            bundles.add(unresolvable);
+            Map<Bundle, BundleException> failures = getBundleManager().startBundles(bundles, 0);
+            assertEquals("One failure: " + failures, 1, failures.size());
+            assertTrue("Unresolvable failed", failures.containsKey(unresolvable));
+            assertBundleState(Bundle.ACTIVE, provider.getState());
+            assertBundleState(Bundle.ACTIVE, consumer.getState());
+
+            // The provider activator completes before the consumer activator is called
+            int providerStarted = events.indexOf("ordered-provider:" + BundleEvent.STARTED);
+            int consumerStarting = events.indexOf("ordered-consumer:" + BundleEvent.STARTING);
+            assertTrue("Provider started: " + events, providerStarted >= 0);
+            assertTrue("Provider started before consumer: " + events, providerStarted < consumerStarting);
+        } finally {
+            getSystemContext().removeBundleListener(listener);
+            unresolvable.uninstall();
+            consumer.uninstall();
+            provider.uninstall();
+        }
+    }
+}
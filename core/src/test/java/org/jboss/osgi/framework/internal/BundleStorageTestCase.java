@@ -21,17 +21,24 @@
  */
 package org.jboss.osgi.framework.internal;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilenameFilter;
 import java.io.InputStream;
+import java.security.MessageDigest;
 
 import org.jboss.osgi.framework.StorageState;
 import org.jboss.osgi.framework.internal.BundleStoragePlugin.InternalStorageState;
+import org.jboss.osgi.framework.internal.BundleStoragePlugin.StoredContent;
 import org.jboss.osgi.spi.OSGiManifestBuilder;
 import org.jboss.osgi.vfs.AbstractVFS;
 import org.jboss.osgi.vfs.VFSUtils;
@@ -42,7 +49,10 @@ import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.jboss.test.osgi.framework.subA.SimpleActivator;
 import org.jboss.test.osgi.framework.subA.SimpleService;
 import org.junit.Test;
+import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleActivator;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
 
 /**
  * Test bundle storage
@@ -99,6 +109,92 @@ public class BundleStorageTestCase extends AbstractFrameworkTest {
         assertFalse("Storage dir deleted", storageDir.exists());
     }
 
+    @Test
+    public void testStoreBundleContent() throws Exception {
+        BundleStoragePlugin storagePlugin = getFrameworkState().getBundleStoragePlugin();
+        byte[] bytes = toByteArray(getArchive());
+
+        StoredContent storedContent = storagePlugin.storeBundleContent(100, new ByteArrayInputStream(bytes));
+        try {
+            File file = storedContent.getFile();
+            assertTrue("Content file exists", file.isFile());
+            assertEquals(bytes.length, file.length());
+            assertEquals(getDigest(bytes), storedContent.getDigest());
+        } finally {
+            storagePlugin.deleteStoredContent(storedContent);
+        }
+        assertFalse("Storage dir deleted", storedContent.getFile().getParentFile().exists());
+    }
+
+    @Test
+    public void testInstallStreamsContentOnce() throws Exception {
+        byte[] bytes = toByteArray(getArchive());
+        Bundle bundle = getSystemContext().installBundle("stream-location", new ByteArrayInputStream(bytes));
+        try {
+            InternalStorageState storageState = UserBundleState.assertBundleState(bundle).getStorageState();
+            File storageDir = storageState.getStorageDir();
+            File[] jars = storageDir.listFiles(new FilenameFilter() {
+                public boolean accept(File dir, String name) {
+                    return name.endsWith(".jar");
+                }
+            });
+            assertEquals(1, jars.length);
+            assertEquals(jars[0].getName(), storageState.getProperties().getProperty(StorageState.PROPERTY_BUNDLE_FILE));
+            assertEquals(getDigest(bytes), storageState.getProperties().getProperty(StorageState.PROPERTY_BUNDLE_DIGEST));
+        } finally {
+            bundle.uninstall();
+        }
+    }
+
+    @Test
+    public void testConcurrentInstallDeletesUnusedContent() throws Exception {
+        final BundleContext context = getSystemContext();
+        final byte[] bytes = toByteArray(getArchive());
+        final Bundle[] winner = new Bundle[1];
+
+        // Install the same location while the content of the first install is being stored
+        InputStream input = new ByteArrayInputStream(bytes) {
+            public synchronized int read(byte[] b, int off, int len) {
+                if (winner[0] == null) {
+                    try {
+                        winner[0] = context.installBundle("concurrent-location", new ByteArrayInputStream(bytes));
+                    } catch (BundleException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+                return super.read(b, off, len);
+            }
+        };
+        Bundle bundle = context.installBundle("concurrent-location", input);
+        try {
+            assertNotNull("Winner installed", winner[0]);
+            assertSame(winner[0], bundle);
+
+            // The losing install stored its content with the id before the winner's
+            BundleStoragePlugin storagePlugin = getFrameworkState().getBundleStoragePlugin();
+            File loserDir = new File(storagePlugin.getStorageArea() + "/bundle-" + (bundle.getBundleId() - 1));
+            assertFalse("Unused content deleted", loserDir.exists());
+            assertNotNull(bundle.loadClass(SimpleService.class.getName()));
+        } finally {
+            bundle.uninstall();
+        }
+    }
+
+    private byte[] toByteArray(JavaArchive archive) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        VFSUtils.copyStream(toInputStream(archive), output);
+        return output.toByteArray();
+    }
+
+    private String getDigest(byte[] bytes) throws Exception {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-1").digest(bytes)) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+
     private void assertStorageState(StorageState storageState) {
         assertNotNull("BundleStorageState not null", storageState);
 
@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.InputStream;
+import java.util.Hashtable;
+
+import org.jboss.osgi.framework.util.ConcurrentBundleTracker;
+import org.jboss.osgi.framework.util.ConcurrentServiceTracker;
+import org.jboss.osgi.spi.OSGiManifestBuilder;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Test the {@link ConcurrentServiceTracker} and the {@link ConcurrentBundleTracker}.
+ *
+ * @since 19-Oct-2026
+ */
+public class ConcurrentTrackerTestCase extends AbstractFrameworkTest {
+
+    @Test
+    public void testServiceRanking() throws Exception {
+        BundleContext context = getSystemContext();
+        Runnable low = new TestRunnable();
+        Runnable high = new TestRunnable();
+        Runnable medium = new TestRunnable();
+        ServiceRegistration lowReg = context.registerService(Runnable.class.getName(), low, getProperties(1, "a"));
+        ServiceRegistration highReg = context.registerService(Runnable.class.getName(), high, getProperties(5, "a"));
+        ServiceRegistration mediumReg = context.registerService(Runnable.class.getName(), medium, getProperties(3, "a"));
+
+        ConcurrentServiceTracker tracker = new ConcurrentServiceTracker(context, Runnable.class.getName(), null);
+        assertNull(tracker.getService());
+        assertEquals(-1, tracker.getTrackingCount());
+        tracker.open();
+        try {
+            assertEquals(3, tracker.size());
+            assertSame(high, tracker.getService());
+            assertEquals(highReg.getReference(), tracker.getServiceReference());
+            Object[] services = tracker.getServices();
+            assertSame(high, services[0]);
+            assertSame(medium, services[1]);
+            assertSame(low, services[2]);
+            ServiceReference[] references = tracker.getServiceReferences();
+            assertEquals(mediumReg.getReference(), references[1]);
+            assertSame(low, tracker.getService(lowReg.getReference()));
+
+            // Raise the ranking of the low service
+            int trackingCount = tracker.getTrackingCount();
+            lowReg.setProperties(getProperties(10, "a"));
+            assertSame(low, tracker.getService());
+            assertEquals(trackingCount + 1, tracker.getTrackingCount());
+
+            lowReg.unregister();
+            assertEquals(2, tracker.size());
+            assertSame(high, tracker.getService());
+            assertNull(tracker.getService(lowReg.getReference()));
+        } finally {
+            tracker.close();
+            highReg.unregister();
+            mediumReg.unregister();
+        }
+        assertNull(tracker.getService());
+        assertNull(tracker.getServiceReferences());
+        assertEquals(0, tracker.size());
+        assertEquals(-1, tracker.getTrackingCount());
+    }
+
+    @Test
+    public void testServiceFilter() throws Exception {
+        BundleContext context = getSystemContext();
+        ServiceRegistration regA = context.registerService(Runnable.class.getName(), new TestRunnable(), getProperties(0, "a"));
+        ServiceRegistration regB = context.registerService(Runnable.class.getName(), new TestRunnable(), getProperties(0, "b"));
+
+        String filter = "(&(" + Constants.OBJECTCLASS + "=" + Runnable.class.getName() + ")(group=a))";
+        ConcurrentServiceTracker tracker = new ConcurrentServiceTracker(context, context.createFilter(filter), null);
+        tracker.open();
+        try {
+            assertEquals(1, tracker.size());
+            assertEquals(regA.getReference(), tracker.getServiceReference());
+
+            // The modified service no longer matches
+            regA.setProperties(getProperties(0, "b"));
+            assertEquals(0, tracker.size());
+            assertNull(tracker.getServiceReferences());
+
+            regB.setProperties(getProperties(0, "a"));
+            assertEquals(regB.getReference(), tracker.getServiceReference());
+            assertNotNull(tracker.waitForService(100));
+        } finally {
+            tracker.close();
+            regA.unregister();
+            regB.unregister();
+        }
+    }
+
+    @Test
+    public void testBundleTracker() throws Exception {
+        BundleContext context = getSystemContext();
+        ConcurrentBundleTracker tracker = new ConcurrentBundleTracker(context, Bundle.INSTALLED | Bundle.RESOLVED, null);
+        tracker.open();
+        try {
+            int size = tracker.size();
+            Bundle bundle = installBundle(getTestArchive());
+            assertEquals(size + 1, tracker.size());
+            assertSame(bundle, tracker.getObject(bundle));
+
+            bundle.start();
+            assertEquals(size, tracker.size());
+            assertNull(tracker.getObject(bundle));
+
+            bundle.stop();
+            assertSame(bundle, tracker.getObject(bundle));
+
+            bundle.uninstall();
+            assertEquals(size, tracker.size());
+        } finally {
+            tracker.close();
+        }
+        assertNull(tracker.getBundles());
+        assertEquals(-1, tracker.getTrackingCount());
+    }
+
+    private Hashtable<String, Object> getProperties(int ranking, String group) {
+        Hashtable<String, Object> props = new Hashtable<String, Object>();
+        props.put(Constants.SERVICE_RANKING, ranking);
+        props.put("group", group);
+        return props;
+    }
+
+    private JavaArchive getTestArchive() {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "tracked-bundle");
+        archive.setManifest(new Asset() {
+            public InputStream openStream() {
+                OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
+                builder.addBundleManifestVersion(2);
+                builder.addBundleSymbolicName(archive.getName());
+                return builder.openStream();
+            }
+        });
+        return archive;
+    }
+
+    static class TestRunnable implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+}
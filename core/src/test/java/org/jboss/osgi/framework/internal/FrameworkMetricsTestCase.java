@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.osgi.framework.FrameworkMetrics.LatencyStatistics;
+import org.junit.Test;
+
+/**
+ * Unit tests for the metrics counters and latency histograms.
+ *
+ * @since 19-Oct-2026
+ */
+public class FrameworkMetricsTestCase {
+
+    @Test
+    public void testCounter() throws Exception {
+        MetricsCounter counter = new MetricsCounter(true);
+        counter.increment();
+        counter.add(41);
+        assertEquals(42, counter.sum());
+        counter.reset();
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    public void testDisabledCounter() throws Exception {
+        MetricsCounter counter = new MetricsCounter(false);
+        counter.increment();
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    public void testConcurrentCounter() throws Exception {
+        final MetricsCounter counter = new MetricsCounter(true);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        counter.increment();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, counter.sum());
+    }
+
+    @Test
+    public void testBucketBounds() throws Exception {
+        long[] values = new long[] { 0, 1, 7, 8, 9, 15, 16, 1000, 123456789L, Long.MAX_VALUE };
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue("Lower bound for " + value, LatencyHistogram.bucketLowerBound(index) <= value);
+            assertTrue("Upper bound for " + value, LatencyHistogram.bucketUpperBound(index) >= value);
+        }
+    }
+
+    @Test
+    public void testHistogram() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(true);
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+        LatencyStatistics stats = histogram.getStatistics();
+        assertEquals(100, stats.getCount());
+        assertEquals(100000, stats.getMax());
+        assertEquals(50500, stats.getMean());
+        assertWithinBucket(50000, stats.getMedian());
+        assertWithinBucket(90000, stats.get90thPercentile());
+        assertWithinBucket(99000, stats.get99thPercentile());
+
+        histogram.reset();
+        assertEquals(0, histogram.getStatistics().getCount());
+    }
+
+    @Test
+    public void testConcurrentHistogram() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram(true);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final long value = (i + 1) * 1000L;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        histogram.record(value);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyStatistics stats = histogram.getStatistics();
+        assertEquals(40000, stats.getCount());
+        assertEquals(4000, stats.getMax());
+        assertEquals(2500, stats.getMean());
+        assertEquals(LatencyHistogram.bucketLowerBound(LatencyHistogram.bucketIndex(1000)), stats.getMin());
+        assertWithinBucket(4000, stats.get99thPercentile());
+    }
+
+    @Test
+    public void testDisabledHistogram() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(false);
+        histogram.stop(histogram.start());
+        histogram.record(1000);
+        assertEquals(0, histogram.getStatistics().getCount());
+    }
+
+    private void assertWithinBucket(long expected, long actual) {
+        int index = LatencyHistogram.bucketIndex(expected);
+        assertEquals(LatencyHistogram.bucketUpperBound(index), actual);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.msc.service.ServiceController;
+import org.jboss.osgi.framework.IntegrationServices;
+import org.jboss.osgi.spi.OSGiManifestBuilder;
+import org.jboss.osgi.spi.util.ServiceLoader;
+import org.jboss.osgi.testing.OSGiTest;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.test.osgi.framework.subA.SimpleActivator;
+import org.jboss.test.osgi.framework.subA.SimpleService;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.launch.Framework;
+import org.osgi.framework.launch.FrameworkFactory;
+import org.osgi.service.startlevel.StartLevel;
+
+/**
+ * Test the COMPLETE step of the auto install handler.
+ *
+ * @since 19-Oct-2026
+ */
+public class InstallCompleteTestCase extends OSGiTest {
+
+    private final File storageDir = new File("target/test-osgi-install-complete").getAbsoluteFile();
+
+    @Test
+    public void testAutoInstallComplete() throws Exception {
+        File providerFile = exportArchive(getArchive("auto-provider", SimpleService.class.getPackage().getName(), null));
+        File consumerFile = exportArchive(getArchive("auto-consumer", null, SimpleService.class.getPackage().getName()));
+        Map<String, String> props = getFrameworkProperties();
+        props.put(org.jboss.osgi.framework.Constants.PROPERTY_AUTO_START_URLS, providerFile.getPath() + "," + consumerFile.getPath());
+        Framework framework = ServiceLoader.loadService(FrameworkFactory.class).newFramework(props);
+        try {
+            framework.init();
+
+            // The batch runs at start level 0, so the bundles are only marked for start when the COMPLETE service is up
+            BundleContext context = framework.getBundleContext();
+            BundleManagerPlugin bundleManager = AbstractBundleState.assertBundleState(context.getBundle()).getBundleManager();
+            ServiceController<?> controller = bundleManager.getServiceContainer().getService(IntegrationServices.AUTOINSTALL_COMPLETE);
+            assertEquals(ServiceController.State.UP, controller.getState());
+            StartLevel startLevel = getStartLevel(context);
+            Bundle[] bundles = context.getBundles();
+            assertEquals(3, bundles.length);
+            for (Bundle bundle : bundles) {
+                if (bundle.getBundleId() != 0) {
+                    assertTrue("Persistently started: " + bundle, startLevel.isBundlePersistentlyStarted(bundle));
+                }
+            }
+
+            framework.start();
+            for (Bundle bundle : context.getBundles()) {
+                assertBundleState(Bundle.ACTIVE, bundle.getState());
+            }
+        } finally {
+            framework.stop();
+            framework.waitForStop(2000);
+            providerFile.delete();
+            consumerFile.delete();
+        }
+    }
+
+    private Map<String, String> getFrameworkProperties() {
+        Map<String, String> props = new HashMap<String, String>();
+        props.put(Constants.FRAMEWORK_STORAGE, storageDir.getPath());
+        props.put(Constants.FRAMEWORK_BEGINNING_STARTLEVEL, "2");
+        props.put(Constants.FRAMEWORK_STORAGE_CLEAN, Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT);
+        return props;
+    }
+
+    private StartLevel getStartLevel(BundleContext context) {
+        return (StartLevel) context.getService(context.getServiceReference(StartLevel.class.getName()));
+    }
+
+    private File exportArchive(JavaArchive archive) throws Exception {
+        File file = File.createTempFile(archive.getName(), ".jar");
+        FileOutputStream output = new FileOutputStream(file);
+        try {
+            archive.as(ZipExporter.class).exportTo(output);
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+
+    private JavaArchive getArchive(final String name, final String exportPackage, final String importPackage) {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, name);
+        archive.addClasses(SimpleService.class, SimpleActivator.class);
+        archive.setManifest(new Asset() {
+            public InputStream openStream() {
+                OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
+                builder.addBundleManifestVersion(2);
+                builder.addBundleSymbolicName(archive.getName());
+                builder.addBundleActivator(SimpleActivator.class);
+                builder.addImportPackages("org.osgi.framework");
+                if (importPackage != null) {
+                    builder.addImportPackages(importPackage);
+                }
+                if (exportPackage != null) {
+                    builder.addExportPackages(exportPackage);
+                }
+                return builder.openStream();
+            }
+        });
+        return archive;
+    }
+}
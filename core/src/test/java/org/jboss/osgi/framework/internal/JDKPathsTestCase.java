@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Set;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the JDK paths index.
+ *
+ * @since 19-Oct-2026
+ */
+public class JDKPathsTestCase {
+
+    private static final String INDEXED_PATH = "org/jboss/indexed";
+
+    private File jarFile;
+    private File indexFile;
+
+    @Before
+    public void setUp() throws Exception {
+        JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "jdk-paths.jar");
+        archive.add(new StringAsset("foo"), "org/jboss/foo/foo.txt");
+        archive.add(new StringAsset("bar"), "org/jboss/bar/bar.txt");
+        jarFile = File.createTempFile("jdk-paths", ".jar");
+        FileOutputStream output = new FileOutputStream(jarFile);
+        try {
+            archive.as(ZipExporter.class).exportTo(output);
+        } finally {
+            output.close();
+        }
+        indexFile = File.createTempFile("jdk-paths", ".index");
+        indexFile.delete();
+    }
+
+    @After
+    public void tearDown() {
+        jarFile.delete();
+        indexFile.delete();
+    }
+
+    @Test
+    public void testIndexRoundTrip() throws Exception {
+        Set<String> paths = JDKPaths.computePaths(indexFile, jarFile.getPath());
+        assertTrue("Contains foo: " + paths, paths.contains("org/jboss/foo"));
+        assertTrue("Contains bar: " + paths, paths.contains("org/jboss/bar"));
+        assertTrue("Index written", indexFile.isFile());
+
+        // The paths of an unchanged jar are read from the index
+        replaceIndexedPaths();
+        paths = JDKPaths.computePaths(indexFile, jarFile.getPath());
+        assertTrue("Contains indexed path: " + paths, paths.contains(INDEXED_PATH));
+        assertFalse("No scanned path: " + paths, paths.contains("org/jboss/foo"));
+    }
+
+    @Test
+    public void testStaleJarRescanned() throws Exception {
+        JDKPaths.computePaths(indexFile, jarFile.getPath());
+        replaceIndexedPaths();
+
+        // A modified jar is scanned again and the index is updated
+        assertTrue(jarFile.setLastModified(jarFile.lastModified() - 10000));
+        Set<String> paths = JDKPaths.computePaths(indexFile, jarFile.getPath());
+        assertFalse("No indexed path: " + paths, paths.contains(INDEXED_PATH));
+        assertTrue("Contains foo: " + paths, paths.contains("org/jboss/foo"));
+
+        paths = JDKPaths.computePaths(indexFile, jarFile.getPath());
+        assertTrue("Contains foo: " + paths, paths.contains("org/jboss/foo"));
+    }
+
+    // Replace the paths of the indexed jar, so that the test can tell whether the index was used
+    private void replaceIndexedPaths() throws IOException {
+        StringBuilder content = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(jarFile.getPath() + "\t")) {
+                    line = line.substring(0, line.lastIndexOf('\t') + 1) + INDEXED_PATH;
+                }
+                content.append(line).append('\n');
+            }
+        } finally {
+            reader.close();
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(indexFile), "UTF-8");
+        try {
+            writer.write(content.toString());
+        } finally {
+            writer.close();
+        }
+    }
+}
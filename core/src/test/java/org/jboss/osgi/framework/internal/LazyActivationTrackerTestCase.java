@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+
+import org.jboss.osgi.spi.OSGiManifestBuilder;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.test.osgi.framework.subA.SimpleActivator;
+import org.jboss.test.osgi.framework.subA.SimpleService;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+
+/**
+ * Test the tracking of lazy activation for nested class loads.
+ *
+ * @since 19-Oct-2026
+ */
+public class LazyActivationTrackerTestCase extends AbstractFrameworkTest {
+
+    @Test
+    public void testNestedClassLoad() throws Exception {
+        Bundle bundle = installBundle(getLazyArchive());
+        HostBundleState hostState = (HostBundleState) AbstractBundleState.assertBundleState(bundle);
+        assertTrue("Await lazy activation", hostState.awaitLazyActivation());
+
+        LazyActivationTracker.startTracking(hostState, "outer");
+        try {
+            LazyActivationTracker.startTracking(hostState, "inner");
+            LazyActivationTracker.preDefineClass(hostState, SimpleService.class.getName());
+            LazyActivationTracker.stopTracking(hostState, "inner");
+
+            // The outer load is still tracked, so defining the class does not activate the bundle
+            LazyActivationTracker.postDefineClass(hostState, SimpleService.class);
+            assertTrue("Still awaiting lazy activation", hostState.awaitLazyActivation());
+            assertBundleState(Bundle.INSTALLED, bundle.getState());
+
+            // The outer load completes and activates the bundle
+            LazyActivationTracker.processLoadedClass(SimpleService.class);
+            assertBundleState(Bundle.ACTIVE, bundle.getState());
+        } finally {
+            LazyActivationTracker.stopTracking(hostState, "outer");
+            bundle.uninstall();
+        }
+    }
+
+    private JavaArchive getLazyArchive() {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "lazy-tracker-bundle");
+        archive.addClasses(SimpleService.class, SimpleActivator.class);
+        archive.setManifest(new Asset() {
+            public InputStream openStream() {
+                OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
+                builder.addBundleManifestVersion(2);
+                builder.addBundleSymbolicName(archive.getName());
+                builder.addBundleActivator(SimpleActivator.class);
+                builder.addManifestHeader("Bundle-ActivationPolicy", "lazy");
+                builder.addImportPackages("org.osgi.framework");
+                return builder.openStream();
+            }
+        });
+        return archive;
+    }
+}
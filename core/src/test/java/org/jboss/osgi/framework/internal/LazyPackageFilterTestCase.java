@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link LazyPackageFilter}.
+ *
+ * @since 19-Oct-2026
+ */
+public class LazyPackageFilterTestCase {
+
+    @Test
+    public void testAcceptAll() throws Exception {
+        LazyPackageFilter filter = LazyPackageFilter.create(null, null);
+        assertTrue(filter.acceptClass("org.acme.Foo"));
+        assertTrue(filter.acceptClass("Foo"));
+    }
+
+    @Test
+    public void testIncludes() throws Exception {
+        LazyPackageFilter filter = LazyPackageFilter.create(Arrays.asList("org.acme", "org.acme.impl"), null);
+        assertTrue(filter.acceptClass("org.acme.Foo"));
+        assertTrue(filter.acceptClass("org.acme.impl.FooImpl"));
+        assertTrue(filter.acceptPackage("org.acme"));
+        assertFalse(filter.acceptClass("org.acme.other.Bar"));
+        assertFalse(filter.acceptClass("org.acm.Foo"));
+        assertFalse(filter.acceptClass("Foo"));
+    }
+
+    @Test
+    public void testExcludes() throws Exception {
+        LazyPackageFilter filter = LazyPackageFilter.create(Arrays.asList("org.acme", "org.acme.impl"), Arrays.asList("org.acme.impl"));
+        assertTrue(filter.acceptClass("org.acme.Foo"));
+        assertFalse(filter.acceptClass("org.acme.impl.FooImpl"));
+
+        filter = LazyPackageFilter.create(null, Arrays.asList("org.acme.impl"));
+        assertTrue(filter.acceptClass("org.acme.Foo"));
+        assertFalse(filter.acceptClass("org.acme.impl.FooImpl"));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+
+import org.jboss.osgi.framework.BundleLifecycleTimings;
+import org.jboss.osgi.framework.BundleLifecycleTimings.Timing;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Test the {@link BundleLifecycleTimings} service.
+ *
+ * @since 19-Oct-2026
+ */
+public class LifecycleTimingTestCase extends AbstractFrameworkTest {
+
+    @Test
+    public void testStartStopTiming() throws Exception {
+        BundleContext context = getSystemContext();
+        ServiceReference sref = context.getServiceReference(BundleLifecycleTimings.class.getName());
+        assertNotNull("BundleLifecycleTimings not null", sref);
+        BundleLifecycleTimings timings = (BundleLifecycleTimings) context.getService(sref);
+
+        Bundle bundle = installBundle(getSimpleArchive("timing-bundle", null));
+        try {
+            bundle.start();
+            Timing timing = timings.getTiming(bundle);
+            assertNotNull("Timing not null", timing);
+            assertTrue("Start time recorded", timing.getStartTime() > 0);
+            assertTrue("Activator start time recorded", timing.getActivatorStartTime() > 0);
+            assertTrue("Start includes activator", timing.getStartTime() >= timing.getActivatorStartTime());
+            assertEquals(1, timing.getServiceRegistrationCount());
+            assertTrue("Bundle in timings", timings.getTimings().containsKey(bundle));
+
+            bundle.stop();
+            assertTrue("Activator stop time recorded", timing.getActivatorStopTime() > 0);
+        } finally {
+            bundle.uninstall();
+            context.ungetService(sref);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link LocalizedHeadersCache}.
+ *
+ * @since 19-Oct-2026
+ */
+public class LocalizedHeadersCacheTestCase {
+
+    @Test
+    public void testCachedHeaders() throws Exception {
+        LocalizedHeadersCache cache = new LocalizedHeadersCache();
+        Dictionary<String, String> deHeaders = new Hashtable<String, String>();
+        Dictionary<String, String> defaultHeaders = new Hashtable<String, String>();
+        assertNull(cache.get("de", Locale.ENGLISH));
+        cache.put("de", Locale.ENGLISH, deHeaders);
+        cache.put(null, Locale.ENGLISH, defaultHeaders);
+        assertSame(deHeaders, cache.get("de", Locale.ENGLISH));
+        assertSame(defaultHeaders, cache.get(null, Locale.ENGLISH));
+        assertNull(cache.get("fr", Locale.ENGLISH));
+        cache.clear();
+        assertNull(cache.get("de", Locale.ENGLISH));
+        assertNull(cache.get(null, Locale.ENGLISH));
+    }
+
+    @Test
+    public void testDefaultLocaleChange() throws Exception {
+        LocalizedHeadersCache cache = new LocalizedHeadersCache();
+        cache.put(null, Locale.ENGLISH, new Hashtable<String, String>());
+        cache.put("de", Locale.ENGLISH, new Hashtable<String, String>());
+        assertNull(cache.get(null, Locale.GERMAN));
+        assertNull(cache.get("de", Locale.GERMAN));
+    }
+
+    @Test
+    public void testMaxLocales() throws Exception {
+        LocalizedHeadersCache cache = new LocalizedHeadersCache();
+        for (int i = 0; i < LocalizedHeadersCache.MAX_LOCALES; i++) {
+            cache.put("locale" + i, Locale.ENGLISH, new Hashtable<String, String>());
+        }
+        Dictionary<String, String> headers = new Hashtable<String, String>();
+        cache.put("de", Locale.ENGLISH, headers);
+        assertNull(cache.get("locale0", Locale.ENGLISH));
+        assertSame(headers, cache.get("de", Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jboss.osgi.framework.internal.NativeCodePlugin.BundleNativeLibraryProvider;
+import org.jboss.osgi.vfs.VFSUtils;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+
+/**
+ * Test the locations of native libraries that are extracted from bundle content.
+ *
+ * @since 19-Oct-2026
+ */
+public class NativeLibraryProviderTestCase extends AbstractFrameworkTest {
+
+    private static final String LIBRARY_PATH = "lib/libsimple.so";
+
+    @Test
+    public void testSameContentDifferentLoaders() throws Exception {
+        JavaArchive archive = getSimpleArchive("native-bundle", null);
+        archive.add(new StringAsset("native library"), LIBRARY_PATH);
+
+        // The same content under two locations has the same digest
+        Bundle bundleA = getSystemContext().installBundle("native-bundle-a", toInputStream(archive));
+        Bundle bundleB = getSystemContext().installBundle("native-bundle-b", toInputStream(archive));
+        try {
+            bundleA.start();
+            bundleB.start();
+
+            BundleNativeLibraryProvider providerA = getLibraryProvider(bundleA);
+            BundleNativeLibraryProvider providerB = getLibraryProvider(bundleB);
+            File fileA = providerA.getLibraryLocation();
+            File fileB = providerB.getLibraryLocation();
+            assertTrue("File exists: " + fileA, fileA.isFile());
+            assertTrue("File exists: " + fileB, fileB.isFile());
+            assertFalse("Different paths", fileA.getAbsolutePath().equals(fileB.getAbsolutePath()));
+            assertArrayEquals(readFile(fileA), readFile(fileB));
+
+            // A provider keeps the location it has handed out
+            assertEquals(fileA, providerA.getLibraryLocation());
+            assertEquals(fileB, providerB.getLibraryLocation());
+        } finally {
+            bundleA.uninstall();
+            bundleB.uninstall();
+        }
+    }
+
+    @Test
+    public void testSameLoaderKeepsClaim() throws Exception {
+        JavaArchive archive = getSimpleArchive("native-bundle", null);
+        archive.add(new StringAsset("native library for one loader"), LIBRARY_PATH);
+
+        Bundle bundle = getSystemContext().installBundle("native-bundle-c", toInputStream(archive));
+        try {
+            bundle.start();
+
+            // Providers for the same class loader share the claimed library instead of copying it
+            File fileA = getLibraryProvider(bundle).getLibraryLocation();
+            File fileB = getLibraryProvider(bundle).getLibraryLocation();
+            assertEquals(fileA, fileB);
+        } finally {
+            bundle.uninstall();
+        }
+    }
+
+    private BundleNativeLibraryProvider getLibraryProvider(Bundle bundle) {
+        HostBundleState hostState = (HostBundleState) AbstractBundleState.assertBundleState(bundle);
+        HostBundleRevision hostRev = hostState.getCurrentBundleRevision();
+        return new BundleNativeLibraryProvider(hostRev, "simple", LIBRARY_PATH);
+    }
+
+    private byte[] readFile(File file) throws IOException {
+        InputStream input = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            VFSUtils.copyStream(input, output);
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+}
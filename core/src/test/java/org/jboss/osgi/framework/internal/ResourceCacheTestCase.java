@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.net.URL;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ResourceCache}.
+ *
+ * @since 19-Oct-2026
+ */
+public class ResourceCacheTestCase {
+
+    @Test
+    public void testCachedResults() throws Exception {
+        ResourceCache cache = new ResourceCache(8);
+        URL url = new URL("file:/foo.txt");
+        assertNull(cache.get("foo.txt"));
+        cache.put("foo.txt", url);
+        cache.put("bar.txt", null);
+        assertEquals(url, cache.get("foo.txt"));
+        assertSame(ResourceCache.NOT_FOUND, cache.get("bar.txt"));
+        cache.clear();
+        assertNull(cache.get("foo.txt"));
+        assertNull(cache.get("bar.txt"));
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        ResourceCache cache = new ResourceCache(2);
+        cache.put("a", null);
+        cache.put("b", null);
+        cache.put("c", null);
+        assertEquals(2, cache.size());
+        assertSame(ResourceCache.NOT_FOUND, cache.get("c"));
+
+        // Updating a cached path does not evict
+        cache.put("c", null);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        ResourceCache cache = new ResourceCache(0);
+        cache.put("a", null);
+        assertNull(cache.get("a"));
+    }
+}
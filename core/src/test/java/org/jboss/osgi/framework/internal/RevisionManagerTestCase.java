@@ -0,0 +1,217 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.osgi.framework.StorageState;
+import org.jboss.osgi.spi.OSGiManifestBuilder;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.test.osgi.framework.subA.SimpleService;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.SynchronousBundleListener;
+
+/**
+ * Test the reclaiming of bundle revisions that are no longer wired.
+ *
+ * @since 19-Oct-2026
+ */
+public class RevisionManagerTestCase extends AbstractFrameworkTest {
+
+    @Test
+    public void testUnwiredRevision() throws Exception {
+        Bundle provider = installBundle(getProviderArchive());
+        try {
+            assertNotNull(provider.loadClass(SimpleService.class.getName()));
+            UserBundleState providerState = UserBundleState.assertBundleState(provider);
+            AbstractBundleRevision oldRev = providerState.getCurrentBundleRevision();
+
+            provider.update(toInputStream(getProviderArchive()));
+
+            getRevisionManager().reclaimRevisions();
+            assertEquals(1, providerState.getAllBundleRevisions().size());
+            assertFalse(providerState.getAllBundleRevisions().contains(oldRev));
+            assertNotNull(provider.loadClass(SimpleService.class.getName()));
+        } finally {
+            provider.uninstall();
+        }
+    }
+
+    @Test
+    public void testWiredRevision() throws Exception {
+        Bundle provider = installBundle(getProviderArchive());
+        try {
+            Bundle consumer = installBundle(getConsumerArchive());
+            assertNotNull(consumer.loadClass(SimpleService.class.getName()));
+            UserBundleState providerState = UserBundleState.assertBundleState(provider);
+            UserBundleRevision oldRev = providerState.getCurrentBundleRevision();
+            File oldFile = getRevisionFile(oldRev);
+
+            provider.update(toInputStream(getProviderArchive()));
+
+            // The old revision is still wired to the consumer
+            getRevisionManager().reclaimRevisions();
+            assertEquals(2, providerState.getAllBundleRevisions().size());
+            assertTrue(providerState.getAllBundleRevisions().contains(oldRev));
+            assertTrue("File exists: " + oldFile, oldFile.exists());
+
+            consumer.uninstall();
+
+            getRevisionManager().reclaimRevisions();
+            assertEquals(1, providerState.getAllBundleRevisions().size());
+            assertFalse(providerState.getAllBundleRevisions().contains(oldRev));
+            assertFalse("File deleted: " + oldFile, oldFile.exists());
+        } finally {
+            provider.uninstall();
+        }
+    }
+
+    @Test
+    public void testUninstalledProvider() throws Exception {
+        Bundle provider = installBundle(getProviderArchive());
+        Bundle consumer = installBundle(getConsumerArchive());
+        try {
+            assertNotNull(consumer.loadClass(SimpleService.class.getName()));
+            final UserBundleState providerState = UserBundleState.assertBundleState(provider);
+            final AtomicInteger unresolved = new AtomicInteger();
+            SynchronousBundleListener listener = new SynchronousBundleListener() {
+                @Override
+                public void bundleChanged(BundleEvent event) {
+                    if (event.getBundle() == providerState && event.getType() == BundleEvent.UNRESOLVED) {
+                        unresolved.incrementAndGet();
+                    }
+                }
+            };
+            getSystemContext().addBundleListener(listener);
+
+            // The uninstalled provider is kept while the consumer is wired to it
+            provider.uninstall();
+            getRevisionManager().reclaimRevisions();
+            assertTrue(getBundleManager().getBundles(Bundle.UNINSTALLED).contains(providerState));
+            assertEquals(0, unresolved.get());
+
+            // The updated consumer is no longer wired to the provider
+            consumer.update(toInputStream(getConsumerArchive()));
+            getRevisionManager().reclaimRevisions();
+            assertFalse(getBundleManager().getBundles(Bundle.UNINSTALLED).contains(providerState));
+            assertEquals(1, unresolved.get());
+
+            // A concurrent removal, for example by a refresh, does nothing
+            getBundleManager().removeBundle(providerState, 0);
+            assertEquals(1, unresolved.get());
+            getSystemContext().removeBundleListener(listener);
+        } finally {
+            consumer.uninstall();
+        }
+    }
+
+    @Test
+    public void testDynamicallyWiredRevision() throws Exception {
+        Bundle provider = installBundle(getProviderArchive());
+        try {
+            Bundle consumer = installBundle(getDynamicConsumerArchive());
+            assertNotNull(consumer.loadClass(SimpleService.class.getName()));
+            UserBundleState providerState = UserBundleState.assertBundleState(provider);
+            UserBundleRevision oldRev = providerState.getCurrentBundleRevision();
+
+            provider.update(toInputStream(getProviderArchive()));
+
+            // The consumer loaded from the old revision without a wire
+            getRevisionManager().reclaimRevisions();
+            assertEquals(2, providerState.getAllBundleRevisions().size());
+            assertTrue(providerState.getAllBundleRevisions().contains(oldRev));
+            assertNotNull(consumer.loadClass(SimpleService.class.getName()));
+
+            consumer.uninstall();
+
+            getRevisionManager().reclaimRevisions();
+            assertEquals(1, providerState.getAllBundleRevisions().size());
+            assertFalse(providerState.getAllBundleRevisions().contains(oldRev));
+        } finally {
+            provider.uninstall();
+        }
+    }
+
+    private RevisionManagerPlugin getRevisionManager() throws Exception {
+        return getFrameworkState().getRevisionManagerPlugin();
+    }
+
+    private File getRevisionFile(UserBundleRevision brev) {
+        StorageState storageState = brev.getDeployment().getAttachment(StorageState.class);
+        String fileName = storageState.getProperties().getProperty(StorageState.PROPERTY_BUNDLE_FILE);
+        return new File(storageState.getStorageDir(), fileName);
+    }
+
+    private JavaArchive getProviderArchive() {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "revision-provider");
+        archive.addClasses(SimpleService.class);
+        archive.setManifest(new Asset() {
+            public InputStream openStream() {
+                OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
+                builder.addBundleManifestVersion(2);
+                builder.addBundleSymbolicName(archive.getName());
+                builder.addExportPackages(SimpleService.class);
+                return builder.openStream();
+            }
+        });
+        return archive;
+    }
+
+    private JavaArchive getConsumerArchive() {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "revision-consumer");
+        archive.setManifest(new Asset() {
+            public InputStream openStream() {
+                OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
+                builder.addBundleManifestVersion(2);
+                builder.addBundleSymbolicName(archive.getName());
+                builder.addImportPackages(SimpleService.class);
+                return builder.openStream();
+            }
+        });
+        return archive;
+    }
+
+    private JavaArchive getDynamicConsumerArchive() {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "revision-dynamic-consumer");
+        archive.setManifest(new Asset() {
+            public InputStream openStream() {
+                OSGiManifestBuilder builder = OSGiManifestBuilder.newInstance();
+                builder.addBundleManifestVersion(2);
+                builder.addBundleSymbolicName(archive.getName());
+                builder.addManifestHeader("DynamicImport-Package", SimpleService.class.getPackage().getName());
+                return builder.openStream();
+            }
+        });
+        return archive;
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.msc.service.AbstractService;
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceController.State;
+import org.jboss.msc.service.ServiceController.Transition;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.osgi.framework.FutureServiceValue;
+import org.jboss.osgi.framework.Services;
+import org.jboss.osgi.spi.util.ServiceLoader;
+import org.jboss.osgi.testing.OSGiTest;
+import org.junit.After;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceFactory;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.launch.Framework;
+import org.osgi.framework.launch.FrameworkFactory;
+
+/**
+ * Test the framework's service registry and the MSC services that expose it.
+ *
+ * @since 19-Oct-2026
+ */
+public class ServiceRegistryTestCase extends OSGiTest {
+
+    private final File storageDir = new File("target/test-osgi-service-registry").getAbsoluteFile();
+    private Framework framework;
+
+    @After
+    public void tearDown() throws Exception {
+        if (framework != null) {
+            framework.stop();
+            framework.waitForStop(2000);
+            framework = null;
+        }
+    }
+
+    @Test
+    public void testReregisterDuringRemoval() throws Exception {
+        BundleContext context = startFramework(false);
+        ServiceName serviceName = ServiceState.createServiceName(Runnable.class.getName());
+
+        ServiceRegistration regA = context.registerService(Runnable.class.getName(), new SimpleRunnable(), null);
+        awaitServiceController(serviceName, ServiceState.assertServiceState(regA.getReference()));
+
+        // The MSC service is removed asynchronously, the second registration must not be lost
+        regA.unregister();
+        ServiceRegistration regB = context.registerService(Runnable.class.getName(), new SimpleRunnable(), null);
+        awaitServiceController(serviceName, ServiceState.assertServiceState(regB.getReference()));
+        regB.unregister();
+    }
+
+    @Test
+    public void testLightweightNotExposed() throws Exception {
+        BundleContext context = startFramework(true);
+        ServiceName serviceName = ServiceState.createServiceName(Runnable.class.getName());
+
+        ServiceRegistration reg = context.registerService(Runnable.class.getName(), new SimpleRunnable(), null);
+        try {
+            assertNotNull("Service found", context.getServiceReference(Runnable.class.getName()));
+            assertNull("No MSC service", getServiceContainer(context).getService(serviceName));
+        } finally {
+            reg.unregister();
+        }
+    }
+
+    @Test
+    public void testLightweightExposed() throws Exception {
+        BundleContext context = startFramework(true);
+        BundleManagerPlugin bundleManager = getBundleManager(context);
+
+        ServiceRegistration regA = context.registerService(Runnable.class.getName(), new SimpleRunnable(), null);
+        ServiceName serviceName = bundleManager.exposeService(Runnable.class.getName());
+        assertEquals(ServiceState.createServiceName(Runnable.class.getName()), serviceName);
+        awaitServiceController(serviceName, ServiceState.assertServiceState(regA.getReference()));
+
+        // An exposed name gets its MSC service again for a later registration
+        regA.unregister();
+        ServiceRegistration regB = context.registerService(Runnable.class.getName(), new SimpleRunnable(), null);
+        awaitServiceController(serviceName, ServiceState.assertServiceState(regB.getReference()));
+        regB.unregister();
+    }
+
+    @Test
+    public void testConcurrentRegistrations() throws Exception {
+        final BundleContext context = startFramework(false);
+        final List<ServiceRegistration> registrations = new CopyOnWriteArrayList<ServiceRegistration>();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < 50; j++) {
+                            ServiceRegistration reg = context.registerService(Runnable.class.getName(), new SimpleRunnable(), null);
+                            if (j % 2 == 0) {
+                                reg.unregister();
+                            } else {
+                                registrations.add(reg);
+                            }
+                        }
+                    } catch (Throwable th) {
+                        failure.set(th);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull("No failure", failure.get());
+
+        // Registrations under the same name are neither lost nor duplicated
+        ServiceReference[] srefs = context.getServiceReferences(Runnable.class.getName(), null);
+        assertEquals(registrations.size(), srefs.length);
+        ServiceName serviceName = ServiceState.createServiceName(Runnable.class.getName());
+        for (ServiceRegistration reg : registrations) {
+            awaitServiceController(serviceName, ServiceState.assertServiceState(reg.getReference()));
+        }
+        for (ServiceRegistration reg : registrations) {
+            reg.unregister();
+        }
+        assertNull("No services", context.getServiceReferences(Runnable.class.getName(), null));
+    }
+
+    @Test
+    public void testServiceFactoryConcurrentGetService() throws Exception {
+        final BundleContext context = startFramework(false);
+        final AtomicInteger getCount = new AtomicInteger();
+        final AtomicInteger ungetCount = new AtomicInteger();
+        ServiceFactory factory = new ServiceFactory() {
+            public Object getService(Bundle bundle, ServiceRegistration registration) {
+                getCount.incrementAndGet();
+                return new SimpleRunnable();
+            }
+
+            public void ungetService(Bundle bundle, ServiceRegistration registration, Object service) {
+                ungetCount.incrementAndGet();
+            }
+        };
+        ServiceRegistration reg = context.registerService(Runnable.class.getName(), factory, null);
+        final ServiceReference sref = reg.getReference();
+        final Set<Object> services = Collections.synchronizedSet(new HashSet<Object>());
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    services.add(context.getService(sref));
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // The factory is called once for the bundle and every caller gets the same object
+        assertEquals(1, getCount.get());
+        assertEquals(1, services.size());
+        assertEquals(1, sref.getUsingBundles().length);
+        assertEquals(context.getBundle(), sref.getUsingBundles()[0]);
+
+        for (int i = 0; i < threads.length; i++) {
+            context.ungetService(sref);
+        }
+        assertEquals(1, ungetCount.get());
+        assertNull("No using bundles", sref.getUsingBundles());
+        reg.unregister();
+    }
+
+    @Test
+    public void testXServiceReferenceIdentity() throws Exception {
+        BundleContext context = startFramework(false);
+        ServiceContainer serviceContainer = getServiceContainer(context);
+        final Runnable value = new SimpleRunnable();
+        ServiceName serviceName = Services.XSERVICE_BASE_NAME.append(Runnable.class.getName());
+        ServiceController<Runnable> controller = serviceContainer.addService(serviceName, new AbstractService<Runnable>() {
+            public Runnable getValue() {
+                return value;
+            }
+        }).install();
+        new FutureServiceValue<Runnable>(controller).get(2, TimeUnit.SECONDS);
+
+        // Repeated lookups return the same reference
+        ServiceReference srefA = context.getServiceReference(Runnable.class.getName());
+        ServiceReference srefB = context.getServiceReference(Runnable.class.getName());
+        assertNotNull("Reference not null", srefA);
+        assertSame(srefA, srefB);
+        assertSame(value, context.getService(srefA));
+        context.ungetService(srefA);
+
+        // The reference is discarded with the controller
+        final CountDownLatch latch = new CountDownLatch(1);
+        controller.addListener(new AbstractServiceListener<Runnable>() {
+            @Override
+            public void transition(ServiceController<? extends Runnable> controller, Transition transition) {
+                if (transition == Transition.REMOVING_to_REMOVED) {
+                    latch.countDown();
+                }
+            }
+        });
+        controller.setMode(Mode.REMOVE);
+        assertTrue("Controller removed", latch.await(2, TimeUnit.SECONDS));
+        assertNull("No reference", context.getServiceReference(Runnable.class.getName()));
+    }
+
+    private BundleContext startFramework(boolean lightweight) throws Exception {
+        Map<String, String> props = new HashMap<String, String>();
+        props.put(Constants.FRAMEWORK_STORAGE, storageDir.getPath());
+        props.put(Constants.FRAMEWORK_STORAGE_CLEAN, Constants.FRAMEWORK_STORAGE_CLEAN_ONFIRSTINIT);
+        props.put(org.jboss.osgi.framework.Constants.PROPERTY_SERVICE_REGISTRY_LIGHTWEIGHT, Boolean.toString(lightweight));
+        framework = ServiceLoader.loadService(FrameworkFactory.class).newFramework(props);
+        framework.start();
+        return framework.getBundleContext();
+    }
+
+    private BundleManagerPlugin getBundleManager(BundleContext context) {
+        return AbstractBundleState.assertBundleState(context.getBundle()).getBundleManager();
+    }
+
+    private ServiceContainer getServiceContainer(BundleContext context) {
+        return getBundleManager(context).getServiceContainer();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void awaitServiceController(ServiceName serviceName, ServiceState serviceState) throws Exception {
+        ServiceContainer serviceContainer = getServiceContainer(framework.getBundleContext());
+        long timeout = System.currentTimeMillis() + 2000;
+        while (System.currentTimeMillis() < timeout) {
+            ServiceController<?> controller = serviceContainer.getService(serviceName);
+            if (controller != null && controller.getState() == State.UP) {
+                List<ServiceState> serviceStates = (List<ServiceState>) controller.getValue();
+                if (serviceStates.contains(serviceState))
+                    return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Timeout waiting for " + serviceName + " to expose: " + serviceState);
+    }
+
+    static class SimpleRunnable implements Runnable {
+        public void run() {
+        }
+    }
+}
@@ -29,16 +29,21 @@ import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.junit.Test;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
 import org.osgi.framework.BundleException;
 import org.osgi.framework.ServiceReference;
+import org.osgi.framework.SynchronousBundleListener;
 import org.osgi.service.startlevel.StartLevel;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -141,6 +146,92 @@ public class StartLevelPluginTestCase extends OSGiFrameworkTest {
         }
     }
 
+    @Test
+    public void testStartLevelKeptOnUpdate() throws Exception {
+        StartLevel startLevel = getStartLevel();
+        int orgStartLevel = startLevel.getStartLevel();
+        try {
+            setTestExecutor(startLevel);
+
+            Bundle bundle = installBundle(createTestBundle("bundle4"));
+            try {
+                startLevel.setBundleStartLevel(bundle, 7);
+                bundle.start(Bundle.START_ACTIVATION_POLICY);
+                assertBundleState(Bundle.INSTALLED, bundle.getState());
+
+                bundle.update(toInputStream(createTestBundle("bundle4")));
+                assertEquals(7, startLevel.getBundleStartLevel(bundle));
+                assertTrue(startLevel.isBundlePersistentlyStarted(bundle));
+                assertTrue(startLevel.isBundleActivationPolicyUsed(bundle));
+
+                startLevel.setStartLevel(7);
+                assertBundleState(Bundle.ACTIVE, bundle.getState());
+            } finally {
+                bundle.uninstall();
+            }
+        } finally {
+            startLevel.setStartLevel(orgStartLevel);
+        }
+    }
+
+    @Test
+    public void testStartLevelBundlesStartedConcurrently() throws Exception {
+        StartLevel startLevel = getStartLevel();
+        int orgStartLevel = startLevel.getStartLevel();
+        try {
+            setTestExecutor(startLevel);
+
+            Bundle bundleA = installBundle(createTestBundle("level-a"));
+            Bundle bundleB = installBundle(createTestBundle("level-b"));
+            Bundle bundleC = installBundle(createTestBundle("level-c"));
+            final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+            final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+            SynchronousBundleListener listener = new SynchronousBundleListener() {
+                @Override
+                public void bundleChanged(BundleEvent event) {
+                    String name = event.getBundle().getSymbolicName();
+                    if (event.getType() == BundleEvent.STARTING) {
+                        events.add(name + ":STARTING");
+                        threads.add(Thread.currentThread().getName());
+                    } else if (event.getType() == BundleEvent.STARTED) {
+                        events.add(name + ":STARTED");
+                    }
+                }
+            };
+            try {
+                startLevel.setBundleStartLevel(bundleA, 3);
+                startLevel.setBundleStartLevel(bundleB, 3);
+                startLevel.setBundleStartLevel(bundleC, 4);
+                bundleA.start();
+                bundleB.start();
+                bundleC.start();
+                assertBundleState(Bundle.INSTALLED, bundleC.getState());
+
+                getSystemContext().addBundleListener(listener);
+                startLevel.setStartLevel(4);
+                assertBundleState(Bundle.ACTIVE, bundleA.getState());
+                assertBundleState(Bundle.ACTIVE, bundleB.getState());
+                assertBundleState(Bundle.ACTIVE, bundleC.getState());
+
+                // The bundles of a level are started by the bulk start, the next level waits for them
+                int startingC = events.indexOf("level-c:STARTING");
+                assertTrue(events.toString(), events.indexOf("level-a:STARTED") < startingC);
+                assertTrue(events.toString(), events.indexOf("level-b:STARTED") < startingC);
+                assertEquals(3, threads.size());
+                for (String thread : threads) {
+                    assertTrue(thread, thread.startsWith("OSGi Bundle Start Thread"));
+                }
+            } finally {
+                getSystemContext().removeBundleListener(listener);
+                bundleA.uninstall();
+                bundleB.uninstall();
+                bundleC.uninstall();
+            }
+        } finally {
+            startLevel.setStartLevel(orgStartLevel);
+        }
+    }
+
     @Test
     public void getFrameworkStartLevel() throws Exception {
         BundleContext sc = getFramework().getBundleContext();
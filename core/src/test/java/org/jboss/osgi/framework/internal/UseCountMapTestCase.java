@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.osgi.framework.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link UseCountMap}.
+ *
+ * @since 19-Oct-2026
+ */
+public class UseCountMapTestCase {
+
+    @Test
+    public void testIncrementDecrement() throws Exception {
+        UseCountMap<String> map = new UseCountMap<String>();
+        assertEquals(-1, map.decrement("a"));
+        assertEquals(1, map.increment("a"));
+        assertEquals(2, map.increment("a"));
+        assertEquals(1, map.increment("b"));
+        assertEquals(2, map.size());
+
+        assertEquals(1, map.decrement("a"));
+        assertEquals(0, map.decrement("a"));
+        assertEquals(-1, map.decrement("a"));
+        assertEquals(1, map.size());
+
+        List<String> values = map.keys();
+        assertEquals(1, values.size());
+        assertEquals("b", values.get(0));
+    }
+
+    @Test
+    public void testRandomOperations() throws Exception {
+        UseCountMap<Long> map = new UseCountMap<Long>();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(200);
+            if (random.nextBoolean()) {
+                Integer count = expected.get(key);
+                int next = (count != null ? count + 1 : 1);
+                expected.put(key, next);
+                assertEquals(next, map.increment(key));
+            } else {
+                Integer count = expected.get(key);
+                if (count == null) {
+                    assertEquals(-1, map.decrement(key));
+                } else {
+                    assertEquals(count - 1, map.decrement(key));
+                    if (count == 1) {
+                        expected.remove(key);
+                    } else {
+                        expected.put(key, count - 1);
+                    }
+                }
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), map.getCount(entry.getKey()));
+        }
+        assertTrue(map.keys().containsAll(expected.keySet()));
+    }
+
+    @Test
+    public void testConcurrentOperations() throws Exception {
+        final UseCountMap<Long> map = new UseCountMap<Long>();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        long key = j % 8;
+                        map.increment(key);
+                        map.increment(key);
+                        map.decrement(key);
+                        map.decrement(key);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, map.size());
+        assertTrue(map.keys().isEmpty());
+    }
+}
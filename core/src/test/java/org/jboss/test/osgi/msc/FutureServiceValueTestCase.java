@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2005, JBoss Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.test.osgi.msc;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.Assert;
+
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceController.Mode;
+import org.jboss.msc.service.ServiceController.State;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.osgi.framework.DefaultServiceWaitStrategy;
+import org.jboss.osgi.framework.FutureServiceValue;
+import org.jboss.osgi.framework.FutureServiceValue.Callback;
+import org.junit.Test;
+
+/**
+ * Test the {@link FutureServiceValue} wait strategy and callbacks.
+ *
+ * @since 19-Oct-2026
+ */
+public class FutureServiceValueTestCase extends AbstractServiceTestCase {
+
+    @Test
+    public void testCallback() throws Exception {
+
+        ServiceName snameA = ServiceName.of("serviceA");
+        ServiceBuilder<String> builderA = serviceTarget.addService(snameA, new ServiceA());
+        builderA.setInitialMode(Mode.ON_DEMAND);
+        builderA.install();
+
+        ServiceName snameB = ServiceName.of("serviceB");
+        ServiceBuilder<String> builderB = serviceTarget.addService(snameB, new ServiceB());
+        builderB.addDependency(snameA);
+        ServiceController<String> controllerB = builderB.install();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<String> result = new AtomicReference<String>();
+        new FutureServiceValue<String>(controllerB).addCallback(new Callback<String>() {
+            @Override
+            public void completed(String value) {
+                result.set(value);
+                latch.countDown();
+            }
+
+            @Override
+            public void failed(Throwable cause) {
+                latch.countDown();
+            }
+        });
+        Assert.assertTrue("Callback called", latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("serviceB", result.get());
+    }
+
+    @Test
+    public void testMissingDependency() throws Exception {
+
+        ServiceName snameB = ServiceName.of("serviceB");
+        ServiceBuilder<String> builderB = serviceTarget.addService(snameB, new ServiceB());
+        builderB.addDependency(ServiceName.of("missing"));
+        ServiceController<String> controllerB = builderB.install();
+
+        DefaultServiceWaitStrategy strategy = new DefaultServiceWaitStrategy(100);
+        try {
+            new FutureServiceValue<String>(controllerB, State.UP, strategy).get(100, TimeUnit.MILLISECONDS);
+            Assert.fail("TimeoutException expected");
+        } catch (TimeoutException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("missing"));
+        }
+    }
+
+    @Test
+    public void testTransitiveMissingDependency() throws Exception {
+
+        ServiceName snameA = ServiceName.of("serviceA");
+        ServiceBuilder<String> builderA = serviceTarget.addService(snameA, new ServiceA());
+        builderA.addDependency(ServiceName.of("missing"));
+        builderA.setInitialMode(Mode.ON_DEMAND);
+        builderA.install();
+
+        ServiceName snameB = ServiceName.of("serviceB");
+        ServiceBuilder<String> builderB = serviceTarget.addService(snameB, new ServiceB());
+        builderB.addDependency(snameA);
+        ServiceController<String> controllerB = builderB.install();
+
+        // The missing dependency of serviceA is not immediate to serviceB and the container is not scanned for it
+        DefaultServiceWaitStrategy strategy = new DefaultServiceWaitStrategy(100);
+        try {
+            new FutureServiceValue<String>(controllerB, State.UP, strategy).get();
+            Assert.fail("ExecutionException expected");
+        } catch (ExecutionException ex) {
+            String message = ex.getCause().getMessage();
+            Assert.assertTrue(message, message.contains("no unavailable dependencies"));
+            Assert.assertFalse(message, message.contains("missing"));
+        }
+    }
+
+    @Test
+    public void testInterruptedWait() throws Exception {
+
+        ServiceName snameB = ServiceName.of("serviceB");
+        ServiceBuilder<String> builderB = serviceTarget.addService(snameB, new ServiceB());
+        builderB.addDependency(ServiceName.of("missing"));
+        ServiceController<String> controllerB = builderB.install();
+
+        Thread.currentThread().interrupt();
+        try {
+            new FutureServiceValue<String>(controllerB).get();
+            Assert.fail("ExecutionException expected");
+        } catch (ExecutionException ex) {
+            // expected
+        } finally {
+            Assert.assertTrue("Interrupt flag restored", Thread.interrupted());
+        }
+    }
+}